@@ -1,17 +1,51 @@
 package io.coworking.audit;
 
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
 @Configuration
 @EnableAspectJAutoProxy
+@EnableConfigurationProperties(AuditProperties.class)
+@ConditionalOnProperty(prefix = "coworking.audit", name = "enabled", matchIfMissing = true)
 public class AuditAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public AuditAspect auditAspect() {
-        return new AuditAspect();
+    public AuditSink auditSink(AuditProperties properties, ObjectProvider<DataSource> dataSource) {
+        if (properties.getSink() == AuditProperties.Sink.FILE) {
+            return new RollingFileAuditSink(Path.of(properties.getFile()), properties.getMaxFileSize(), properties.getMaxHistory());
+        }
+        return new JdbcAuditSink(dataSource, properties.getTable());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AuditPipeline auditPipeline(AuditSink auditSink, AuditProperties properties) {
+        return new AuditPipeline(auditSink, properties);
+    }
+
+    /**
+     * Привязываем аудит к pointcut из настроек, чтобы путь запроса платил только за постановку события в буфер.
+     *
+     * @param auditPipeline the audit pipeline
+     * @param properties the audit properties
+     * @return the advisor
+     */
+    @Bean
+    public Advisor auditAdvisor(AuditPipeline auditPipeline, AuditProperties properties) {
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+        advisor.setExpression(properties.getPointcut());
+        advisor.setAdvice(new AuditInterceptor(auditPipeline));
+        return advisor;
     }
 }
@@ -0,0 +1,12 @@
+package io.coworking.audit;
+
+/**
+ * Компактное событие аудита: только то, что нужно для журнала, без сериализации аргументов и результата.
+ *
+ * @param occurredAt the event time in epoch milliseconds
+ * @param action the action name in the form {@code Class.method}
+ * @param target the ID or name of the affected entity, or null if unknown
+ * @param success whether the action completed without an exception
+ */
+public record AuditEvent(long occurredAt, String action, String target, boolean success) {
+}
@@ -0,0 +1,54 @@
+package io.coworking.audit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Публикуем событие аудита после каждого вызова аудируемого действия.
+ * В событие попадают имя действия, идентификатор из первого аргумента и результат выполнения;
+ * возвращаемое значение не сериализуется.
+ */
+public class AuditInterceptor implements MethodInterceptor {
+    private final AuditPipeline pipeline;
+    private final Map<Method, String> actions = new ConcurrentHashMap<>();
+
+    /**
+     * @param pipeline the audit pipeline
+     */
+    public AuditInterceptor(AuditPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            pipeline.publish(new AuditEvent(System.currentTimeMillis(), action(invocation.getMethod()),
+                    target(invocation.getArguments()), success));
+        }
+    }
+
+    private String action(Method method) {
+        String action = actions.get(method);
+        if (action == null) {
+            action = actions.computeIfAbsent(method, key -> key.getDeclaringClass().getSimpleName() + "." + key.getName());
+        }
+        return action;
+    }
+
+    private static String target(Object[] arguments) {
+        if (arguments.length == 0) {
+            return null;
+        }
+        Object first = arguments[0];
+        return first instanceof Number || first instanceof String ? first.toString() : null;
+    }
+}
@@ -0,0 +1,151 @@
+package io.coworking.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронный конвейер аудита: потоки запросов только кладут событие в кольцевой буфер,
+ * а фоновый поток забирает события пачками и сбрасывает их в {@link AuditSink}.
+ * При заполнении буфера действует политика {@link BackpressurePolicy}.
+ */
+public class AuditPipeline implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(AuditPipeline.class);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AuditRingBuffer buffer;
+    private final AuditSink sink;
+    private final BackpressurePolicy backpressure;
+    private final double sampleRate;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * @param sink the audit sink
+     * @param properties the audit properties
+     */
+    public AuditPipeline(AuditSink sink, AuditProperties properties) {
+        this.buffer = new AuditRingBuffer(properties.getBufferSize());
+        this.sink = sink;
+        this.backpressure = properties.getBackpressure();
+        this.sampleRate = properties.getSampleRate();
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+    }
+
+    /**
+     * Публикуем событие. Метод не выполняет ввод-вывод и блокируется только при политике BLOCK.
+     *
+     * @param event the audit event
+     */
+    public void publish(AuditEvent event) {
+        switch (backpressure) {
+            case DROP -> offerOrDrop(event);
+            case SAMPLE -> {
+                if (buffer.size() >= buffer.capacity() / 2 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                    dropped.incrementAndGet();
+                } else {
+                    offerOrDrop(event);
+                }
+            }
+            case BLOCK -> {
+                while (!buffer.offer(event)) {
+                    if (!running) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+            }
+        }
+    }
+
+    private void offerOrDrop(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of events dropped because of backpressure
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Останавливаемся после веб-сервера, чтобы события завершающихся запросов успели попасть в хранилище.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        long reportedDropped = 0;
+        while (running) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            flush(batch);
+            long droppedNow = dropped.get();
+            if (droppedNow != reportedDropped) {
+                logger.warn("Audit buffer overflow: {} events dropped so far", droppedNow);
+                reportedDropped = droppedNow;
+            }
+        }
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        try {
+            sink.write(batch);
+        } catch (Exception e) {
+            logger.error("Failed to write {} audit events", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.coworking.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки асинхронного журнала аудита.
+ */
+@ConfigurationProperties(prefix = "coworking.audit")
+public class AuditProperties {
+    /**
+     * Тип хранилища событий.
+     */
+    public enum Sink {
+        JDBC,
+        FILE
+    }
+
+    /**
+     * Включен ли аудит.
+     */
+    private boolean enabled = true;
+
+    /**
+     * AspectJ-выражение, определяющее аудируемые действия. По умолчанию только изменяющие методы менеджеров.
+     */
+    private String pointcut = "execution(public * io.coworking.managers..*.add*(..))"
+            + " || execution(public * io.coworking.managers..*.book*(..))"
+            + " || execution(public * io.coworking.managers..*.update*(..))"
+            + " || execution(public * io.coworking.managers..*.delete*(..))"
+            + " || execution(public * io.coworking.managers..*.cancel*(..))"
+            + " || execution(public * io.coworking.managers..*.register*(..))";
+
+    /**
+     * Емкость кольцевого буфера, округляется вверх до степени двойки.
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Поведение при заполнении буфера.
+     */
+    private BackpressurePolicy backpressure = BackpressurePolicy.DROP;
+
+    /**
+     * Доля пропускаемых событий для политики SAMPLE.
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * Максимальный размер пачки, сбрасываемой в хранилище.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Пауза фонового писателя, когда буфер пуст.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Хранилище событий.
+     */
+    private Sink sink = Sink.JDBC;
+
+    /**
+     * Таблица для хранилища JDBC.
+     */
+    private String table = "coworking.\"audit_events-liquibase\"";
+
+    /**
+     * Файл для хранилища FILE.
+     */
+    private String file = "logs/audit.log";
+
+    /**
+     * Размер файла в байтах, после которого он архивируется.
+     */
+    private long maxFileSize = 10 * 1024 * 1024;
+
+    /**
+     * Количество хранимых архивов файла.
+     */
+    private int maxHistory = 5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getPointcut() {
+        return pointcut;
+    }
+
+    public void setPointcut(String pointcut) {
+        this.pointcut = pointcut;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public BackpressurePolicy getBackpressure() {
+        return backpressure;
+    }
+
+    public void setBackpressure(BackpressurePolicy backpressure) {
+        this.backpressure = backpressure;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Sink getSink() {
+        return sink;
+    }
+
+    public void setSink(Sink sink) {
+        this.sink = sink;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(long maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public int getMaxHistory() {
+        return maxHistory;
+    }
+
+    public void setMaxHistory(int maxHistory) {
+        this.maxHistory = maxHistory;
+    }
+}
@@ -0,0 +1,87 @@
+package io.coworking.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченный неблокирующий кольцевой буфер для многих писателей и одного читателя.
+ * Писатель захватывает позицию через CAS на хвосте и публикует событие в слот,
+ * читатель забирает опубликованные события по порядку и освобождает слоты.
+ */
+class AuditRingBuffer {
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity the buffer capacity, rounded up to a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * Добавляем событие, если в буфере есть место.
+     *
+     * @param event the audit event
+     * @return true if the event was added, false if the buffer is full
+     */
+    boolean offer(AuditEvent event) {
+        long position;
+        do {
+            position = tail.get();
+            if (position - head.get() >= capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(position, position + 1));
+        slots.setRelease((int) position & mask, event);
+        return true;
+    }
+
+    /**
+     * Забираем опубликованные события. Вызывается только из одного потока.
+     *
+     * @param batch the list to add events to
+     * @param maxEvents the maximum number of events to take
+     * @return the number of events taken
+     */
+    int drainTo(List<AuditEvent> batch, int maxEvents) {
+        long position = head.get();
+        int taken = 0;
+        while (taken < maxEvents) {
+            int index = (int) position & mask;
+            AuditEvent event = slots.getAcquire(index);
+            if (event == null) {
+                break;
+            }
+            slots.setRelease(index, null);
+            batch.add(event);
+            position++;
+            taken++;
+        }
+        head.setRelease(position);
+        return taken;
+    }
+
+    /**
+     * @return the approximate number of events in the buffer
+     */
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * @return the buffer capacity
+     */
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,16 @@
+package io.coworking.audit;
+
+import java.util.List;
+
+/**
+ * Хранилище, в которое фоновый писатель сбрасывает пачки событий аудита.
+ */
+public interface AuditSink {
+    /**
+     * Сохраняем пачку событий.
+     *
+     * @param events the audit events in publication order
+     * @throws Exception if the events could not be stored
+     */
+    void write(List<AuditEvent> events) throws Exception;
+}
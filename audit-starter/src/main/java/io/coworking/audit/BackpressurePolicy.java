@@ -0,0 +1,19 @@
+package io.coworking.audit;
+
+/**
+ * Поведение при заполнении буфера событий аудита.
+ */
+public enum BackpressurePolicy {
+    /**
+     * Отбрасываем событие, если буфер заполнен.
+     */
+    DROP,
+    /**
+     * Ожидаем освобождения места в буфере в потоке запроса.
+     */
+    BLOCK,
+    /**
+     * После заполнения буфера наполовину пропускаем только долю событий, при полном буфере отбрасываем.
+     */
+    SAMPLE
+}
@@ -0,0 +1,58 @@
+package io.coworking.audit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Сохраняем события аудита в таблицу одной JDBC-пачкой на каждый сброс.
+ * Источник данных запрашивается при первой записи, чтобы советник аудита
+ * не заставлял создавать его раньше остальных бинов.
+ */
+public class JdbcAuditSink implements AuditSink {
+    private final ObjectProvider<DataSource> dataSourceProvider;
+    private final String sql;
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param dataSourceProvider the data source provider
+     * @param table the audit table name including schema
+     */
+    public JdbcAuditSink(ObjectProvider<DataSource> dataSourceProvider, String table) {
+        this.dataSourceProvider = dataSourceProvider;
+        this.sql = "INSERT INTO " + table + " (occurred_at, action, target, outcome) VALUES (?, ?, ?, ?)";
+    }
+
+    /**
+     * Вызывается только из потока фонового писателя.
+     *
+     * @param events the audit events in publication order
+     */
+    @Override
+    public void write(List<AuditEvent> events) {
+        if (jdbcTemplate == null) {
+            jdbcTemplate = new JdbcTemplate(dataSourceProvider.getObject());
+        }
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AuditEvent event = events.get(i);
+                ps.setTimestamp(1, new Timestamp(event.occurredAt()));
+                ps.setString(2, event.action());
+                ps.setString(3, event.target());
+                ps.setString(4, event.success() ? "SUCCESS" : "FAILURE");
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+}
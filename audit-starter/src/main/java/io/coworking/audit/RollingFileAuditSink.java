@@ -0,0 +1,75 @@
+package io.coworking.audit;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Дописываем события аудита в локальный файл по строке на событие.
+ * При превышении размера файл переименовывается в {@code <name>.1}, старые архивы сдвигаются,
+ * а самый старый удаляется.
+ */
+public class RollingFileAuditSink implements AuditSink {
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxHistory;
+
+    /**
+     * @param file the active audit file
+     * @param maxFileSize the size in bytes after which the file is rolled
+     * @param maxHistory the number of rolled files to keep
+     */
+    public RollingFileAuditSink(Path file, long maxFileSize, int maxHistory) {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxHistory = maxHistory;
+    }
+
+    @Override
+    public void write(List<AuditEvent> events) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.exists(file) && Files.size(file) >= maxFileSize) {
+            roll();
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            StringBuilder line = new StringBuilder(128);
+            for (AuditEvent event : events) {
+                line.setLength(0);
+                line.append(Instant.ofEpochMilli(event.occurredAt())).append('\t')
+                        .append(event.action()).append('\t')
+                        .append(event.target() == null ? "-" : event.target()).append('\t')
+                        .append(event.success() ? "SUCCESS" : "FAILURE").append('\n');
+                writer.append(line);
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        Files.deleteIfExists(archive(maxHistory));
+        for (int i = maxHistory - 1; i >= 1; i--) {
+            Path archive = archive(i);
+            if (Files.exists(archive)) {
+                Files.move(archive, archive(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxHistory > 0) {
+            Files.move(file, archive(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path archive(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
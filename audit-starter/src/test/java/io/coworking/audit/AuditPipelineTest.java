@@ -0,0 +1,156 @@
+package io.coworking.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditPipelineTest {
+    private final List<AuditEvent> written = Collections.synchronizedList(new ArrayList<>());
+    private AuditPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void testDropPolicyDropsEventsWhenBufferIsFull() {
+        pipeline = new AuditPipeline(written::addAll, properties(BackpressurePolicy.DROP, 4, 1.0));
+
+        publish(10);
+
+        assertEquals(6, pipeline.getDroppedCount());
+        pipeline.start();
+        pipeline.stop();
+        assertEquals(events(4), written);
+    }
+
+    @Test
+    void testSamplePolicyThinsEventsAfterBufferIsHalfFull() {
+        pipeline = new AuditPipeline(written::addAll, properties(BackpressurePolicy.SAMPLE, 16, 0.0));
+
+        publish(20);
+
+        assertEquals(12, pipeline.getDroppedCount());
+        pipeline.start();
+        pipeline.stop();
+        assertEquals(events(8), written);
+    }
+
+    @Test
+    void testSamplePolicyDropsWhenBufferIsFull() {
+        pipeline = new AuditPipeline(written::addAll, properties(BackpressurePolicy.SAMPLE, 16, 1.0));
+
+        publish(20);
+
+        assertEquals(4, pipeline.getDroppedCount());
+        pipeline.start();
+        pipeline.stop();
+        assertEquals(events(16), written);
+    }
+
+    @Test
+    void testBlockPolicyWaitsForFreeSlot() throws Exception {
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseSink = new CountDownLatch(1);
+        pipeline = new AuditPipeline(events -> {
+            firstWriteStarted.countDown();
+            releaseSink.await();
+            written.addAll(events);
+        }, properties(BackpressurePolicy.BLOCK, 4, 1.0));
+        pipeline.start();
+
+        Thread publisher = new Thread(() -> publish(50));
+        publisher.start();
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        publisher.join(200);
+        assertTrue(publisher.isAlive(), "publisher must wait while the sink holds the writer");
+
+        releaseSink.countDown();
+        publisher.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(publisher.isAlive());
+        pipeline.stop();
+
+        assertEquals(0, pipeline.getDroppedCount());
+        assertEquals(events(50), written);
+    }
+
+    @Test
+    void testBlockPolicyDropsWhenPipelineIsStopped() {
+        pipeline = new AuditPipeline(written::addAll, properties(BackpressurePolicy.BLOCK, 4, 1.0));
+
+        publish(6);
+
+        assertEquals(2, pipeline.getDroppedCount());
+    }
+
+    @Test
+    void testStopFlushesRemainingEvents() throws Exception {
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseSink = new CountDownLatch(1);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        AuditProperties properties = properties(BackpressurePolicy.DROP, 1024, 1.0);
+        properties.setBatchSize(10);
+        pipeline = new AuditPipeline(events -> {
+            firstWriteStarted.countDown();
+            releaseSink.await();
+            batchSizes.add(events.size());
+            written.addAll(events);
+        }, properties);
+        pipeline.start();
+
+        publish(1);
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 500; i++) {
+            pipeline.publish(event(i));
+        }
+        Thread stopper = new Thread(pipeline::stop);
+        stopper.start();
+        while (pipeline.isRunning()) {
+            Thread.onSpinWait();
+        }
+        releaseSink.countDown();
+        stopper.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertFalse(stopper.isAlive());
+        assertEquals(events(500), written);
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) {
+            pipeline.publish(event(i));
+        }
+    }
+
+    private static List<AuditEvent> events(int count) {
+        List<AuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(event(i));
+        }
+        return events;
+    }
+
+    private static AuditEvent event(int sequence) {
+        return new AuditEvent(sequence, "Manager.book", String.valueOf(sequence), true);
+    }
+
+    private static AuditProperties properties(BackpressurePolicy backpressure, int bufferSize, double sampleRate) {
+        AuditProperties properties = new AuditProperties();
+        properties.setBackpressure(backpressure);
+        properties.setBufferSize(bufferSize);
+        properties.setSampleRate(sampleRate);
+        properties.setFlushInterval(Duration.ofMillis(5));
+        return properties;
+    }
+}
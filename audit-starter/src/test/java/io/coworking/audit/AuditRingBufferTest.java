@@ -0,0 +1,123 @@
+package io.coworking.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+    private static final int PRODUCERS = 8;
+    private static final int EVENTS_PER_PRODUCER = 20_000;
+
+    @Test
+    void testCapacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(1, new AuditRingBuffer(1).capacity());
+        assertEquals(8, new AuditRingBuffer(5).capacity());
+        assertEquals(8, new AuditRingBuffer(8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer(0));
+    }
+
+    @Test
+    void testOfferFailsWhenFullAndSucceedsAfterDrain() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(event(0, i)));
+        }
+        assertFalse(buffer.offer(event(0, 4)));
+        assertEquals(4, buffer.size());
+
+        List<AuditEvent> batch = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(batch, 3));
+        assertEquals(List.of(event(0, 0), event(0, 1), event(0, 2)), batch);
+        assertTrue(buffer.offer(event(0, 4)));
+        assertEquals(2, buffer.drainTo(batch, 10));
+        assertEquals(event(0, 4), batch.get(4));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testConcurrentProducersUnderCapacityLoseNothing() throws Exception {
+        AuditRingBuffer buffer = new AuditRingBuffer(PRODUCERS * EVENTS_PER_PRODUCER);
+
+        runProducers(buffer, false);
+
+        List<AuditEvent> drained = new ArrayList<>();
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+        assertExactlyOnceInProducerOrder(drained);
+    }
+
+    @Test
+    void testConcurrentProducersWithConcurrentReaderLoseNothing() throws Exception {
+        AuditRingBuffer buffer = new AuditRingBuffer(64);
+        List<AuditEvent> drained = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            while (drained.size() < PRODUCERS * EVENTS_PER_PRODUCER) {
+                if (buffer.drainTo(drained, 16) == 0) {
+                    Thread.yield();
+                }
+            }
+        });
+        reader.start();
+
+        runProducers(buffer, true);
+        reader.join(TimeUnit.SECONDS.toMillis(30));
+
+        assertFalse(reader.isAlive());
+        assertExactlyOnceInProducerOrder(drained);
+    }
+
+    private static void runProducers(AuditRingBuffer buffer, boolean retryWhenFull) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int producer = 0; producer < PRODUCERS; producer++) {
+                int id = producer;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                        AuditEvent event = event(id, i);
+                        while (!buffer.offer(event)) {
+                            assertTrue(retryWhenFull, "buffer rejected an event below capacity");
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Каждое событие получено ровно один раз, а события одного писателя — в порядке публикации.
+     */
+    private static void assertExactlyOnceInProducerOrder(List<AuditEvent> drained) {
+        assertEquals(PRODUCERS * EVENTS_PER_PRODUCER, drained.size());
+        int[] next = new int[PRODUCERS];
+        for (AuditEvent event : drained) {
+            int producer = Integer.parseInt(event.action());
+            assertEquals(String.valueOf(next[producer]), event.target());
+            next[producer]++;
+        }
+        for (int producer = 0; producer < PRODUCERS; producer++) {
+            assertEquals(EVENTS_PER_PRODUCER, next[producer]);
+        }
+    }
+
+    private static AuditEvent event(int producer, int sequence) {
+        return new AuditEvent(0, String.valueOf(producer), String.valueOf(sequence), true);
+    }
+}
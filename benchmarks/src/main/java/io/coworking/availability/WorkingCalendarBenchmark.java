@@ -0,0 +1,68 @@
+package io.coworking.availability;
+
+import io.coworking.config.WorkspaceConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка рабочего времени, которая выполняется для каждого бронирования: скомпилированный
+ * {@link WorkingCalendar} в сравнении с прежней проверкой по строковому массиву рабочих дней.
+ * Даты перебираются по кругу, чтобы в выборку попадали и будни, и выходные.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkingCalendarBenchmark {
+    private static final int DATES = 1024;
+
+    private final LocalDateTime[] dates = new LocalDateTime[DATES];
+    private WorkingCalendar workingCalendar;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
+        for (int i = 0; i < DATES; i++) {
+            dates[i] = start.plusHours(i * 7L);
+        }
+        // Без загрузки из базы данных календарь использует правила по умолчанию.
+        workingCalendar = new WorkingCalendar(new DriverManagerDataSource());
+    }
+
+    @Benchmark
+    public boolean stringDayLoop() {
+        next = (next + 1) & (DATES - 1);
+        LocalDateTime date = dates[next];
+        return isWithinWorkingHours(date) && isWorkingDay(date);
+    }
+
+    @Benchmark
+    public boolean compiledCalendar() {
+        next = (next + 1) & (DATES - 1);
+        return workingCalendar.isBookable(1, dates[next], 1);
+    }
+
+    /**
+     * Копия проверки, которую менеджеры использовали до перехода на {@link WorkingCalendar}.
+     */
+    private static boolean isWorkingDay(LocalDateTime dateTime) {
+        String dayOfWeek = dateTime.toLocalDate().getDayOfWeek().name();
+        for (String validDay : WorkspaceConfig.WORK_DAYS.getDays()) {
+            if (validDay.equalsIgnoreCase(dayOfWeek)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWithinWorkingHours(LocalDateTime dateTime) {
+        int hour = dateTime.getHour();
+        return hour >= WorkspaceConfig.START_HOUR.getValue() && hour < WorkspaceConfig.END_HOUR.getValue();
+    }
+}
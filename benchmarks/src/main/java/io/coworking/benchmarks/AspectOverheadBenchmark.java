@@ -0,0 +1,92 @@
+package io.coworking.benchmarks;
+
+import io.coworking.audit.AuditInterceptor;
+import io.coworking.audit.AuditPipeline;
+import io.coworking.audit.AuditProperties;
+import io.coworking.logging.LoggingProperties;
+import io.coworking.logging.MethodTimingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.aop.Advice;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Накладные расходы на вызов через CGLIB-прокси с перехватчиками из logging-starter и audit-starter
+ * в сравнении с прямым вызовом и прокси без советов. Аудит пишет в хранилище, которое только считает события,
+ * поэтому измеряется стоимость постановки события в буфер.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AspectOverheadBenchmark {
+    private static final String POINTCUT = "execution(public * io.coworking.benchmarks.BenchmarkTarget.*(..))";
+
+    private final LongAdder written = new LongAdder();
+    private BenchmarkTarget direct;
+    private BenchmarkTarget plainProxy;
+    private BenchmarkTarget timedProxy;
+    private BenchmarkTarget auditedProxy;
+    private AuditPipeline auditPipeline;
+    private int workspaceId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        direct = new BenchmarkTarget();
+        plainProxy = proxy();
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("meterRegistry", registry));
+        timedProxy = proxy(new MethodTimingInterceptor(beanFactory.getBeanProvider(MeterRegistry.class), new LoggingProperties()));
+
+        auditPipeline = new AuditPipeline(events -> written.add(events.size()), new AuditProperties());
+        auditPipeline.start();
+        auditedProxy = proxy(new AuditInterceptor(auditPipeline));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        auditPipeline.stop();
+    }
+
+    private static BenchmarkTarget proxy(Advice... advices) {
+        ProxyFactory proxyFactory = new ProxyFactory(new BenchmarkTarget());
+        proxyFactory.setProxyTargetClass(true);
+        for (Advice advice : advices) {
+            AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+            advisor.setExpression(POINTCUT);
+            advisor.setAdvice(advice);
+            proxyFactory.addAdvisor(advisor);
+        }
+        return (BenchmarkTarget) proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public int directCall() {
+        return direct.updateWorkspace(++workspaceId);
+    }
+
+    @Benchmark
+    public int plainProxy() {
+        return plainProxy.updateWorkspace(++workspaceId);
+    }
+
+    @Benchmark
+    public int timingInterceptor() {
+        return timedProxy.updateWorkspace(++workspaceId);
+    }
+
+    @Benchmark
+    public int auditInterceptor() {
+        return auditedProxy.updateWorkspace(++workspaceId);
+    }
+}
@@ -0,0 +1,14 @@
+package io.coworking.benchmarks;
+
+/**
+ * Минимальный бин для замера накладных расходов прокси: метод почти ничего не делает,
+ * поэтому время вызова определяется перехватчиками.
+ */
+public class BenchmarkTarget {
+    private int counter;
+
+    public int updateWorkspace(int workspaceId) {
+        counter += workspaceId;
+        return counter;
+    }
+}
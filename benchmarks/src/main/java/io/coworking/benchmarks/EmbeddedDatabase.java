@@ -0,0 +1,54 @@
+package io.coworking.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * Встроенный PostgreSQL со схемой приложения для бенчмарков DAO.
+ * Бинарники сервера поставляются в jar-файле, поэтому сеть для запуска не нужна.
+ */
+public final class EmbeddedDatabase implements AutoCloseable {
+    private final EmbeddedPostgres postgres;
+    private final DataSource dataSource;
+
+    private EmbeddedDatabase(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+        this.dataSource = postgres.getPostgresDatabase();
+    }
+
+    /**
+     * Запускаем сервер и применяем миграции Liquibase из main-app.
+     *
+     * @return the started database
+     * @throws Exception if the server could not start or the migrations failed
+     */
+    public static EmbeddedDatabase start() throws Exception {
+        EmbeddedDatabase database = new EmbeddedDatabase(EmbeddedPostgres.builder().start());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(database.dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/changelog.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        return database;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * @return the JDBC URL of the postgres database for the {@code postgres} user
+     */
+    public String getJdbcUrl() {
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+}
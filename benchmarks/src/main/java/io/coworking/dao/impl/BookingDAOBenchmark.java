@@ -0,0 +1,98 @@
+package io.coworking.dao.impl;
+
+import io.coworking.availability.OccupancyBitmapStore;
+import io.coworking.availability.WorkspaceAvailabilityIndex;
+import io.coworking.benchmarks.EmbeddedDatabase;
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.filter.BookingFilter;
+import io.coworking.entities.Booking;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиски {@link BookingDAOImpl} и проверка доступности рабочего места на встроенном PostgreSQL
+ * с ~73 тысячами бронирований: 200 рабочих мест по одному бронированию в день в течение года.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingDAOBenchmark {
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private EmbeddedDatabase database;
+    private BookingDAOImpl bookingDAO;
+    private int workspaceId;
+    private int day;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = EmbeddedDatabase.start();
+        DataSource dataSource = database.getDataSource();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("INSERT INTO coworking.\"workspaces-liquibase\" (name, conference_room_id)" +
+                " SELECT 'Benchmark ' || g, (SELECT min(id) FROM coworking.\"conference_rooms-liquibase\")" +
+                " FROM generate_series(1, 200) g");
+        jdbcTemplate.execute("INSERT INTO coworking.\"bookings-liquibase\" (workspace_id, booked_by, booking_time, duration_hours)" +
+                " SELECT w.id, 'user' || ((w.rn * 365 + d) % 500)," +
+                " TIMESTAMP '2025-01-01 08:00' + d * INTERVAL '1 day' + (w.rn % 8) * INTERVAL '1 hour', 1" +
+                " FROM (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM coworking.\"workspaces-liquibase\"" +
+                " WHERE name LIKE 'Benchmark %') w CROSS JOIN generate_series(0, 364) d");
+        jdbcTemplate.execute("ANALYZE");
+        workspaceId = jdbcTemplate.queryForObject("SELECT max(workspace_id) FROM coworking.\"bookings-liquibase\"", Integer.class);
+
+        WorkspaceAvailabilityIndex availabilityIndex = new WorkspaceAvailabilityIndex(dataSource, new OccupancyBitmapStore());
+        availabilityIndex.load();
+        bookingDAO = new BookingDAOImpl(dataSource, availabilityIndex);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    /**
+     * Меняем день между вызовами, чтобы не измерять одну и ту же страницу из буферного кэша.
+     *
+     * @return the day offset from the first day of the data set
+     */
+    private int nextDay() {
+        day = (day + 1) % 365;
+        return day;
+    }
+
+    @Benchmark
+    public List<Booking> findBookingsByWorkspaceId() {
+        return bookingDAO.findBookingsByWorkspaceId(workspaceId);
+    }
+
+    @Benchmark
+    public List<Booking> findBookingsByUser() {
+        return bookingDAO.findBookingsByUser("user" + nextDay());
+    }
+
+    @Benchmark
+    public List<Booking> findBookingsByDate() {
+        return bookingDAO.findBookingsByDate(FIRST_DAY.plusDays(nextDay()));
+    }
+
+    @Benchmark
+    public KeysetPage<Booking> findBookingsPage() {
+        BookingFilter filter = new BookingFilter();
+        filter.setFrom(FIRST_DAY.plusDays(nextDay()));
+        return bookingDAO.findBookings(filter, null, 100);
+    }
+
+    @Benchmark
+    public boolean isBookingAvailable() {
+        return bookingDAO.isBookingAvailable(workspaceId, FIRST_DAY.plusDays(nextDay()).withHour(10), 1);
+    }
+}
@@ -0,0 +1,92 @@
+package io.coworking.dao.impl;
+
+import io.coworking.benchmarks.EmbeddedDatabase;
+import io.coworking.entities.Booking;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение прежнего маппера бронирований (чтение по имени столбца из {@code SELECT *})
+ * с позиционной проекцией {@link Projections#BOOKING}.
+ * <p>
+ * Строки заранее загружаются драйвером PostgreSQL в прокручиваемый {@link ResultSet},
+ * поэтому измеряется только стоимость маппинга, а не обмен с базой данных.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+    private static final String TABLE_NAME = "coworking.\"bookings-liquibase\"";
+
+    /**
+     * Копия маппера, который DAO использовали до перехода на проекции.
+     */
+    private static final RowMapper<Booking> NAME_BASED_MAPPER = (rs, rowNum) -> {
+        Booking booking = new Booking();
+        booking.setId(rs.getInt("id"));
+        booking.setWorkspaceId(rs.getInt("workspace_id"));
+        booking.setBookedBy(rs.getString("booked_by"));
+        booking.setBookingTime(rs.getTimestamp("booking_time").toLocalDateTime());
+        booking.setBookingDurationHours(rs.getInt("duration_hours"));
+        return booking;
+    };
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private EmbeddedDatabase database;
+    private Connection connection;
+    private ResultSet selectAll;
+    private ResultSet projected;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = EmbeddedDatabase.start();
+        DataSource dataSource = database.getDataSource();
+
+        new JdbcTemplate(dataSource).update("INSERT INTO " + TABLE_NAME + " (workspace_id, booked_by, booking_time, duration_hours)" +
+                " SELECT 1 + g % 2, 'user' || g, TIMESTAMP '2025-01-01 08:00' + (g / 2) * INTERVAL '1 hour', 1" +
+                " FROM generate_series(1, ?) g", rows);
+
+        connection = dataSource.getConnection();
+        selectAll = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)
+                .executeQuery("SELECT * FROM " + TABLE_NAME);
+        projected = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)
+                .executeQuery("SELECT " + Projections.BOOKING.columns() + " FROM " + TABLE_NAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        database.close();
+    }
+
+    @Benchmark
+    public void nameBasedMapper(Blackhole blackhole) throws SQLException {
+        map(selectAll, NAME_BASED_MAPPER, blackhole);
+    }
+
+    @Benchmark
+    public void positionalProjection(Blackhole blackhole) throws SQLException {
+        map(projected, Projections.BOOKING, blackhole);
+    }
+
+    private static void map(ResultSet rs, RowMapper<Booking> mapper, Blackhole blackhole) throws SQLException {
+        rs.beforeFirst();
+        int rowNum = 0;
+        while (rs.next()) {
+            blackhole.consume(mapper.mapRow(rs, rowNum++));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.coworking.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодирование и декодирование списков рабочих мест с бронированиями в JSON, Smile и CBOR.
+ * ObjectMapper каждого формата строится так же, как для HTTP-конвертеров Spring MVC.
+ * Размер сообщения не зависит от измерений и печатается один раз при подготовке каждого
+ * сочетания параметров строкой {@code # Payload:} в выводе JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final int BOOKINGS_PER_WORKSPACE = 10;
+    private static final TypeReference<List<WorkspaceDTO>> WORKSPACE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private List<WorkspaceDTO> workspaces;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        workspaces = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            WorkspaceDTO workspace = new WorkspaceDTO();
+            workspace.setId(i);
+            workspace.setName("Workspace " + i);
+            List<BookingDTO> bookings = new ArrayList<>(BOOKINGS_PER_WORKSPACE);
+            for (int j = 0; j < BOOKINGS_PER_WORKSPACE; j++) {
+                BookingDTO booking = new BookingDTO();
+                booking.setId(i * BOOKINGS_PER_WORKSPACE + j);
+                booking.setWorkspaceId(i);
+                booking.setBookedBy("user" + (i * BOOKINGS_PER_WORKSPACE + j) % 1000);
+                booking.setBookingTime(start.plusDays(j).plusHours(i % 8));
+                booking.setBookingDurationHours(1);
+                bookings.add(booking);
+            }
+            workspace.setBookings(bookings);
+            workspaces.add(workspace);
+        }
+        payload = mapper.writeValueAsBytes(workspaces);
+        System.out.println("# Payload: " + format + ", " + size + " workspaces, " + payload.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(workspaces);
+    }
+
+    @Benchmark
+    public List<WorkspaceDTO> decode() throws IOException {
+        return mapper.readValue(payload, WORKSPACE_LIST);
+    }
+}
@@ -0,0 +1,178 @@
+package io.coworking.loadtest;
+
+import io.coworking.Application;
+import io.coworking.benchmarks.EmbeddedDatabase;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный тест REST API: поднимаем встроенный PostgreSQL и приложение, детерминированно
+ * заполняем данные и подаем запросы с постоянной частотой (открытая модель: следующий запрос
+ * отправляется по расписанию, не дожидаясь ответа на предыдущий).
+ * <p>
+ * По каждой операции сохраняются гистограммы HdrHistogram ({@code <operation>.hgrm} и общий
+ * {@code latency.hlog}) и сводка с p50/p99/p99.9, сравнением с SLO и фактической пропускной способностью.
+ * Запросы, не получившие ответа за {@value #DRAIN_TIMEOUT_SECONDS} с после окончания подачи нагрузки,
+ * учитываются как таймауты и нарушают SLO.
+ * Процесс завершается с кодом 1, если какая-либо операция нарушила SLO.
+ */
+public class LoadTest {
+    private static final int DRAIN_TIMEOUT_SECONDS = 30;
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean sloMet;
+        try (EmbeddedDatabase database = EmbeddedDatabase.start()) {
+            WorkloadSeeder.SeededData data = new WorkloadSeeder(database.getDataSource()).seed(options);
+            ConfigurableApplicationContext context = startApplication(database);
+            try {
+                Map<Operation, OperationStats> stats = run(options, new Workload(baseUrl(context), data, options.mix(), options.seed()));
+                sloMet = report(options, stats.values());
+            } finally {
+                context.close();
+            }
+        }
+        System.exit(sloMet ? 0 : 1);
+    }
+
+    /**
+     * Запускаем приложение на случайном порту поверх встроенной базы данных.
+     *
+     * @param database the embedded database
+     * @param profiles the Spring profiles to activate
+     * @return the application context
+     */
+    static ConfigurableApplicationContext startApplication(EmbeddedDatabase database, String... profiles) {
+        return new SpringApplicationBuilder(Application.class)
+                .profiles(profiles)
+                .properties("spring.datasource.url=" + database.getJdbcUrl(),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=",
+                        "server.port=0")
+                .run();
+    }
+
+    /**
+     * @param context the running application context
+     * @return the application URL including the context path
+     */
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + context.getEnvironment().getProperty("server.servlet.context-path", "");
+    }
+
+    private static Map<Operation, OperationStats> run(LoadTestOptions options, Workload workload) {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : options.mix().keySet()) {
+            stats.put(operation, new OperationStats(operation));
+        }
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        // Запрос учитывается тем, кто первым удалил его из таблицы: обработчиком ответа или проверкой по таймауту.
+        Map<Long, PendingRequest> inFlight = new ConcurrentHashMap<>();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup().toNanos();
+        long end = measureStart + options.duration().toNanos();
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = workload.nextOperation();
+            OperationStats operationStats = stats.get(operation);
+            long requestId = i;
+            inFlight.put(requestId, new PendingRequest(operationStats, intendedStart));
+            client.sendAsync(workload.request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (inFlight.remove(requestId) != null) {
+                            operationStats.complete(intendedStart, measureStart, response, error);
+                        }
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (!inFlight.isEmpty() && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        for (Long requestId : inFlight.keySet()) {
+            PendingRequest request = inFlight.remove(requestId);
+            if (request != null) {
+                request.stats().timeout(request.intendedStart(), measureStart);
+            }
+        }
+        return stats;
+    }
+
+    private record PendingRequest(OperationStats stats, long intendedStart) {
+    }
+
+    private static boolean report(LoadTestOptions options, Iterable<OperationStats> stats) throws IOException {
+        Files.createDirectories(options.reportDir());
+        double seconds = options.duration().toMillis() / 1000.0;
+        long sloP99Micros = TimeUnit.NANOSECONDS.toMicros(options.sloP99().toNanos());
+        long sloP999Micros = TimeUnit.NANOSECONDS.toMicros(options.sloP999().toNanos());
+        boolean sloMet = true;
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("rate=%d req/s, duration=%s, seed=%d, rooms=%d, workspaces=%d, bookings=%d, SLO p99<=%s p99.9<=%s",
+                options.rate(), options.duration(), options.seed(), options.rooms(), options.workspaces(),
+                options.bookings(), options.sloP99(), options.sloP999()));
+        lines.add(String.format("%-18s %9s %9s %9s %9s %8s %9s %9s %9s %9s  %s",
+                "operation", "ok", "conflict", "error", "timeout", "rps", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "SLO"));
+
+        try (PrintStream log = new PrintStream(Files.newOutputStream(options.reportDir().resolve("latency.hlog")))) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(log);
+            logWriter.outputLogFormatVersion();
+            logWriter.outputLegend();
+            for (OperationStats operationStats : stats) {
+                Histogram histogram = operationStats.takeHistogram();
+                String name = operationStats.getOperation().getName();
+                histogram.setTag(name);
+                logWriter.outputIntervalHistogram(histogram);
+                try (PrintStream hgrm = new PrintStream(Files.newOutputStream(options.reportDir().resolve(name + ".hgrm")))) {
+                    histogram.outputPercentileDistribution(hgrm, 1000.0);
+                }
+
+                boolean met = operationStats.getErrors() == 0
+                        && operationStats.getTimeouts() == 0
+                        && histogram.getValueAtPercentile(99.0) <= sloP99Micros
+                        && histogram.getValueAtPercentile(99.9) <= sloP999Micros;
+                sloMet &= met;
+                lines.add(String.format("%-18s %9d %9d %9d %9d %8.1f %9.2f %9.2f %9.2f %9.2f  %s",
+                        name, operationStats.getCompleted(), operationStats.getConflicts(), operationStats.getErrors(),
+                        operationStats.getTimeouts(),
+                        histogram.getTotalCount() / seconds,
+                        histogram.getValueAtPercentile(50.0) / 1000.0,
+                        histogram.getValueAtPercentile(99.0) / 1000.0,
+                        histogram.getValueAtPercentile(99.9) / 1000.0,
+                        histogram.getMaxValue() / 1000.0,
+                        met ? "PASS" : "FAIL"));
+            }
+        }
+
+        Files.write(options.reportDir().resolve("summary.txt"), lines);
+        lines.forEach(System.out::println);
+        return sloMet;
+    }
+}
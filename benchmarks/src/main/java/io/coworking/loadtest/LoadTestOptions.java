@@ -0,0 +1,83 @@
+package io.coworking.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного теста. Передаются аргументами вида {@code key=value}, например
+ * {@code rate=800 duration=2m mix=book:30,bookings:30,workspaces:20,conference_rooms:10,users:10}.
+ *
+ * @param rooms the number of conference rooms to seed
+ * @param workspaces the number of workspaces to seed
+ * @param bookings the number of bookings to seed
+ * @param users the number of users to seed
+ * @param rate the constant arrival rate in requests per second
+ * @param clients the number of concurrent clients for the closed-model comparison
+ * @param warmup the warmup duration excluded from the report
+ * @param duration the measured duration
+ * @param seed the random seed for the data set and the request sequence
+ * @param mix the operation weights
+ * @param sloP99 the p99 latency objective for every operation
+ * @param sloP999 the p99.9 latency objective for every operation
+ * @param reportDir the directory for histogram reports
+ */
+public record LoadTestOptions(int rooms, int workspaces, int bookings, int users,
+                              int rate, int clients, Duration warmup, Duration duration, long seed,
+                              Map<Operation, Integer> mix, Duration sloP99, Duration sloP999, Path reportDir) {
+
+    /**
+     * Разбираем аргументы командной строки, подставляя значения по умолчанию для отсутствующих.
+     *
+     * @param args the arguments in the form key=value
+     * @return the options
+     */
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("rooms", "50")),
+                Integer.parseInt(values.getOrDefault("workspaces", "1000")),
+                Integer.parseInt(values.getOrDefault("bookings", "100000")),
+                Integer.parseInt(values.getOrDefault("users", "500")),
+                Integer.parseInt(values.getOrDefault("rate", "500")),
+                Integer.parseInt(values.getOrDefault("clients", "1000")),
+                duration(values.getOrDefault("warmup", "15s")),
+                duration(values.getOrDefault("duration", "60s")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                mix(values.getOrDefault("mix", "book:20,bookings:30,workspaces:25,conference_rooms:15,users:10")),
+                duration(values.getOrDefault("slo-p99", "100ms")),
+                duration(values.getOrDefault("slo-p999", "250ms")),
+                Path.of(values.getOrDefault("report-dir", "target/loadtest")));
+    }
+
+    private static Duration duration(String value) {
+        String lower = value.toLowerCase();
+        if (lower.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(lower.substring(0, lower.length() - 2)));
+        }
+        if (lower.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(lower.substring(0, lower.length() - 1)));
+        }
+        if (lower.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(lower.substring(0, lower.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(Operation.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
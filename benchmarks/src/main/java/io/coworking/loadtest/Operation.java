@@ -0,0 +1,50 @@
+package io.coworking.loadtest;
+
+/**
+ * Операции нагрузочного профиля.
+ */
+public enum Operation {
+    /**
+     * POST /bookings на случайное рабочее место и время; конфликт 409 считается штатным ответом.
+     */
+    BOOK("book"),
+    /**
+     * GET /bookings по рабочему месту.
+     */
+    BOOKINGS("bookings"),
+    /**
+     * GET /workspaces/{id}.
+     */
+    WORKSPACES("workspaces"),
+    /**
+     * GET /conference_rooms, страница с курсором.
+     */
+    CONFERENCE_ROOMS("conference_rooms"),
+    /**
+     * GET /users/{id}.
+     */
+    USERS("users");
+
+    private final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name the operation name used in options and reports
+     * @return the operation
+     */
+    public static Operation fromName(String name) {
+        for (Operation operation : values()) {
+            if (operation.name.equals(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+}
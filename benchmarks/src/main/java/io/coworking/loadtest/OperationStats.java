@@ -0,0 +1,96 @@
+package io.coworking.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и счетчики ответов одной операции. Задержка отсчитывается от запланированного момента
+ * отправки, а не от фактического, поэтому очередь на стороне генератора не скрывает деградацию
+ * сервера (coordinated omission).
+ */
+class OperationStats {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Operation operation;
+    private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Учитываем завершенный запрос, если он был запланирован после прогрева.
+     *
+     * @param intendedStart the scheduled send time in nanoseconds
+     * @param measureStart the end of the warmup in nanoseconds
+     * @param response the response, or null if the request failed
+     * @param error the failure, or null if a response was received
+     */
+    void complete(long intendedStart, long measureStart, HttpResponse<?> response, Throwable error) {
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        if (intendedStart < measureStart) {
+            return;
+        }
+        recorder.recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+        if (error != null) {
+            errors.increment();
+        } else if (operation == Operation.BOOK && response.statusCode() == 409) {
+            conflicts.increment();
+        } else if (response.statusCode() >= 400) {
+            errors.increment();
+        } else {
+            completed.increment();
+        }
+    }
+
+    /**
+     * Учитываем запрос, ответ на который не пришел до конца ожидания: задержка записывается как время
+     * с запланированного момента отправки, а сам запрос считается нарушением SLO.
+     *
+     * @param intendedStart the scheduled send time in nanoseconds
+     * @param measureStart the end of the warmup in nanoseconds
+     */
+    void timeout(long intendedStart, long measureStart) {
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        if (intendedStart < measureStart) {
+            return;
+        }
+        recorder.recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+        timeouts.increment();
+    }
+
+    Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the latencies in microseconds recorded since the previous call
+     */
+    Histogram takeHistogram() {
+        return recorder.getIntervalHistogram();
+    }
+
+    long getCompleted() {
+        return completed.sum();
+    }
+
+    long getConflicts() {
+        return conflicts.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    long getTimeouts() {
+        return timeouts.sum();
+    }
+}
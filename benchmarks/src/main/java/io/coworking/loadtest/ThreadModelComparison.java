@@ -0,0 +1,103 @@
+package io.coworking.loadtest;
+
+import io.coworking.benchmarks.EmbeddedDatabase;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравниваем пропускную способность приложения на потоках платформы и в профиле {@code virtual-threads}
+ * при большом числе одновременных клиентов (закрытая модель: каждый клиент отправляет следующий запрос
+ * сразу после ответа на предыдущий). Клиенты сами работают в виртуальных потоках, чтобы генератор
+ * не был узким местом. Результат печатается и сохраняется в {@code thread-model.txt}.
+ */
+public class ThreadModelComparison {
+    private static final List<Mode> MODES = List.of(
+            new Mode("platform"),
+            new Mode("virtual-threads", "virtual-threads"));
+
+    /**
+     * @param name the mode name in the report
+     * @param profiles the Spring profiles to activate
+     */
+    private record Mode(String name, String... profiles) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("clients=%d, duration=%s, seed=%d", options.clients(), options.duration(), options.seed()));
+        lines.add(String.format("%-16s %10s %9s %9s %9s %9s", "mode", "rps", "errors", "p50 ms", "p99 ms", "p99.9 ms"));
+
+        try (EmbeddedDatabase database = EmbeddedDatabase.start()) {
+            WorkloadSeeder.SeededData data = new WorkloadSeeder(database.getDataSource()).seed(options);
+            for (Mode mode : MODES) {
+                try (ConfigurableApplicationContext context = LoadTest.startApplication(database, mode.profiles())) {
+                    lines.add(run(mode.name(), options, LoadTest.baseUrl(context), data));
+                }
+            }
+        }
+
+        Files.createDirectories(options.reportDir());
+        Files.write(options.reportDir().resolve("thread-model.txt"), lines);
+        lines.forEach(System.out::println);
+    }
+
+    private static String run(String mode, LoadTestOptions options, String baseUrl, WorkloadSeeder.SeededData data)
+            throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : options.mix().keySet()) {
+            stats.put(operation, new OperationStats(operation));
+        }
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup().toNanos();
+        long end = measureStart + options.duration().toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.clients(); i++) {
+                Workload workload = new Workload(baseUrl, data, options.mix(), options.seed() + i);
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        Operation operation = workload.nextOperation();
+                        long requestStart = System.nanoTime();
+                        HttpResponse<Void> response = null;
+                        Throwable error = null;
+                        try {
+                            response = client.send(workload.request(operation), HttpResponse.BodyHandlers.discarding());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            error = e;
+                        }
+                        stats.get(operation).complete(requestStart, measureStart, response, error);
+                    }
+                });
+            }
+        }
+
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        for (OperationStats operationStats : stats.values()) {
+            total.add(operationStats.takeHistogram());
+            errors += operationStats.getErrors();
+        }
+        double seconds = options.duration().toMillis() / 1000.0;
+        return String.format("%-16s %10.1f %9d %9.2f %9.2f %9.2f", mode,
+                total.getTotalCount() / seconds, errors,
+                total.getValueAtPercentile(50.0) / 1000.0,
+                total.getValueAtPercentile(99.0) / 1000.0,
+                total.getValueAtPercentile(99.9) / 1000.0);
+    }
+}
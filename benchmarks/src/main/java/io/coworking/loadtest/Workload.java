@@ -0,0 +1,99 @@
+package io.coworking.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Генератор запросов по заданному профилю. При одинаковом seed последовательность операций
+ * и их параметров повторяется, что позволяет сравнивать сборки на одной и той же нагрузке.
+ * Вызывается только из потока планировщика.
+ */
+public class Workload {
+    private static final DateTimeFormatter BOOKING_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final LocalDateTime FUTURE_MONDAY = LocalDateTime.of(2030, 1, 7, 0, 0);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String baseUrl;
+    private final WorkloadSeeder.SeededData data;
+    private final Random random;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    /**
+     * @param baseUrl the application URL including the context path
+     * @param data the seeded row IDs
+     * @param mix the operation weights
+     * @param seed the random seed
+     */
+    public Workload(String baseUrl, WorkloadSeeder.SeededData data, Map<Operation, Integer> mix, long seed) {
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.random = new Random(seed);
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * @return the next operation according to the mix weights
+     */
+    public Operation nextOperation() {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * @param operation the operation
+     * @return the HTTP request for the operation with randomized parameters
+     */
+    public HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case BOOK -> post("/bookings", bookingJson());
+            case BOOKINGS -> get("/bookings?limit=100&workspaceId=" + pick(data.workspaceIds()));
+            case WORKSPACES -> get("/workspaces/" + pick(data.workspaceIds()));
+            case CONFERENCE_ROOMS -> get("/conference_rooms?limit=20&after=" + (pick(data.roomIds()) - 1));
+            case USERS -> get("/users/" + pick(data.userIds()));
+        };
+    }
+
+    private String bookingJson() {
+        int workingDay = random.nextInt(5 * 52);
+        LocalDateTime bookingTime = FUTURE_MONDAY
+                .plusDays(workingDay / 5 * 7L + workingDay % 5)
+                .plusHours(8 + random.nextInt(8));
+        return "{\"workspaceId\": " + pick(data.workspaceIds()) +
+                ", \"bookedBy\": \"loaduser" + (1 + random.nextInt(data.userIds().length)) + "\"" +
+                ", \"bookingTime\": \"" + BOOKING_TIME.format(bookingTime) + "\"" +
+                ", \"bookingDurationHours\": 1}";
+    }
+
+    private int pick(int[] ids) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package io.coworking.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Детерминированно заполняем базу данных для нагрузочного теста: одинаковые параметры всегда дают
+ * одинаковый набор строк. Бронирования раскладываются по рабочим местам по кругу и занимают
+ * часовые слоты рабочих дней начиная с 6 января 2025 года, поэтому не пересекаются.
+ */
+public class WorkloadSeeder {
+    private static final String USERS = "coworking.\"users-liquibase\"";
+    private static final String ROOMS = "coworking.\"conference_rooms-liquibase\"";
+    private static final String WORKSPACES = "coworking.\"workspaces-liquibase\"";
+    private static final String BOOKINGS = "coworking.\"bookings-liquibase\"";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WorkloadSeeder(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Заполняем таблицы и обновляем статистику планировщика.
+     *
+     * @param options the load test options
+     * @return the IDs of the seeded rows
+     */
+    public SeededData seed(LoadTestOptions options) {
+        jdbcTemplate.update("INSERT INTO " + USERS + " (name, email, password)" +
+                " SELECT 'loaduser' || g, 'loaduser' || g || '@example.com', 'password' FROM generate_series(1, ?) g", options.users());
+        jdbcTemplate.update("INSERT INTO " + ROOMS + " (name, capacity)" +
+                " SELECT 'Load room ' || g, 10 + g % 40 FROM generate_series(1, ?) g", options.rooms());
+        jdbcTemplate.update("INSERT INTO " + WORKSPACES + " (name, conference_room_id)" +
+                " SELECT 'Load workspace ' || g, r.id FROM generate_series(0, ? - 1) g" +
+                " JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn FROM " + ROOMS +
+                " WHERE name LIKE 'Load room %') r ON r.rn = g % ?", options.workspaces(), options.rooms());
+        jdbcTemplate.update("INSERT INTO " + BOOKINGS + " (workspace_id, booked_by, booking_time, duration_hours)" +
+                " SELECT w.id, 'loaduser' || (1 + (k * 7919) % ?)," +
+                " TIMESTAMP '2025-01-06 00:00' + ((k / ? / 8) / 5 * 7 + (k / ? / 8) % 5) * INTERVAL '1 day'" +
+                " + (8 + (k / ?) % 8) * INTERVAL '1 hour', 1" +
+                " FROM generate_series(0, ? - 1) k" +
+                " JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn FROM " + WORKSPACES +
+                " WHERE name LIKE 'Load workspace %') w ON w.rn = k % ?",
+                options.users(), options.workspaces(), options.workspaces(), options.workspaces(),
+                options.bookings(), options.workspaces());
+        jdbcTemplate.execute("ANALYZE");
+
+        return new SeededData(
+                ids("SELECT id FROM " + USERS + " WHERE name LIKE 'loaduser%' ORDER BY id"),
+                ids("SELECT id FROM " + ROOMS + " WHERE name LIKE 'Load room %' ORDER BY id"),
+                ids("SELECT id FROM " + WORKSPACES + " WHERE name LIKE 'Load workspace %' ORDER BY id"));
+    }
+
+    private int[] ids(String sql) {
+        List<Integer> ids = jdbcTemplate.queryForList(sql, Integer.class);
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Идентификаторы созданных строк, из которых генератор выбирает цели запросов.
+     *
+     * @param userIds the user IDs
+     * @param roomIds the conference room IDs
+     * @param workspaceIds the workspace IDs
+     */
+    public record SeededData(int[] userIds, int[] roomIds, int[] workspaceIds) {
+    }
+}
@@ -0,0 +1,70 @@
+package io.coworking.mapper;
+
+import io.coworking.dto.BookingDTO;
+import io.coworking.dto.WorkspaceDTO;
+import io.coworking.entities.Booking;
+import io.coworking.entities.Workspace;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование списков сущностей в DTO через MapStruct-мапперы, как это делают контроллеры.
+ * У каждого рабочего места по десять бронирований, чтобы учитывать вложенное копирование.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final int BOOKINGS_PER_WORKSPACE = 10;
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private List<Booking> bookings;
+    private List<Workspace> workspaces;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        bookings = new ArrayList<>(size);
+        workspaces = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            bookings.add(booking(i, i, start.plusHours(i)));
+
+            Workspace workspace = new Workspace("Workspace " + i);
+            workspace.setId(i);
+            workspace.setConferenceRoomId(i % 10);
+            for (int j = 0; j < BOOKINGS_PER_WORKSPACE; j++) {
+                workspace.getBookings().add(booking(i * BOOKINGS_PER_WORKSPACE + j, i, start.plusDays(j)));
+            }
+            workspaces.add(workspace);
+        }
+    }
+
+    private static Booking booking(int id, int workspaceId, LocalDateTime bookingTime) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setWorkspaceId(workspaceId);
+        booking.setBookedBy("user" + id);
+        booking.setBookingTime(bookingTime);
+        booking.setBookingDurationHours(1);
+        return booking;
+    }
+
+    @Benchmark
+    public List<BookingDTO> bookingsToDTOList() {
+        return BookingMapper.INSTANCE.toDTOList(bookings);
+    }
+
+    @Benchmark
+    public List<WorkspaceDTO> workspacesToDTOList() {
+        return WorkspaceMapper.INSTANCE.toDTOList(workspaces);
+    }
+}
@@ -0,0 +1,55 @@
+package io.coworking.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Число проверок пароля при входе в секунду на одно ядро при разной стоимости bcrypt.
+ * Пул {@link PasswordHasher} ограничен одним потоком, поэтому результат {@code verifyOnPool}
+ * соответствует пропускной способности одного ядра; {@code verifyDirect} показывает ту же проверку
+ * без передачи задачи в пул.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class PasswordHasherBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private PasswordHasher passwordHasher;
+    private BCryptPasswordEncoder encoder;
+    private String storedPassword;
+    private String bcryptHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordHasher = new PasswordHasher(strength, 1, 16, 1, new SimpleMeterRegistry());
+        encoder = new BCryptPasswordEncoder(strength);
+        storedPassword = passwordHasher.hash(PASSWORD);
+        bcryptHash = storedPassword.substring("{bcrypt}".length());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Benchmark
+    public boolean verifyOnPool() {
+        return passwordHasher.verify(PASSWORD, storedPassword).matches();
+    }
+
+    @Benchmark
+    public boolean verifyDirect() {
+        return encoder.matches(PASSWORD, bcryptHash);
+    }
+}
@@ -1,15 +1,40 @@
 package io.coworking.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties(LoggingProperties.class)
+@ConditionalOnProperty(prefix = "coworking.logging", name = "enabled", matchIfMissing = true)
 public class LoggingAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public LoggingAspect loggingAspect() {
-        return new LoggingAspect();
+    public MethodTimingInterceptor methodTimingInterceptor(ObjectProvider<MeterRegistry> registryProvider,
+                                                           LoggingProperties properties) {
+        return new MethodTimingInterceptor(registryProvider, properties);
+    }
+
+    /**
+     * Привязываем интерсептор к pointcut из настроек, чтобы набор замеряемых методов
+     * можно было менять без пересборки.
+     *
+     * @param interceptor the timing interceptor
+     * @param properties the timing properties
+     * @return the advisor
+     */
+    @Bean
+    public Advisor methodTimingAdvisor(MethodTimingInterceptor interceptor, LoggingProperties properties) {
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+        advisor.setExpression(properties.getPointcut());
+        advisor.setAdvice(interceptor);
+        return advisor;
     }
 }
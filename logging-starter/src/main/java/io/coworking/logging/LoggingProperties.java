@@ -0,0 +1,119 @@
+package io.coworking.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки замера времени выполнения методов.
+ */
+@ConfigurationProperties(prefix = "coworking.logging")
+public class LoggingProperties {
+    /**
+     * Включен ли замер времени выполнения методов.
+     */
+    private boolean enabled = true;
+
+    /**
+     * AspectJ-выражение, определяющее замеряемые методы.
+     */
+    private String pointcut = "execution(public * io.coworking.controllers..*(..))"
+            + " || execution(public * io.coworking.managers..*(..))"
+            + " || execution(public * io.coworking.dao..*(..))";
+
+    /**
+     * Имя таймера в Micrometer.
+     */
+    private String metricName = "coworking.method";
+
+    /**
+     * Доля замеряемых вызовов от 0 до 1.
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Перцентили, вычисляемые на стороне приложения.
+     */
+    private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99));
+
+    /**
+     * Публиковать ли гистограмму для агрегирования перцентилей на стороне Prometheus.
+     */
+    private boolean percentileHistogram = false;
+
+    /**
+     * Границы SLO-бакетов гистограммы.
+     */
+    private List<Duration> slo = new ArrayList<>();
+
+    /**
+     * Порог, начиная с которого вызов записывается в лог как медленный; null отключает логирование.
+     */
+    private Duration slowCallThreshold;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getPointcut() {
+        return pointcut;
+    }
+
+    public void setPointcut(String pointcut) {
+        this.pointcut = pointcut;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public void setMetricName(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public List<Double> getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(List<Double> percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public boolean isPercentileHistogram() {
+        return percentileHistogram;
+    }
+
+    public void setPercentileHistogram(boolean percentileHistogram) {
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    public List<Duration> getSlo() {
+        return slo;
+    }
+
+    public void setSlo(List<Duration> slo) {
+        this.slo = slo;
+    }
+
+    public Duration getSlowCallThreshold() {
+        return slowCallThreshold;
+    }
+
+    public void setSlowCallThreshold(Duration slowCallThreshold) {
+        this.slowCallThreshold = slowCallThreshold;
+    }
+}
@@ -0,0 +1,103 @@
+package io.coworking.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замеряем время выполнения методов через {@link System#nanoTime()} и записываем его в таймеры Micrometer
+ * с тегами class и method. Таймеры создаются один раз на метод и дальше берутся из кэша,
+ * поэтому на горячем пути нет ни форматирования строк, ни записи в лог.
+ */
+public class MethodTimingInterceptor implements MethodInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(MethodTimingInterceptor.class);
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final LoggingProperties properties;
+    private final double sampleRate;
+    private final long slowCallThresholdNanos;
+    private final Map<Class<?>, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    /**
+     * Реестр метрик запрашивается при первом вызове, чтобы не создавать его раньше,
+     * чем Spring Boot применит к нему свои настройки.
+     *
+     * @param registryProvider the meter registry provider
+     * @param properties the timing properties
+     */
+    public MethodTimingInterceptor(ObjectProvider<MeterRegistry> registryProvider, LoggingProperties properties) {
+        this.registryProvider = registryProvider;
+        this.properties = properties;
+        this.sampleRate = properties.getSampleRate();
+        Duration threshold = properties.getSlowCallThreshold();
+        this.slowCallThresholdNanos = threshold == null ? Long.MAX_VALUE : threshold.toNanos();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Class<?> targetClass = invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis())
+                    : invocation.getMethod().getDeclaringClass();
+            timer(targetClass, invocation.getMethod()).record(elapsed, TimeUnit.NANOSECONDS);
+            if (elapsed >= slowCallThresholdNanos) {
+                logger.warn("Slow call {}.{} took {} ms", targetClass.getSimpleName(),
+                        invocation.getMethod().getName(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
+    private Timer timer(Class<?> targetClass, Method method) {
+        Map<Method, Timer> byMethod = timers.get(targetClass);
+        if (byMethod == null) {
+            byMethod = timers.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byMethod.get(method);
+        if (timer == null) {
+            timer = byMethod.computeIfAbsent(method, key -> register(targetClass, key));
+        }
+        return timer;
+    }
+
+    private Timer register(Class<?> targetClass, Method method) {
+        Timer.Builder builder = Timer.builder(properties.getMetricName())
+                .description("Execution time of application methods")
+                .tag("class", targetClass.getSimpleName())
+                .tag("method", method.getName())
+                .publishPercentiles(properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray())
+                .publishPercentileHistogram(properties.isPercentileHistogram());
+        if (!properties.getSlo().isEmpty()) {
+            builder.serviceLevelObjectives(properties.getSlo().toArray(Duration[]::new));
+        }
+        return builder.register(registry());
+    }
+
+    private MeterRegistry registry() {
+        MeterRegistry current = registry;
+        if (current == null) {
+            current = registryProvider.getObject();
+            registry = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,64 @@
+package io.coworking.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggingAutoConfigurationTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(AopAutoConfiguration.class))
+            .withUserConfiguration(TestConfiguration.class)
+            .withPropertyValues("coworking.logging.pointcut=execution(public * io.coworking.logging.LoggingAutoConfigurationTest.Greeter.*(..))");
+
+    @EnableLogging
+    @Configuration(proxyBeanMethods = false)
+    static class TestConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        Greeter greeter() {
+            return new Greeter();
+        }
+    }
+
+    static class Greeter {
+        public String greet(String name) {
+            return "Hello, " + name;
+        }
+    }
+
+    @Test
+    void testMatchingBeansAreTimedWithConfiguredProperties() {
+        contextRunner.withPropertyValues("coworking.logging.metric-name=test.method", "coworking.logging.slo=5ms,50ms")
+                .run(context -> {
+                    Greeter greeter = context.getBean(Greeter.class);
+                    assertTrue(AopUtils.isAopProxy(greeter));
+
+                    assertEquals("Hello, Bob", greeter.greet("Bob"));
+
+                    MeterRegistry registry = context.getBean(MeterRegistry.class);
+                    assertEquals(1, registry.get("test.method").tags("class", "Greeter", "method", "greet").timer().count());
+                    assertEquals(2, registry.get("test.method").timer().takeSnapshot().histogramCounts().length);
+                });
+    }
+
+    @Test
+    void testDisabledLoggingRegistersNoInterceptor() {
+        contextRunner.withPropertyValues("coworking.logging.enabled=false")
+                .run(context -> {
+                    assertTrue(context.getBeansOfType(MethodTimingInterceptor.class).isEmpty());
+                    assertFalse(AopUtils.isAopProxy(context.getBean(Greeter.class)));
+                });
+    }
+}
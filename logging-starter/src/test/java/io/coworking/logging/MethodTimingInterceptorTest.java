@@ -0,0 +1,150 @@
+package io.coworking.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodTimingInterceptorTest {
+    private MeterRegistry registry;
+    private LoggingProperties properties;
+    private ListAppender<ILoggingEvent> logEvents;
+
+    /**
+     * Замеряемый класс; CGLIB-прокси создается так же, как для бинов приложения.
+     */
+    static class Greeter {
+        public String greet(String name) {
+            return "Hello, " + name;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new LoggingProperties();
+        logEvents = new ListAppender<>();
+        logEvents.start();
+        ((Logger) LoggerFactory.getLogger(MethodTimingInterceptor.class)).addAppender(logEvents);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((Logger) LoggerFactory.getLogger(MethodTimingInterceptor.class)).detachAppender(logEvents);
+    }
+
+    @Test
+    void testTimerIsTaggedWithClassAndMethod() {
+        Greeter greeter = proxy();
+
+        assertEquals("Hello, Bob", greeter.greet("Bob"));
+        greeter.greet("Alice");
+        assertThrows(IllegalStateException.class, greeter::fail);
+
+        Timer greet = registry.find("coworking.method").tags("class", "Greeter", "method", "greet").timer();
+        Timer fail = registry.find("coworking.method").tags("class", "Greeter", "method", "fail").timer();
+        assertNotNull(greet);
+        assertNotNull(fail);
+        assertEquals(2, greet.count());
+        assertEquals(1, fail.count());
+        assertEquals(2, registry.find("coworking.method").timers().size());
+    }
+
+    @Test
+    void testMetricNameIsConfigurable() {
+        properties.setMetricName("custom.timer");
+
+        proxy().greet("Bob");
+
+        assertNull(registry.find("coworking.method").timer());
+        assertEquals(1, registry.get("custom.timer").timer().count());
+    }
+
+    @Test
+    void testZeroSampleRateSkipsTimingButProceeds() {
+        properties.setSampleRate(0.0);
+
+        assertEquals("Hello, Bob", proxy().greet("Bob"));
+
+        assertNull(registry.find("coworking.method").timer());
+    }
+
+    @Test
+    void testPartialSampleRateRecordsFractionOfCalls() {
+        properties.setSampleRate(0.5);
+        Greeter greeter = proxy();
+
+        for (int i = 0; i < 4000; i++) {
+            greeter.greet("Bob");
+        }
+
+        long count = registry.get("coworking.method").timer().count();
+        assertTrue(count > 1600 && count < 2400, "sampled " + count + " of 4000 calls");
+    }
+
+    @Test
+    void testPercentilesAndSloBucketsAreRegistered() {
+        properties.setPercentiles(List.of(0.5, 0.99));
+        properties.setSlo(List.of(Duration.ofMillis(10), Duration.ofMillis(100)));
+
+        proxy().greet("Bob");
+
+        HistogramSnapshot snapshot = registry.get("coworking.method").timer().takeSnapshot();
+        assertArrayEquals(new double[]{0.5, 0.99},
+                Arrays.stream(snapshot.percentileValues()).mapToDouble(ValueAtPercentile::percentile).toArray());
+        assertArrayEquals(new double[]{10, 100},
+                Arrays.stream(snapshot.histogramCounts()).mapToDouble(bucket -> bucket.bucket(TimeUnit.MILLISECONDS)).toArray());
+        assertEquals(1, Arrays.stream(snapshot.histogramCounts()).mapToDouble(CountAtBucket::count).max().orElse(0));
+    }
+
+    @Test
+    void testSlowCallIsLoggedAboveThreshold() {
+        properties.setSlowCallThreshold(Duration.ZERO);
+
+        proxy().greet("Bob");
+
+        assertEquals(1, logEvents.list.size());
+        assertTrue(logEvents.list.get(0).getFormattedMessage().startsWith("Slow call Greeter.greet took"));
+    }
+
+    @Test
+    void testFastCallIsNotLogged() {
+        properties.setSlowCallThreshold(Duration.ofMinutes(1));
+        proxy().greet("Bob");
+
+        properties.setSlowCallThreshold(null);
+        proxy().greet("Bob");
+
+        assertTrue(logEvents.list.isEmpty());
+    }
+
+    private Greeter proxy() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", registry);
+        ProxyFactory proxyFactory = new ProxyFactory(new Greeter());
+        proxyFactory.addAdvice(new MethodTimingInterceptor(beanFactory.getBeanProvider(MeterRegistry.class), properties));
+        return (Greeter) proxyFactory.getProxy();
+    }
+}
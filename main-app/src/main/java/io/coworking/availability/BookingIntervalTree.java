@@ -0,0 +1,220 @@
+package io.coworking.availability;
+
+/**
+ * Интервальное дерево бронирований одного рабочего места.
+ * <p>
+ * Сбалансированное (AVL) дерево, упорядоченное по началу интервала и ID бронирования,
+ * где каждый узел хранит максимальный конец интервала в своем поддереве.
+ * Поиск пересечения, вставка и удаление выполняются за O(log n).
+ * Интервалы полуоткрытые: [start, end). Класс не потокобезопасен.
+ */
+final class BookingIntervalTree {
+
+    private static final class Node {
+        final int bookingId;
+        final long start;
+        final long end;
+        long maxEnd;
+        int height;
+        Node left;
+        Node right;
+
+        Node(int bookingId, long start, long end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+            this.height = 1;
+        }
+    }
+
+    /**
+     * Получатель интервалов, найденных {@link #forEachOverlap}.
+     */
+    @FunctionalInterface
+    interface IntervalVisitor {
+        void visit(long start, long end);
+    }
+
+    private Node root;
+    private int size;
+
+    /**
+     * Добавляем интервал бронирования.
+     *
+     * @param bookingId the booking ID
+     * @param start the interval start (inclusive)
+     * @param end the interval end (exclusive)
+     */
+    void insert(int bookingId, long start, long end) {
+        root = insert(root, bookingId, start, end);
+        size++;
+    }
+
+    /**
+     * Удаляем интервал бронирования.
+     *
+     * @param bookingId the booking ID
+     * @param start the interval start used as the tree key
+     * @return true if the interval was removed, false otherwise
+     */
+    boolean remove(int bookingId, long start) {
+        int before = size;
+        root = remove(root, bookingId, start);
+        return size < before;
+    }
+
+    /**
+     * Проверяем, пересекается ли интервал [start, end) хотя бы с одним бронированием.
+     *
+     * @param start the interval start (inclusive)
+     * @param end the interval end (exclusive)
+     * @return true if any stored interval overlaps, false otherwise
+     */
+    boolean overlaps(long start, long end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start < end && start < node.end) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd > start) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Обходим все интервалы, пересекающиеся с [start, end), в порядке начала.
+     * Поддеревья, где максимальный конец не превышает start, пропускаются.
+     *
+     * @param start the interval start (inclusive)
+     * @param end the interval end (exclusive)
+     * @param visitor the visitor receiving each overlapping interval
+     */
+    void forEachOverlap(long start, long end, IntervalVisitor visitor) {
+        forEachOverlap(root, start, end, visitor);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static int compare(long start, int bookingId, Node node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Integer.compare(bookingId, node.bookingId);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd > maxEnd) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > maxEnd) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static void forEachOverlap(Node node, long start, long end, IntervalVisitor visitor) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        forEachOverlap(node.left, start, end, visitor);
+        if (node.start < end) {
+            if (start < node.end) {
+                visitor.visit(node.start, node.end);
+            }
+            forEachOverlap(node.right, start, end, visitor);
+        }
+    }
+
+    private Node insert(Node node, int bookingId, long start, long end) {
+        if (node == null) {
+            return new Node(bookingId, start, end);
+        }
+        if (compare(start, bookingId, node) < 0) {
+            node.left = insert(node.left, bookingId, start, end);
+        } else {
+            node.right = insert(node.right, bookingId, start, end);
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, int bookingId, long start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, bookingId, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, bookingId, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.bookingId, successor.start, successor.end);
+            size++;
+            replacement.right = remove(node.right, successor.bookingId, successor.start);
+            replacement.left = node.left;
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+}
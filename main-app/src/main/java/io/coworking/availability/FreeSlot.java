@@ -0,0 +1,15 @@
+package io.coworking.availability;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Свободный слот: интервал, на который в одном конференц-зале свободно нужное число рабочих мест.
+ *
+ * @param startTime the slot start time
+ * @param endTime the slot end time
+ * @param conferenceRoomId the conference room ID
+ * @param workspaceIds the IDs of free workspaces, as many as requested seats
+ */
+public record FreeSlot(LocalDateTime startTime, LocalDateTime endTime, int conferenceRoomId, List<Integer> workspaceIds) {
+}
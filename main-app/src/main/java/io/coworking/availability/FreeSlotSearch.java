@@ -0,0 +1,174 @@
+package io.coworking.availability;
+
+import io.coworking.dao.WorkspaceDAO;
+import io.coworking.entities.Workspace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Поиск свободных слотов по всем рабочим местам за один вызов.
+ * <p>
+ * Кандидаты на начало слота перебираются по целым часам окна в хронологическом порядке,
+ * внутри часа — по конференц-залам в порядке ID. Часы, нерабочие по календарю конференц-зала,
+ * отбрасываются сразу для всего зала, занятость рабочих мест проверяется по индексу
+ * {@link WorkspaceAvailabilityIndex} без обращения к базе данных. Перебор останавливается,
+ * как только набрана страница, поэтому ранние слоты находятся быстро даже в широком окне.
+ * <p>
+ * Слоты упорядочены по времени начала, затем по ID конференц-зала. Курсор следующей страницы
+ * имеет вид {@code <время начала>,<ID конференц-зала>} последнего возвращенного слота.
+ */
+@Component
+public class FreeSlotSearch {
+    static final int MAX_WINDOW_DAYS = 31;
+
+    private final WorkspaceDAO workspaceDAO;
+    private final WorkspaceAvailabilityIndex availabilityIndex;
+    private final WorkingCalendar workingCalendar;
+
+    /**
+     * Параметры поиска.
+     *
+     * @param from the earliest slot start
+     * @param to the latest slot end
+     * @param durationHours the slot duration in hours
+     * @param conferenceRoomId the conference room to search in, or null for all rooms
+     * @param seats the number of workspaces needed in one conference room
+     */
+    public record Query(LocalDateTime from, LocalDateTime to, int durationHours, Integer conferenceRoomId, int seats) {
+        public Query {
+            if (from == null || to == null || !from.isBefore(to)) {
+                throw new IllegalArgumentException("Search window start must be before its end");
+            }
+            if (Duration.between(from, to).toDays() > MAX_WINDOW_DAYS) {
+                throw new IllegalArgumentException("Search window must not exceed " + MAX_WINDOW_DAYS + " days");
+            }
+            if (durationHours <= 0) {
+                throw new IllegalArgumentException("Duration must be positive");
+            }
+            if (seats <= 0) {
+                throw new IllegalArgumentException("Seat count must be positive");
+            }
+        }
+    }
+
+    /**
+     * Страница найденных слотов.
+     *
+     * @param items the slots ordered by start time and conference room ID
+     * @param nextCursor the cursor to pass as {@code after} for the next page, or null if this is the last page
+     */
+    public record Page(List<FreeSlot> items, String nextCursor) {
+    }
+
+    /**
+     * Конструктор с внедрением DAO рабочих мест, индекса занятости и рабочего календаря.
+     *
+     * @param workspaceDAO DAO рабочих мест
+     * @param availabilityIndex индекс занятости рабочих мест
+     * @param workingCalendar рабочий календарь
+     */
+    @Autowired
+    public FreeSlotSearch(WorkspaceDAO workspaceDAO, WorkspaceAvailabilityIndex availabilityIndex,
+                          WorkingCalendar workingCalendar) {
+        this.workspaceDAO = workspaceDAO;
+        this.availabilityIndex = availabilityIndex;
+        this.workingCalendar = workingCalendar;
+    }
+
+    /**
+     * Находим страницу самых ранних свободных слотов.
+     *
+     * @param query the search parameters
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of slots on the page
+     * @return the page of free slots
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public Page search(Query query, String after, int limit) {
+        SortedMap<Integer, List<Integer>> workspacesByRoom = workspacesByRoom(query.conferenceRoomId());
+
+        LocalDateTime start = ceilToHour(query.from());
+        int afterRoomId = Integer.MIN_VALUE;
+        if (after != null) {
+            int separator = after.lastIndexOf(',');
+            try {
+                LocalDateTime afterStart = LocalDateTime.parse(after.substring(0, Math.max(separator, 0)));
+                afterRoomId = Integer.parseInt(after.substring(separator + 1));
+                if (afterStart.isAfter(start)) {
+                    start = ceilToHour(afterStart);
+                }
+                if (!start.equals(afterStart)) {
+                    afterRoomId = Integer.MIN_VALUE;
+                }
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed cursor: " + after);
+            }
+        }
+
+        List<FreeSlot> slots = new ArrayList<>();
+        for (; !start.plusHours(query.durationHours()).isAfter(query.to()); start = start.plusHours(1)) {
+            LocalDateTime end = start.plusHours(query.durationHours());
+            for (Map.Entry<Integer, List<Integer>> room : workspacesByRoom.tailMap(afterRoomId).entrySet()) {
+                int roomId = room.getKey();
+                if (roomId == afterRoomId
+                        || !workingCalendar.isBookableInRoom(roomId, start, query.durationHours())) {
+                    continue;
+                }
+                List<Integer> free = freeWorkspaces(room.getValue(), start, query.durationHours(), query.seats());
+                if (free != null) {
+                    slots.add(new FreeSlot(start, end, roomId, free));
+                    if (slots.size() > limit) {
+                        FreeSlot last = slots.get(limit - 1);
+                        return new Page(slots.subList(0, limit), last.startTime() + "," + last.conferenceRoomId());
+                    }
+                }
+            }
+            afterRoomId = Integer.MIN_VALUE;
+        }
+        return new Page(slots, null);
+    }
+
+    private SortedMap<Integer, List<Integer>> workspacesByRoom(Integer conferenceRoomId) {
+        SortedMap<Integer, List<Integer>> workspacesByRoom = new TreeMap<>();
+        for (Workspace workspace : workspaceDAO.findAllWorkspaces()) {
+            if (conferenceRoomId == null || conferenceRoomId == workspace.getConferenceRoomId()) {
+                workspacesByRoom.computeIfAbsent(workspace.getConferenceRoomId(), id -> new ArrayList<>()).add(workspace.getId());
+            }
+        }
+        for (List<Integer> workspaceIds : workspacesByRoom.values()) {
+            Collections.sort(workspaceIds);
+        }
+        return workspacesByRoom;
+    }
+
+    /**
+     * @return the first {@code seats} free workspace IDs, or null if there are fewer
+     */
+    private List<Integer> freeWorkspaces(List<Integer> workspaceIds, LocalDateTime start, int durationHours, int seats) {
+        if (workspaceIds.size() < seats) {
+            return null;
+        }
+        List<Integer> free = new ArrayList<>(seats);
+        for (int i = 0; i < workspaceIds.size() && free.size() < seats; i++) {
+            if (workspaceIds.size() - i < seats - free.size()) {
+                return null;
+            }
+            int workspaceId = workspaceIds.get(i);
+            if (availabilityIndex.isAvailable(workspaceId, start, durationHours)) {
+                free.add(workspaceId);
+            }
+        }
+        return free.size() == seats ? free : null;
+    }
+
+    private static LocalDateTime ceilToHour(LocalDateTime dateTime) {
+        LocalDateTime hour = dateTime.truncatedTo(ChronoUnit.HOURS);
+        return hour.equals(dateTime) ? hour : hour.plusHours(1);
+    }
+}
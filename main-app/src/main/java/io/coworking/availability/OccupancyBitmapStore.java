@@ -0,0 +1,154 @@
+package io.coworking.availability;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Битовые маски занятости рабочих мест по дням: бит {@code h} маски дня установлен,
+ * если хотя бы одно бронирование занимает (целиком или частично) час {@code h}.
+ * <p>
+ * Для каждого рабочего места хранится плотный массив {@code int} от первого до последнего дня
+ * с бронированиями, поэтому год бронирований одного места занимает около 1,5 КБ, а запрос
+ * сводится к чтению элемента массива. Хранилище заполняет {@link WorkspaceAvailabilityIndex}
+ * под блокировкой записи рабочего места, то есть запись по одному рабочему месту всегда
+ * однопоточна. Чтение выполняется без блокировок: элементы массива читаются с семантикой acquire,
+ * а при расширении массив копируется и публикуется целиком.
+ */
+@Component
+public class OccupancyBitmapStore {
+    private static final VarHandle HOURS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long SECONDS_PER_HOUR = 3600L;
+
+    private final Map<Integer, Row> rows = new ConcurrentHashMap<>();
+
+    /**
+     * Маски одного рабочего места.
+     */
+    private static final class Row {
+        volatile Days days;
+        volatile int occupiedDays;
+    }
+
+    /**
+     * Маски начиная с дня {@code firstDay}; при расширении заменяется новым экземпляром.
+     */
+    private record Days(long firstDay, int[] hours) {
+    }
+
+    /**
+     * Возвращаем маску занятых часов рабочего места на день.
+     *
+     * @param workspaceId the workspace ID
+     * @param epochDay the day as {@link java.time.LocalDate#toEpochDay()}
+     * @return the bitmap of occupied hours, 0 if the workspace is free all day
+     */
+    public int occupiedHours(int workspaceId, long epochDay) {
+        Row row = rows.get(workspaceId);
+        Days days = row != null ? row.days : null;
+        if (days == null) {
+            return 0;
+        }
+        long offset = epochDay - days.firstDay();
+        return offset >= 0 && offset < days.hours().length ? (int) HOURS.getAcquire(days.hours(), (int) offset) : 0;
+    }
+
+    /**
+     * Проверяем, есть ли у рабочего места хотя бы одно бронирование.
+     *
+     * @param workspaceId the workspace ID
+     * @return true if any day of the workspace has an occupied hour, false otherwise
+     */
+    public boolean hasBookings(int workspaceId) {
+        Row row = rows.get(workspaceId);
+        return row != null && row.occupiedDays > 0;
+    }
+
+    /**
+     * Отмечаем занятыми часы интервала [start, end), заданного в секундах эпохи.
+     */
+    void mark(int workspaceId, long start, long end) {
+        for (long day = Math.floorDiv(start, SECONDS_PER_DAY); day * SECONDS_PER_DAY < end; day++) {
+            int hours = hoursOf(day, start, end);
+            if (hours != 0) {
+                setHours(workspaceId, day, occupiedHours(workspaceId, day) | hours);
+            }
+        }
+    }
+
+    /**
+     * Пересобираем маски дней, затронутых интервалом [start, end), по оставшимся в дереве бронированиям.
+     */
+    void rebuild(int workspaceId, long start, long end, BookingIntervalTree tree) {
+        for (long day = Math.floorDiv(start, SECONDS_PER_DAY); day * SECONDS_PER_DAY < end; day++) {
+            long dayStart = day * SECONDS_PER_DAY;
+            long currentDay = day;
+            int[] hours = new int[1];
+            tree.forEachOverlap(dayStart, dayStart + SECONDS_PER_DAY,
+                    (bookingStart, bookingEnd) -> hours[0] |= hoursOf(currentDay, bookingStart, bookingEnd));
+            setHours(workspaceId, day, hours[0]);
+        }
+    }
+
+    private void setHours(int workspaceId, long epochDay, int hours) {
+        Row row = hours == 0 ? rows.get(workspaceId) : rows.computeIfAbsent(workspaceId, id -> new Row());
+        if (row == null) {
+            return;
+        }
+        Days days = row.days;
+        if (days == null || epochDay < days.firstDay() || epochDay >= days.firstDay() + days.hours().length) {
+            if (hours == 0) {
+                return;
+            }
+            days = grow(days, epochDay);
+            row.days = days;
+        }
+        int index = (int) (epochDay - days.firstDay());
+        int previous = (int) HOURS.getAcquire(days.hours(), index);
+        HOURS.setRelease(days.hours(), index, hours);
+        if (previous == 0 && hours != 0) {
+            row.occupiedDays++;
+        } else if (previous != 0 && hours == 0) {
+            row.occupiedDays--;
+        }
+    }
+
+    /**
+     * Расширяем массив так, чтобы он включал день, с запасом в текущую длину массива.
+     */
+    private static Days grow(Days days, long epochDay) {
+        if (days == null) {
+            return new Days(epochDay, new int[1]);
+        }
+        int length = days.hours().length;
+        long first = days.firstDay();
+        long last = first + length - 1;
+        if (epochDay < first) {
+            first = Math.min(epochDay, first - length);
+        } else {
+            last = Math.max(epochDay, last + length);
+        }
+        int[] hours = new int[Math.toIntExact(last - first + 1)];
+        for (int i = 0; i < length; i++) {
+            hours[(int) (days.firstDay() - first) + i] = (int) HOURS.getAcquire(days.hours(), i);
+        }
+        return new Days(first, hours);
+    }
+
+    /**
+     * Маска часов дня, пересекающихся с интервалом [start, end); начатый час считается занятым.
+     */
+    private static int hoursOf(long epochDay, long start, long end) {
+        long dayStart = epochDay * SECONDS_PER_DAY;
+        long from = Math.max(start, dayStart) - dayStart;
+        long to = Math.min(end, dayStart + SECONDS_PER_DAY) - dayStart;
+        if (to <= from) {
+            return 0;
+        }
+        return WorkingCalendar.hoursMask((int) (from / SECONDS_PER_HOUR), (int) ((to + SECONDS_PER_HOUR - 1) / SECONDS_PER_HOUR));
+    }
+}
@@ -0,0 +1,317 @@
+package io.coworking.availability;
+
+import io.coworking.config.WorkspaceConfig;
+import io.coworking.invalidation.InvalidationListener;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Рабочий календарь коворкинга: рабочие дни и часы по умолчанию и для отдельных конференц-залов,
+ * а также исключения на конкретные даты (праздники, сокращенные и перенесенные рабочие дни).
+ * <p>
+ * Правила из базы данных компилируются в неизменяемый снимок: для каждого календаря хранится
+ * маска рабочих часов на каждый день горизонта (год назад и два года вперед), поэтому проверка
+ * сводится к чтению элемента массива и сравнению битовых масок без выделения памяти.
+ * Календарь конференц-зала и конференц-зал рабочего места находятся двоичным поиском по отсортированным
+ * массивам. При изменении таблиц календаря снимок пересобирается и атомарно подменяется.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class WorkingCalendar implements InvalidationListener {
+    private static final Logger logger = LoggerFactory.getLogger(WorkingCalendar.class);
+
+    private static final String WORKING_HOURS_TABLE_NAME = "coworking.\"working_hours-liquibase\"";
+    private static final String CALENDAR_EXCEPTIONS_TABLE_NAME = "coworking.\"calendar_exceptions-liquibase\"";
+    private static final String WORKSPACE_TABLE_NAME = "coworking.\"workspaces-liquibase\"";
+    private static final int HORIZON_DAYS_BEFORE = 366;
+    private static final int HORIZON_DAYS = 3 * 366;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Snapshot snapshot;
+
+    /**
+     * До загрузки из базы данных действуют рабочие дни и часы из {@link WorkspaceConfig}.
+     *
+     * @param dataSource источник данных
+     */
+    @Autowired
+    public WorkingCalendar(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.snapshot = new Snapshot(compile(defaultRule(), List.of(), List.of(), LocalDate.now()),
+                new int[0], new Calendar[0], new int[0], new int[0]);
+    }
+
+    /**
+     * Загружаем правила и исключения из базы данных и подменяем снимок календаря.
+     */
+    @PostConstruct
+    public void load() {
+        // Ключ null соответствует календарю по умолчанию.
+        Map<Integer, Rule> roomRules = new HashMap<>();
+        jdbcTemplate.query("SELECT conference_room_id, work_days, start_hour, end_hour FROM " + WORKING_HOURS_TABLE_NAME, rs -> {
+            int roomId = rs.getInt(1);
+            Integer key = rs.wasNull() ? null : roomId;
+            roomRules.put(key, new Rule(parseDays(rs.getString(2)), hoursMask(rs.getInt(3), rs.getInt(4))));
+        });
+        Rule defaultRule = roomRules.containsKey(null) ? roomRules.remove(null) : defaultRule();
+
+        Map<Integer, List<CalendarException>> roomExceptions = new HashMap<>();
+        jdbcTemplate.query("SELECT conference_room_id, exception_date, start_hour, end_hour FROM " + CALENDAR_EXCEPTIONS_TABLE_NAME, rs -> {
+            int roomId = rs.getInt(1);
+            Integer key = rs.wasNull() ? null : roomId;
+            long epochDay = rs.getObject(2, LocalDate.class).toEpochDay();
+            int startHour = rs.getInt(3);
+            int hours = rs.wasNull() ? 0 : hoursMask(startHour, rs.getInt(4));
+            roomExceptions.computeIfAbsent(key, k -> new ArrayList<>()).add(new CalendarException(epochDay, hours));
+        });
+        List<CalendarException> globalExceptions = Objects.requireNonNullElse(roomExceptions.remove(null), List.of());
+
+        LocalDate today = LocalDate.now();
+        Calendar defaultCalendar = compile(defaultRule, globalExceptions, List.of(), today);
+        SortedSet<Integer> roomIds = new TreeSet<>(roomRules.keySet());
+        roomIds.addAll(roomExceptions.keySet());
+        int[] calendarRoomIds = new int[roomIds.size()];
+        Calendar[] roomCalendars = new Calendar[roomIds.size()];
+        int i = 0;
+        for (Integer roomId : roomIds) {
+            calendarRoomIds[i] = roomId;
+            roomCalendars[i] = compile(roomRules.getOrDefault(roomId, defaultRule), globalExceptions,
+                    roomExceptions.getOrDefault(roomId, List.of()), today);
+            i++;
+        }
+
+        // Соответствие рабочих мест конференц-залам нужно только при наличии календарей конференц-залов.
+        List<int[]> workspaceRooms = calendarRoomIds.length == 0 ? List.of()
+                : jdbcTemplate.query("SELECT id, conference_room_id FROM " + WORKSPACE_TABLE_NAME + " ORDER BY id",
+                (rs, rowNum) -> new int[]{rs.getInt(1), rs.getInt(2)});
+        int[] workspaceIds = new int[workspaceRooms.size()];
+        int[] workspaceRoomIds = new int[workspaceRooms.size()];
+        for (int j = 0; j < workspaceRooms.size(); j++) {
+            workspaceIds[j] = workspaceRooms.get(j)[0];
+            workspaceRoomIds[j] = workspaceRooms.get(j)[1];
+        }
+
+        snapshot = new Snapshot(defaultCalendar, calendarRoomIds, roomCalendars, workspaceIds, workspaceRoomIds);
+        logger.info("Working calendar loaded: {} room calendars, {} exceptions",
+                calendarRoomIds.length, globalExceptions.size() + roomExceptions.values().stream().mapToInt(List::size).sum());
+    }
+
+    /**
+     * Проверяем, что интервал бронирования рабочего места целиком приходится на рабочие часы
+     * календаря его конференц-зала. Рабочие места, неизвестные снимку, проверяются по календарю по умолчанию.
+     *
+     * @param workspaceId the workspace ID
+     * @param start the booking start time
+     * @param durationHours the booking duration in hours
+     * @return true if every hour of the booking is a working hour, false otherwise
+     */
+    public boolean isBookable(int workspaceId, LocalDateTime start, int durationHours) {
+        Snapshot current = snapshot;
+        return current.forWorkspace(workspaceId).covers(start, durationHours);
+    }
+
+    /**
+     * Проверяем, что интервал целиком приходится на рабочие часы календаря конференц-зала.
+     *
+     * @param conferenceRoomId the conference room ID
+     * @param start the interval start time
+     * @param durationHours the interval duration in hours
+     * @return true if every hour of the interval is a working hour, false otherwise
+     */
+    public boolean isBookableInRoom(int conferenceRoomId, LocalDateTime start, int durationHours) {
+        Snapshot current = snapshot;
+        return current.forRoom(conferenceRoomId).covers(start, durationHours);
+    }
+
+    /**
+     * Возвращаем маску рабочих часов конференц-зала на дату: бит {@code h} установлен, если час {@code h} рабочий.
+     *
+     * @param conferenceRoomId the conference room ID
+     * @param date the date
+     * @return the bitmap of working hours, 0 for a day off
+     */
+    public int workingHours(int conferenceRoomId, LocalDate date) {
+        return snapshot.forRoom(conferenceRoomId).hoursOn(date.toEpochDay(), date.getDayOfWeek());
+    }
+
+    @Override
+    public void invalidate(String table, Collection<Integer> ids) {
+        if (WORKING_HOURS_TABLE.equals(table) || CALENDAR_EXCEPTIONS_TABLE.equals(table)
+                || (WORKSPACES_TABLE.equals(table) && snapshot.roomIds.length > 0)) {
+            load();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        load();
+    }
+
+    private static Rule defaultRule() {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : WorkspaceConfig.WORK_DAYS.getDays()) {
+            days.add(DayOfWeek.valueOf(day.toUpperCase()));
+        }
+        return new Rule(days, hoursMask(WorkspaceConfig.START_HOUR.getValue(), WorkspaceConfig.END_HOUR.getValue()));
+    }
+
+    private static Set<DayOfWeek> parseDays(String workDays) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : workDays.split(",")) {
+            if (!day.isBlank()) {
+                days.add(DayOfWeek.valueOf(day.trim().toUpperCase()));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * @param startHour the first working hour
+     * @param endHour the hour the working day ends at, exclusive
+     * @return the bitmap with bits startHour..endHour-1 set
+     */
+    static int hoursMask(int startHour, int endHour) {
+        return (int) (((1L << endHour) - 1) & ~((1L << startHour) - 1));
+    }
+
+    private static Calendar compile(Rule rule, List<CalendarException> globalExceptions,
+                                    List<CalendarException> roomExceptions, LocalDate today) {
+        int[] weekdayHours = new int[7];
+        for (DayOfWeek day : rule.days()) {
+            weekdayHours[day.ordinal()] = rule.hours();
+        }
+        // Исключения конференц-зала перекрывают общие исключения на ту же дату.
+        TreeMap<Long, Integer> exceptions = new TreeMap<>();
+        for (CalendarException exception : globalExceptions) {
+            exceptions.put(exception.epochDay(), exception.hours());
+        }
+        for (CalendarException exception : roomExceptions) {
+            exceptions.put(exception.epochDay(), exception.hours());
+        }
+        long[] exceptionDays = new long[exceptions.size()];
+        int[] exceptionHours = new int[exceptions.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : exceptions.entrySet()) {
+            exceptionDays[i] = entry.getKey();
+            exceptionHours[i] = entry.getValue();
+            i++;
+        }
+
+        long firstDay = today.toEpochDay() - HORIZON_DAYS_BEFORE;
+        int[] dayHours = new int[HORIZON_DAYS];
+        DayOfWeek dayOfWeek = LocalDate.ofEpochDay(firstDay).getDayOfWeek();
+        for (int day = 0; day < HORIZON_DAYS; day++) {
+            dayHours[day] = weekdayHours[dayOfWeek.ordinal()];
+            dayOfWeek = dayOfWeek.plus(1);
+        }
+        for (int j = 0; j < exceptionDays.length; j++) {
+            long offset = exceptionDays[j] - firstDay;
+            if (offset >= 0 && offset < HORIZON_DAYS) {
+                dayHours[(int) offset] = exceptionHours[j];
+            }
+        }
+        return new Calendar(firstDay, dayHours, weekdayHours, exceptionDays, exceptionHours);
+    }
+
+    /**
+     * Рабочие дни недели и маска рабочих часов.
+     */
+    private record Rule(Set<DayOfWeek> days, int hours) {
+    }
+
+    /**
+     * Исключение на дату: маска рабочих часов, 0 для выходного дня.
+     */
+    private record CalendarException(long epochDay, int hours) {
+    }
+
+    /**
+     * Скомпилированный календарь: маски часов по дням горизонта и правила для дат за его пределами.
+     */
+    private static final class Calendar {
+        private final long firstDay;
+        private final int[] dayHours;
+        private final int[] weekdayHours;
+        private final long[] exceptionDays;
+        private final int[] exceptionHours;
+
+        private Calendar(long firstDay, int[] dayHours, int[] weekdayHours, long[] exceptionDays, int[] exceptionHours) {
+            this.firstDay = firstDay;
+            this.dayHours = dayHours;
+            this.weekdayHours = weekdayHours;
+            this.exceptionDays = exceptionDays;
+            this.exceptionHours = exceptionHours;
+        }
+
+        private int hoursOn(long epochDay, DayOfWeek dayOfWeek) {
+            long offset = epochDay - firstDay;
+            if (offset >= 0 && offset < dayHours.length) {
+                return dayHours[(int) offset];
+            }
+            int exception = Arrays.binarySearch(exceptionDays, epochDay);
+            return exception >= 0 ? exceptionHours[exception] : weekdayHours[dayOfWeek.ordinal()];
+        }
+
+        /**
+         * Интервал должен целиком лежать в пределах одних суток; начатый час считается занятым.
+         */
+        private boolean covers(LocalDateTime start, int durationHours) {
+            if (durationHours <= 0) {
+                return false;
+            }
+            int firstHour = start.getHour();
+            boolean partialHour = start.getMinute() != 0 || start.getSecond() != 0 || start.getNano() != 0;
+            int lastHour = firstHour + durationHours - (partialHour ? 0 : 1);
+            if (lastHour > 23) {
+                return false;
+            }
+            int required = hoursMask(firstHour, lastHour + 1);
+            int available = hoursOn(start.toLocalDate().toEpochDay(), start.getDayOfWeek());
+            return (available & required) == required;
+        }
+    }
+
+    /**
+     * Неизменяемый снимок календаря.
+     */
+    private static final class Snapshot {
+        private final Calendar defaultCalendar;
+        private final int[] roomIds;
+        private final Calendar[] roomCalendars;
+        private final int[] workspaceIds;
+        private final int[] workspaceRoomIds;
+
+        private Snapshot(Calendar defaultCalendar, int[] roomIds, Calendar[] roomCalendars,
+                         int[] workspaceIds, int[] workspaceRoomIds) {
+            this.defaultCalendar = defaultCalendar;
+            this.roomIds = roomIds;
+            this.roomCalendars = roomCalendars;
+            this.workspaceIds = workspaceIds;
+            this.workspaceRoomIds = workspaceRoomIds;
+        }
+
+        private Calendar forRoom(int conferenceRoomId) {
+            int index = Arrays.binarySearch(roomIds, conferenceRoomId);
+            return index >= 0 ? roomCalendars[index] : defaultCalendar;
+        }
+
+        private Calendar forWorkspace(int workspaceId) {
+            if (roomIds.length == 0) {
+                return defaultCalendar;
+            }
+            int index = Arrays.binarySearch(workspaceIds, workspaceId);
+            return index >= 0 ? forRoom(workspaceRoomIds[index]) : defaultCalendar;
+        }
+    }
+}
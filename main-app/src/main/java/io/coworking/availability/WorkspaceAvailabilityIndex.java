@@ -0,0 +1,228 @@
+package io.coworking.availability;
+
+import io.coworking.entities.Booking;
+import io.coworking.invalidation.InvalidationListener;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.sql.PreparedStatement;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс занятости рабочих мест в памяти.
+ * <p>
+ * Для каждого рабочего места хранится интервальное дерево его бронирований,
+ * поэтому проверка пересечения с учетом длительности бронирования выполняется за O(log n)
+ * без обращения к базе данных. Индекс загружается из таблицы бронирований при старте
+ * и обновляется DAO при добавлении, изменении и отмене бронирований.
+ * Вместе с деревьями индекс поддерживает битовые маски занятости по дням в {@link OccupancyBitmapStore}.
+ * Изменения, сделанные другими экземплярами приложения, перечитываются по уведомлениям
+ * {@link InvalidationListener}.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class WorkspaceAvailabilityIndex implements InvalidationListener {
+    private static final Logger logger = LoggerFactory.getLogger(WorkspaceAvailabilityIndex.class);
+
+    private static final String BOOKING_TABLE_NAME = "coworking.\"bookings-liquibase\"";
+    private static final long SECONDS_PER_HOUR = 3600L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OccupancyBitmapStore occupancy;
+    private final Map<Integer, Timeline> timelines = new ConcurrentHashMap<>();
+    private final Map<Integer, IndexedBooking> bookings = new ConcurrentHashMap<>();
+
+    /**
+     * Интервал бронирования в секундах эпохи (время без часового пояса трактуется как UTC).
+     */
+    private record IndexedBooking(int workspaceId, long start, long end) {
+    }
+
+    /**
+     * Бронирования одного рабочего места под собственной блокировкой.
+     */
+    private static final class Timeline {
+        final BookingIntervalTree tree = new BookingIntervalTree();
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Конструктор с внедрением зависимости DataSource.
+     *
+     * @param dataSource источник данных
+     * @param occupancy битовые маски занятости по дням
+     */
+    @Autowired
+    public WorkspaceAvailabilityIndex(DataSource dataSource, OccupancyBitmapStore occupancy) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * Загружаем все бронирования из базы данных в индекс.
+     * При повторной загрузке бронирования, которых больше нет в базе данных, удаляются из индекса,
+     * при этом индекс не опустошается на время загрузки.
+     */
+    @PostConstruct
+    public void load() {
+        String sql = "SELECT id, \"workspace_id\", \"booking_time\", \"duration_hours\" FROM " + BOOKING_TABLE_NAME;
+        Set<Integer> loaded = new HashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            int bookingId = rs.getInt(1);
+            put(bookingId, rs.getInt(2), rs.getTimestamp(3).toLocalDateTime(), rs.getInt(4));
+            loaded.add(bookingId);
+        });
+        for (Integer bookingId : new ArrayList<>(bookings.keySet())) {
+            if (!loaded.contains(bookingId)) {
+                remove(bookingId);
+            }
+        }
+        logger.info("Workspace availability index loaded with {} bookings", bookings.size());
+    }
+
+    /**
+     * Перечитываем указанные бронирования из базы данных одним запросом:
+     * найденные обновляются в индексе, отсутствующие удаляются.
+     *
+     * @param bookingIds the booking IDs to refresh
+     */
+    public void refresh(Collection<Integer> bookingIds) {
+        String sql = "SELECT id, \"workspace_id\", \"booking_time\", \"duration_hours\" FROM " + BOOKING_TABLE_NAME + " WHERE id = ANY(?)";
+        Long[] ids = bookingIds.stream().map(Integer::longValue).toArray(Long[]::new);
+        Set<Integer> missing = new HashSet<>(bookingIds);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        }, rs -> {
+            int bookingId = rs.getInt(1);
+            put(bookingId, rs.getInt(2), rs.getTimestamp(3).toLocalDateTime(), rs.getInt(4));
+            missing.remove(bookingId);
+        });
+        missing.forEach(this::remove);
+    }
+
+    @Override
+    public void invalidate(String table, Collection<Integer> ids) {
+        if (BOOKINGS_TABLE.equals(table)) {
+            refresh(ids);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        load();
+    }
+
+    /**
+     * Добавляем или обновляем бронирование в индексе.
+     *
+     * @param booking the saved booking with assigned ID
+     */
+    public void put(Booking booking) {
+        put(booking.getId(), booking.getWorkspaceId(), booking.getBookingTime(), booking.getBookingDurationHours());
+    }
+
+    /**
+     * Удаляем бронирование из индекса.
+     *
+     * @param bookingId the booking ID
+     */
+    public void remove(int bookingId) {
+        bookings.computeIfPresent(bookingId, (id, previous) -> {
+            remove(id, previous);
+            return null;
+        });
+    }
+
+    /**
+     * Проверяем, свободно ли рабочее место в интервале [bookingTime, bookingTime + durationHours).
+     *
+     * @param workspaceId the workspace ID
+     * @param bookingTime the booking start time
+     * @param durationHours the booking duration in hours
+     * @return true if no existing booking overlaps the interval, false otherwise
+     */
+    public boolean isAvailable(int workspaceId, LocalDateTime bookingTime, int durationHours) {
+        Timeline timeline = timelines.get(workspaceId);
+        if (timeline == null) {
+            return true;
+        }
+        long start = toEpochSecond(bookingTime);
+        long end = start + durationHours * SECONDS_PER_HOUR;
+        timeline.lock.readLock().lock();
+        try {
+            return !timeline.tree.overlaps(start, end);
+        } finally {
+            timeline.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Количество бронирований в индексе.
+     *
+     * @return the number of indexed bookings
+     */
+    public int size() {
+        return bookings.size();
+    }
+
+    /**
+     * Заменяем бронирование атомарно: ConcurrentHashMap.compute не дает двум потокам одновременно
+     * обработать один ID (например, afterCommit запроса и уведомление об этом же бронировании),
+     * поэтому в дереве не остается второго узла того же бронирования.
+     */
+    private void put(int bookingId, int workspaceId, LocalDateTime bookingTime, int durationHours) {
+        long start = toEpochSecond(bookingTime);
+        IndexedBooking indexed = new IndexedBooking(workspaceId, start, start + durationHours * SECONDS_PER_HOUR);
+        bookings.compute(bookingId, (id, previous) -> {
+            if (previous != null && previous.workspaceId() != workspaceId) {
+                remove(id, previous);
+            }
+            Timeline timeline = timelines.computeIfAbsent(workspaceId, key -> new Timeline());
+            timeline.lock.writeLock().lock();
+            try {
+                if (previous != null && previous.workspaceId() == workspaceId) {
+                    removeFromTimeline(id, previous, timeline);
+                }
+                timeline.tree.insert(id, indexed.start(), indexed.end());
+                occupancy.mark(workspaceId, indexed.start(), indexed.end());
+            } finally {
+                timeline.lock.writeLock().unlock();
+            }
+            return indexed;
+        });
+    }
+
+    private void remove(int bookingId, IndexedBooking previous) {
+        Timeline timeline = timelines.get(previous.workspaceId());
+        if (timeline != null) {
+            timeline.lock.writeLock().lock();
+            try {
+                removeFromTimeline(bookingId, previous, timeline);
+            } finally {
+                timeline.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void removeFromTimeline(int bookingId, IndexedBooking previous, Timeline timeline) {
+        timeline.tree.remove(bookingId, previous.start());
+        occupancy.rebuild(previous.workspaceId(), previous.start(), previous.end(), timeline.tree);
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
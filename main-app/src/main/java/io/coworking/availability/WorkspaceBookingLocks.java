@@ -0,0 +1,105 @@
+package io.coworking.availability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые (striped) блокировки бронирования рабочих мест.
+ * <p>
+ * Рабочее место отображается на одну из фиксированного числа блокировок по своему ID,
+ * поэтому бронирования одного рабочего места выполняются последовательно
+ * (проверка доступности и вставка не разделяются), а бронирования разных мест идут параллельно.
+ * Ожидание на занятой блокировке учитывается в метриках
+ * {@code coworking.booking.lock.contended} и {@code coworking.booking.lock.wait}.
+ */
+@Component
+public class WorkspaceBookingLocks {
+    static final int DEFAULT_STRIPES = 256;
+
+    private final ReentrantLock[] stripes;
+    private final Counter contendedCounter;
+    private final Timer waitTimer;
+
+    /**
+     * Конструктор с внедрением зависимости MeterRegistry.
+     *
+     * @param meterRegistry реестр метрик
+     */
+    @Autowired
+    public WorkspaceBookingLocks(MeterRegistry meterRegistry) {
+        this(meterRegistry, DEFAULT_STRIPES);
+    }
+
+    WorkspaceBookingLocks(MeterRegistry meterRegistry, int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.contendedCounter = Counter.builder("coworking.booking.lock.contended")
+                .description("Number of booking lock acquisitions that had to wait")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("coworking.booking.lock.wait")
+                .description("Time spent waiting for a contended booking lock")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняем действие под блокировкой рабочего места.
+     *
+     * @param workspaceId the workspace ID
+     * @param action the action to run
+     */
+    public void withLock(int workspaceId, Runnable action) {
+        ReentrantLock lock = stripes[stripeOf(workspaceId)];
+        acquire(lock);
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Выполняем действие под блокировками нескольких рабочих мест.
+     * Блокировки берутся в порядке возрастания номера полосы, что исключает взаимоблокировки.
+     *
+     * @param workspaceIds the workspace IDs
+     * @param action the action to run
+     */
+    public void withLocks(Collection<Integer> workspaceIds, Runnable action) {
+        int[] stripeIndexes = workspaceIds.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        int acquired = 0;
+        try {
+            for (int stripeIndex : stripeIndexes) {
+                acquire(stripes[stripeIndex]);
+                acquired++;
+            }
+            action.run();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[stripeIndexes[i]].unlock();
+            }
+        }
+    }
+
+    private void acquire(ReentrantLock lock) {
+        if (lock.tryLock()) {
+            return;
+        }
+        contendedCounter.increment();
+        long startedAt = System.nanoTime();
+        lock.lock();
+        waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private int stripeOf(int workspaceId) {
+        return Math.floorMod(Integer.hashCode(workspaceId) * 0x9E3779B9, stripes.length);
+    }
+}
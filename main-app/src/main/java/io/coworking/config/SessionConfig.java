@@ -0,0 +1,24 @@
+package io.coworking.config;
+
+import io.coworking.security.SessionTokenFilter;
+import io.coworking.security.SessionTokens;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Регистрация фильтра токенов сессии.
+ */
+@Configuration
+public class SessionConfig {
+
+    @Bean
+    public FilterRegistrationBean<SessionTokenFilter> sessionTokenFilter(SessionTokens sessionTokens,
+                                                                         @Value("${coworking.session.required:false}") boolean required) {
+        FilterRegistrationBean<SessionTokenFilter> registration =
+                new FilterRegistrationBean<>(new SessionTokenFilter(sessionTokens, required));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,66 @@
+package io.coworking.controllers;
+
+import io.coworking.dto.LoginRequestDTO;
+import io.coworking.managers.UserAuthenticationManager;
+import io.coworking.security.PasswordHashingRejectedException;
+import io.coworking.security.SessionToken;
+import io.coworking.security.SessionTokenFilter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+/**
+ * Rest-контроллер для входа и выхода пользователей.
+ */
+@RestController
+@RequestMapping("/auth")
+@Tag(name = "Authentication", description = "API for issuing and revoking session tokens")
+public class AuthController {
+
+    private final UserAuthenticationManager userAuthenticationManager;
+
+    @Autowired
+    public AuthController(UserAuthenticationManager userAuthenticationManager) {
+        this.userAuthenticationManager = userAuthenticationManager;
+    }
+
+    /**
+     * Проверяем имя пользователя и пароль и выдаем токен сессии.
+     *
+     * @param request the credentials
+     * @return the session token
+     */
+    @PostMapping("/login")
+    @Operation(summary = "Log in", description = "Check credentials and issue a signed session token")
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDTO request) {
+        try {
+            Optional<SessionToken> token = userAuthenticationManager.createSession(request.getName(), request.getPassword());
+            return token.<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid username or password"));
+        } catch (PasswordHashingRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Отзываем токен сессии из заголовка {@code Authorization}.
+     *
+     * @param authorization the Authorization header
+     * @return the HTTP-status
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Log out", description = "Revoke the session token from the Authorization header")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        boolean revoked = SessionTokenFilter.bearerToken(authorization)
+                .map(userAuthenticationManager::logout)
+                .orElse(false);
+        return ResponseEntity.status(revoked ? HttpStatus.NO_CONTENT : HttpStatus.UNAUTHORIZED).build();
+    }
+}
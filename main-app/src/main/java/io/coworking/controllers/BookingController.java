@@ -1,5 +1,12 @@
 package io.coworking.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.coworking.dao.BookingConflictException;
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.filter.BookingFilter;
+import io.coworking.dto.BookingBatchRequestDTO;
+import io.coworking.dto.BookingBatchResultDTO;
 import io.coworking.dto.BookingDTO;
 import io.coworking.managers.WorkspaceManager;
 import io.coworking.mapper.BookingMapper;
@@ -7,11 +14,18 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.coworking.entities.Booking;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,23 +34,87 @@ import java.util.Optional;
 @Tag(name = "Booking Controller Management", description = "APIs for managing bookings")
 public class BookingController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final String CSV_HEADER = "id,workspace_id,booked_by,booking_time,duration_hours";
+
     private final WorkspaceManager workspaceManager;
+    private final ObjectWriter bookingWriter;
 
     @Autowired
-    public BookingController(WorkspaceManager workspaceManager) {
+    public BookingController(WorkspaceManager workspaceManager, ObjectMapper objectMapper) {
         this.workspaceManager = workspaceManager;
+        this.bookingWriter = objectMapper.writerFor(BookingDTO.class);
     }
 
     /**
-     * Получаем список всех бронирований.
+     * Получаем страницу бронирований, упорядоченных по ID.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor.
+     *
+     * @param after the last booking ID of the previous page
+     * @param limit the page size
+     * @param workspaceId the workspace ID filter
+     * @param bookedBy the user's name filter
+     * @param from the booking time lower bound (inclusive)
+     * @param to the booking time upper bound (exclusive)
      * @return the booking list
      */
     @GetMapping
-    @Operation(summary = "Get all bookings", description = "Retrieve a list of all users")
-    public ResponseEntity<List<BookingDTO>> getAllBookings() {
-        List<Booking> bookings = workspaceManager.findAllBookings();
-        List<BookingDTO> bookingDTOS = BookingMapper.INSTANCE.toDTOList(bookings);
-        return ResponseEntity.ok(bookingDTOS);
+    @Operation(summary = "Get bookings", description = "Retrieve a page of bookings ordered by ID")
+    public ResponseEntity<List<BookingDTO>> getAllBookings(@RequestParam(required = false) Integer after,
+                                                           @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit,
+                                                           @RequestParam(required = false) Integer workspaceId,
+                                                           @RequestParam(required = false) String bookedBy,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        BookingFilter filter = new BookingFilter();
+        filter.setWorkspaceId(workspaceId);
+        filter.setBookedBy(bookedBy);
+        filter.setFrom(from);
+        filter.setTo(to);
+        KeysetPage<Booking> page = workspaceManager.findBookings(filter, after, KeysetPagination.limit(limit));
+        return KeysetPagination.ok(page, BookingMapper.INSTANCE::toDTOList);
+    }
+
+    /**
+     * Выгружаем все бронирования потоком в формате NDJSON или CSV.
+     * Строки читаются серверным курсором и сразу пишутся в ответ, поэтому потребление памяти
+     * не зависит от размера таблицы.
+     *
+     * @param format the export format: ndjson or csv
+     * @return the streaming response
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export all bookings", description = "Stream all bookings as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            try {
+                workspaceManager.exportBookings(booking -> {
+                    try {
+                        writer.write(csv ? toCsvLine(booking) : bookingWriter.writeValueAsString(BookingMapper.INSTANCE.toDTO(booking)));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=bookings." + (csv ? "csv" : "ndjson"))
+                .body(body);
     }
 
     /**
@@ -69,6 +147,25 @@ public class BookingController {
         }
     }
 
+    /**
+     * Бронируем рабочие места пакетом. Пакет принимается целиком или отклоняется целиком.
+     *
+     * @param batchRequest the bookings to create
+     * @return the created booking IDs in request order, or the positions of conflicting bookings
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Create bookings in bulk", description = "Add up to 1000 bookings atomically")
+    public ResponseEntity<BookingBatchResultDTO> createBookings(@Valid @RequestBody BookingBatchRequestDTO batchRequest) {
+        List<Booking> bookings = BookingMapper.INSTANCE.toEntitiesList(batchRequest.getBookings());
+        try {
+            workspaceManager.bookWorkspaces(bookings);
+            List<Integer> ids = bookings.stream().map(Booking::getId).toList();
+            return ResponseEntity.status(HttpStatus.CREATED).body(new BookingBatchResultDTO(ids, List.of(), null));
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new BookingBatchResultDTO(List.of(), e.getConflictingPositions(), e.getMessage()));
+        }
+    }
+
     /**
      * Обновляем информацию о бронировании
      * @param id the booking ID
@@ -83,6 +180,8 @@ public class BookingController {
             booking.setId(id);
             workspaceManager.updateBooking(booking);
             return ResponseEntity.ok().build();
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -104,4 +203,16 @@ public class BookingController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
+
+    private static String toCsvLine(Booking booking) {
+        return booking.getId() + "," + booking.getWorkspaceId() + "," + escapeCsv(booking.getBookedBy()) + ","
+                + booking.getBookingTime() + "," + booking.getBookingDurationHours();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
 }
@@ -0,0 +1,90 @@
+package io.coworking.controllers;
+
+import io.coworking.dao.AggregateVersion;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Условные GET-запросы по версиям агрегатов.
+ * <p>
+ * ETag строится из имени агрегата, версий его таблиц и кодировки ответа (JSON, CBOR или Smile).
+ * Кодировки одного URL различаются заголовком {@code Accept}, поэтому ответ несет {@code Vary: Accept}, и кэш не отдаст CBOR клиенту JSON.
+ * Версия читается до загрузки данных: если данные изменятся между этими запросами, клиент получит
+ * новые данные со старым ETag и при следующем опросе — полный ответ, но никогда не получит 304
+ * для устаревшего представления. {@code Last-Modified} не выставляется: время в HTTP округляется
+ * до секунды, и второе изменение в ту же секунду дало бы клиенту с {@code If-Modified-Since} устаревший 304.
+ */
+final class ConditionalGet {
+    // Кодировки в порядке конвертеров Spring MVC: при равном предпочтении клиента выбирается JSON.
+    private static final Map<MediaType, String> REPRESENTATIONS = new LinkedHashMap<>();
+
+    static {
+        REPRESENTATIONS.put(MediaType.APPLICATION_JSON, "json");
+        REPRESENTATIONS.put(MediaType.valueOf("application/x-jackson-smile"), "smile");
+        REPRESENTATIONS.put(MediaType.APPLICATION_CBOR, "cbor");
+    }
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Проверяем заголовок {@code If-None-Match} и выставляем {@code ETag} и {@code Vary} ответа.
+     * Если представление не изменилось, ответ 304 уже сформирован и обработчик должен вернуть null,
+     * не загружая данные.
+     *
+     * @param request the current request
+     * @param aggregate the aggregate name, distinguishes ETags of different endpoints
+     * @param version the current aggregate version
+     * @return true if the client's copy is up to date, false otherwise
+     */
+    static boolean notModified(WebRequest request, String aggregate, AggregateVersion version) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        String etag = "\"" + aggregate + "-" + version.tag() + "-" + representation(request.getHeader(HttpHeaders.ACCEPT)) + "\"";
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * Определяем кодировку ответа по заголовку {@code Accept} так же, как это сделает Spring MVC.
+     * Неразборчивый или несовместимый заголовок дает JSON: такой запрос все равно получит JSON или 406.
+     *
+     * @param accept the Accept header value, or null
+     * @return the short name of the negotiated representation
+     */
+    static String representation(String accept) {
+        if (accept == null) {
+            return "json";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptedType : accepted) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (Map.Entry<MediaType, String> representation : REPRESENTATIONS.entrySet()) {
+                if (acceptedType.isCompatibleWith(representation.getKey())) {
+                    return representation.getValue();
+                }
+            }
+        }
+        return "json";
+    }
+}
@@ -1,21 +1,26 @@
 package io.coworking.controllers;
 
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.filter.ConferenceRoomFilter;
+import io.coworking.dao.projection.ConferenceRoomSummary;
 import io.coworking.dto.ConferenceRoomDTO;
-import io.coworking.managers.WorkspaceManager;
 import io.coworking.mapper.ConferenceRoomMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import io.coworking.entities.ConferenceRoom;
-import io.coworking.entities.Workspace;
 import io.coworking.managers.ConferenceRoomManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/conference_rooms")
@@ -23,55 +28,129 @@ import java.util.Optional;
 public class ConferenceRoomController {
 
     private final ConferenceRoomManager conferenceRoomManager;
-    private final WorkspaceManager workspaceManager;
 
     @Autowired
-    public ConferenceRoomController(ConferenceRoomManager conferenceRoomManager, WorkspaceManager workspaceManager) {
+    public ConferenceRoomController(ConferenceRoomManager conferenceRoomManager) {
         this.conferenceRoomManager = conferenceRoomManager;
-        this.workspaceManager = workspaceManager;
     }
 
     /**
-     * Получаем список конференц-залов.
+     * Получаем страницу конференц-залов вместе с рабочими местами, упорядоченных по ID.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor.
      *
+     * @param after the last conference room ID of the previous page
+     * @param limit the page size
+     * @param name the conference room name filter
+     * @param minCapacity the minimum capacity filter
+     * @param bookingsLimit the maximum number of latest bookings per workspace
+     * @param request the request with conditional headers
      * @return the conference rooms list
      */
     @GetMapping
-    @Operation(summary = "Get all conference rooms", description = "Retrieve a list of all conference rooms")
-    public ResponseEntity<List<ConferenceRoomDTO>> getAllConferenceRooms() {
-        List<ConferenceRoom> conferenceRoomList = conferenceRoomManager.findAllConferenceRooms();
-        for (ConferenceRoom conferenceRoom : conferenceRoomList) {
-            List<Workspace> workspaces = conferenceRoomManager.findWorkspacesByConferenceRoomId(conferenceRoom.getId());
-            for (Workspace workspace : workspaces) {
-                workspace.setBookings(workspaceManager.findBookingsByWorkspaceId(workspace.getId()));
-            }
-            conferenceRoom.setWorkspaces(workspaces);
+    @Operation(summary = "Get conference rooms", description = "Retrieve a page of conference rooms ordered by ID with at most bookingsLimit (default 20) latest bookings per workspace; bookingsTruncated marks shortened lists, use /bookings?workspaceId= for the full list")
+    public ResponseEntity<List<ConferenceRoomDTO>> getAllConferenceRooms(@RequestParam(required = false) Integer after,
+                                                                         @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit,
+                                                                         @RequestParam(required = false) String name,
+                                                                         @RequestParam(required = false) Integer minCapacity,
+                                                                         @RequestParam(defaultValue = KeysetPagination.DEFAULT_BOOKINGS_LIMIT) int bookingsLimit,
+                                                                         WebRequest request) {
+        if (ConditionalGet.notModified(request, "conference-rooms", conferenceRoomManager.getConferenceRoomGraphVersion())) {
+            // Ответ 304 уже сформирован, граф не загружается.
+            return null;
         }
-        List<ConferenceRoomDTO> conferenceRoomDTOList = ConferenceRoomMapper.INSTANCE.toDTOList(conferenceRoomList);
-        return ResponseEntity.ok(conferenceRoomDTOList);
+        ConferenceRoomFilter filter = new ConferenceRoomFilter();
+        filter.setName(name);
+        filter.setMinCapacity(minCapacity);
+        KeysetPage<ConferenceRoom> page = conferenceRoomManager.findConferenceRoomsWithWorkspaces(filter, after, KeysetPagination.limit(limit),
+                KeysetPagination.bookingsLimit(bookingsLimit));
+        return KeysetPagination.ok(page, ConferenceRoomMapper.INSTANCE::toDTOList);
+    }
+
+    /**
+     * Получаем страницу конференц-залов в облегченном виде (без рабочих мест).
+     *
+     * @param after the last conference room ID of the previous page
+     * @param limit the page size
+     * @param name the conference room name filter
+     * @param minCapacity the minimum capacity filter
+     * @return the conference room summaries list
+     */
+    @GetMapping("/summary")
+    @Operation(summary = "Get conference room summaries", description = "Retrieve a page of conference rooms without workspaces")
+    public ResponseEntity<List<ConferenceRoomSummary>> getConferenceRoomSummaries(@RequestParam(required = false) Integer after,
+                                                                                  @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit,
+                                                                                  @RequestParam(required = false) String name,
+                                                                                  @RequestParam(required = false) Integer minCapacity) {
+        ConferenceRoomFilter filter = new ConferenceRoomFilter();
+        filter.setName(name);
+        filter.setMinCapacity(minCapacity);
+        KeysetPage<ConferenceRoomSummary> page = conferenceRoomManager.findConferenceRoomSummaries(filter, after, KeysetPagination.limit(limit));
+        return KeysetPagination.ok(page, Function.identity());
     }
 
     /**
      * Получаем конференц-зал по ID.
      *
      * @param id the conference room ID
+     * @param bookingsLimit the maximum number of latest bookings per workspace
      * @return the conference room by id
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Get conference room by ID", description = "Retrieve conference room by ID")
-    public ResponseEntity<ConferenceRoomDTO> getConferenceRoomById(@PathVariable int id) {
-        Optional<ConferenceRoom> conferenceRoom = conferenceRoomManager.findConferenceRoomById(id);
-        conferenceRoom.ifPresent(room -> {
-            List<Workspace> workspaces = conferenceRoomManager.findWorkspacesByConferenceRoomId(room.getId());
-            for (Workspace workspace : workspaces) {
-                workspace.setBookings(workspaceManager.findBookingsByWorkspaceId(workspace.getId()));
-            }
-            room.setWorkspaces(workspaces);
-        });
+    @Operation(summary = "Get conference room by ID", description = "Retrieve conference room by ID with at most bookingsLimit (default 20) latest bookings per workspace")
+    public ResponseEntity<ConferenceRoomDTO> getConferenceRoomById(@PathVariable int id,
+                                                                   @RequestParam(defaultValue = KeysetPagination.DEFAULT_BOOKINGS_LIMIT) int bookingsLimit) {
+        Optional<ConferenceRoom> conferenceRoom = conferenceRoomManager.findConferenceRoomWithWorkspacesById(id, KeysetPagination.bookingsLimit(bookingsLimit));
         return conferenceRoom.map(room -> ResponseEntity.ok(ConferenceRoomMapper.INSTANCE.toDTO(room)))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
+    /**
+     * Проверяем, свободен ли конференц-зал на интервал.
+     *
+     * @param id the conference room ID
+     * @param start the interval start time
+     * @param durationHours the interval duration in hours
+     * @return true if the conference room is available for the whole interval, 404 if the conference room does not exist
+     */
+    @GetMapping("/{id}/availability")
+    @Operation(summary = "Check conference room availability", description = "Check that no workspace of the room is booked in the interval")
+    public ResponseEntity<Boolean> isConferenceRoomAvailable(@PathVariable int id,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                             @RequestParam(defaultValue = "1") int durationHours) {
+        if (durationHours <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            return ResponseEntity.ok(conferenceRoomManager.isConferenceRoomAvailable(id, start, durationHours));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Находим среди указанных конференц-залов свободные на интервал.
+     * Как и для одного зала, несуществующий конференц-зал дает 404.
+     *
+     * @param ids the conference room IDs to check
+     * @param start the interval start time
+     * @param durationHours the interval duration in hours
+     * @return the IDs of available conference rooms in ascending order, or 404 listing unknown IDs
+     */
+    @GetMapping("/availability")
+    @Operation(summary = "Check availability of many conference rooms", description = "Return the IDs of rooms free in the interval, up to 1000 rooms per call, or 404 if any room does not exist")
+    public ResponseEntity<?> findAvailableConferenceRooms(@RequestParam List<Integer> ids,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                          @RequestParam(defaultValue = "1") int durationHours) {
+        if (durationHours <= 0 || ids.size() > KeysetPagination.MAX_LIMIT) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            return ResponseEntity.ok(conferenceRoomManager.findAvailableConferenceRoomIds(ids, start, durationHours));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
     /**
      * Создаем новый конференц-зал.
      *
@@ -0,0 +1,58 @@
+package io.coworking.controllers;
+
+import io.coworking.dao.KeysetPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Общие параметры keyset-пагинации для списочных эндпоинтов.
+ * Курсор следующей страницы возвращается в заголовке {@value #NEXT_CURSOR_HEADER}
+ * и передается обратно в параметре {@code after}.
+ */
+final class KeysetPagination {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String DEFAULT_LIMIT = "100";
+    static final int MAX_LIMIT = 1000;
+    static final String DEFAULT_BOOKINGS_LIMIT = "20";
+    static final int MAX_BOOKINGS_LIMIT = 1000;
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Ограничиваем запрошенный размер страницы диапазоном [1, MAX_LIMIT].
+     *
+     * @param limit the requested page size
+     * @return the effective page size
+     */
+    static int limit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Ограничиваем число вложенных бронирований одного рабочего места диапазоном [0, MAX_BOOKINGS_LIMIT].
+     *
+     * @param bookingsLimit the requested number of latest bookings per workspace
+     * @return the effective number of latest bookings per workspace
+     */
+    static int bookingsLimit(int bookingsLimit) {
+        return Math.max(0, Math.min(bookingsLimit, MAX_BOOKINGS_LIMIT));
+    }
+
+    /**
+     * Формируем ответ со страницей DTO и курсором следующей страницы.
+     *
+     * @param page the page of entities
+     * @param mapper the entity list to DTO list mapper
+     * @return the response entity
+     */
+    static <E, D> ResponseEntity<List<D>> ok(KeysetPage<E> page, Function<List<E>, List<D>> mapper) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(mapper.apply(page.getItems()));
+    }
+}
@@ -1,9 +1,16 @@
 package io.coworking.controllers;
 
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.UserInsertResult;
+import io.coworking.dao.filter.UserFilter;
+import io.coworking.dao.projection.UserSummary;
 import io.coworking.dto.UserDTO;
+import io.coworking.dto.UserImportRequestDTO;
+import io.coworking.dto.UserImportResultDTO;
 import io.coworking.entities.User;
 import io.coworking.managers.UserRegistrationManager;
 import io.coworking.mapper.UserMapper;
+import io.coworking.security.PasswordHashingRejectedException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -12,8 +19,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Rest-контроллер для управления пользователями.
@@ -31,15 +40,48 @@ public class UserController {
     }
 
     /**
-     * Получаем список всех пользователей.
+     * Получаем страницу пользователей, упорядоченных по ID.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor.
      *
+     * @param after the last user ID of the previous page
+     * @param limit the page size
+     * @param name the username filter
+     * @param email the email filter
      * @return the users list
      */
     @GetMapping
-    @Operation(summary = "Get all users", description = "Retrieve a list of all users")
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<User> users = userRegistrationManager.getAllUsers();
-        return ResponseEntity.ok(UserMapper.INSTANCE.toDTOList(users));
+    @Operation(summary = "Get users", description = "Retrieve a page of users ordered by ID")
+    public ResponseEntity<List<UserDTO>> getAllUsers(@RequestParam(required = false) Integer after,
+                                                     @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit,
+                                                     @RequestParam(required = false) String name,
+                                                     @RequestParam(required = false) String email) {
+        UserFilter filter = new UserFilter();
+        filter.setName(name);
+        filter.setEmail(email);
+        KeysetPage<User> page = userRegistrationManager.getUsers(filter, after, KeysetPagination.limit(limit));
+        return KeysetPagination.ok(page, UserMapper.INSTANCE::toDTOList);
+    }
+
+    /**
+     * Получаем страницу пользователей в облегченном виде (без пароля).
+     *
+     * @param after the last user ID of the previous page
+     * @param limit the page size
+     * @param name the username filter
+     * @param email the email filter
+     * @return the user summaries list
+     */
+    @GetMapping("/summary")
+    @Operation(summary = "Get user summaries", description = "Retrieve a page of users with ID, name and email only")
+    public ResponseEntity<List<UserSummary>> getUserSummaries(@RequestParam(required = false) Integer after,
+                                                              @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit,
+                                                              @RequestParam(required = false) String name,
+                                                              @RequestParam(required = false) String email) {
+        UserFilter filter = new UserFilter();
+        filter.setName(name);
+        filter.setEmail(email);
+        KeysetPage<UserSummary> page = userRegistrationManager.getUserSummaries(filter, after, KeysetPagination.limit(limit));
+        return KeysetPagination.ok(page, Function.identity());
     }
 
     /**
@@ -71,6 +113,40 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.CREATED).build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (PasswordHashingRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Импортируем пользователей пакетами. Пользователи с занятыми именем или email пропускаются,
+     * их позиции возвращаются в ответе.
+     *
+     * @param importRequest the users to import
+     * @return the created user IDs in request order and the positions of skipped users
+     */
+    @PostMapping("/import")
+    @Operation(summary = "Import users in bulk", description = "Add up to 10000 users, skipping taken names and emails")
+    public ResponseEntity<?> importUsers(@Valid @RequestBody UserImportRequestDTO importRequest) {
+        try {
+            List<User> users = UserMapper.INSTANCE.toEntitiesList(importRequest.getUsers());
+            List<UserInsertResult> results = userRegistrationManager.registerUsers(users);
+            List<Integer> ids = new ArrayList<>(results.size());
+            List<Integer> nameConflicts = new ArrayList<>();
+            List<Integer> emailConflicts = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                UserInsertResult result = results.get(i);
+                ids.add(result.id());
+                if (result.nameTaken()) {
+                    nameConflicts.add(i);
+                }
+                if (result.emailTaken()) {
+                    emailConflicts.add(i);
+                }
+            }
+            return ResponseEntity.ok(new UserImportResultDTO(ids, nameConflicts, emailConflicts));
+        } catch (PasswordHashingRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         }
     }
 
@@ -91,6 +167,8 @@ public class UserController {
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (PasswordHashingRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         }
     }
 
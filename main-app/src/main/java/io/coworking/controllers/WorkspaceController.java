@@ -1,5 +1,9 @@
 package io.coworking.controllers;
 
+import io.coworking.availability.FreeSlotSearch;
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.filter.WorkspaceFilter;
+import io.coworking.dao.projection.WorkspaceSummary;
 import io.coworking.dto.WorkspaceDTO;
 import io.coworking.managers.WorkspaceManager;
 import io.coworking.mapper.WorkspaceMapper;
@@ -7,13 +11,17 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import io.coworking.entities.Workspace;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/workspaces")
@@ -28,19 +36,93 @@ public class WorkspaceController {
     }
 
     /**
-     * Получаем все рабочие места.
+     * Получаем страницу рабочих мест вместе с бронированиями, упорядоченных по ID.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor.
      *
+     * @param after the last workspace ID of the previous page
+     * @param limit the page size
+     * @param conferenceRoomId the conference room ID filter
+     * @param name the workspace name filter
+     * @param bookingsLimit the maximum number of latest bookings per workspace
+     * @param request the request with conditional headers
      * @return the workspace list
      */
     @GetMapping
-    @Operation(summary = "Get all workspaces", description = "Retrieve a list of all workspaces")
-    public ResponseEntity<List<WorkspaceDTO>> getAllWorkspaces() {
-        List<Workspace> workspaces = workspaceManager.findAllWorkspaces();
-        for (Workspace workspace : workspaces) {
-            workspace.setBookings(workspaceManager.findBookingsByWorkspaceId(workspace.getId()));
+    @Operation(summary = "Get workspaces", description = "Retrieve a page of workspaces ordered by ID with at most bookingsLimit (default 20) latest bookings each; bookingsTruncated marks shortened lists, use /bookings?workspaceId= for the full list")
+    public ResponseEntity<List<WorkspaceDTO>> getAllWorkspaces(@RequestParam(required = false) Integer after,
+                                                               @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit,
+                                                               @RequestParam(required = false) Integer conferenceRoomId,
+                                                               @RequestParam(required = false) String name,
+                                                               @RequestParam(defaultValue = KeysetPagination.DEFAULT_BOOKINGS_LIMIT) int bookingsLimit,
+                                                               WebRequest request) {
+        if (ConditionalGet.notModified(request, "workspaces", workspaceManager.getWorkspaceGraphVersion())) {
+            // Ответ 304 уже сформирован, граф не загружается.
+            return null;
+        }
+        WorkspaceFilter filter = new WorkspaceFilter();
+        filter.setConferenceRoomId(conferenceRoomId);
+        filter.setName(name);
+        KeysetPage<Workspace> page = workspaceManager.findWorkspacesWithBookings(filter, after, KeysetPagination.limit(limit),
+                KeysetPagination.bookingsLimit(bookingsLimit));
+        return KeysetPagination.ok(page, WorkspaceMapper.INSTANCE::toDTOList);
+    }
+
+    /**
+     * Получаем страницу рабочих мест в облегченном виде (без бронирований).
+     *
+     * @param after the last workspace ID of the previous page
+     * @param limit the page size
+     * @param conferenceRoomId the conference room ID filter
+     * @param name the workspace name filter
+     * @return the workspace summaries list
+     */
+    @GetMapping("/summary")
+    @Operation(summary = "Get workspace summaries", description = "Retrieve a page of workspaces without bookings")
+    public ResponseEntity<List<WorkspaceSummary>> getWorkspaceSummaries(@RequestParam(required = false) Integer after,
+                                                                        @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit,
+                                                                        @RequestParam(required = false) Integer conferenceRoomId,
+                                                                        @RequestParam(required = false) String name) {
+        WorkspaceFilter filter = new WorkspaceFilter();
+        filter.setConferenceRoomId(conferenceRoomId);
+        filter.setName(name);
+        KeysetPage<WorkspaceSummary> page = workspaceManager.findWorkspaceSummaries(filter, after, KeysetPagination.limit(limit));
+        return KeysetPagination.ok(page, Function.identity());
+    }
+
+    /**
+     * Ищем самые ранние свободные слоты по всем рабочим местам или в одном конференц-зале.
+     * Слот включает {@code seats} рабочих мест одного конференц-зала, свободных на весь интервал.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor.
+     *
+     * @param from the earliest slot start
+     * @param to the latest slot end
+     * @param durationHours the slot duration in hours
+     * @param conferenceRoomId the conference room ID filter
+     * @param seats the number of workspaces needed
+     * @param after the cursor of the previous page
+     * @param limit the page size
+     * @return the free slots ordered by start time and conference room ID
+     */
+    @GetMapping("/free-slots")
+    @Operation(summary = "Find free slots", description = "Retrieve the earliest free slots across all workspaces")
+    public ResponseEntity<?> findFreeSlots(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                           @RequestParam(defaultValue = "1") int durationHours,
+                                           @RequestParam(required = false) Integer conferenceRoomId,
+                                           @RequestParam(defaultValue = "1") int seats,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit) {
+        try {
+            FreeSlotSearch.Query query = new FreeSlotSearch.Query(from, to, durationHours, conferenceRoomId, seats);
+            FreeSlotSearch.Page page = workspaceManager.findFreeSlots(query, after, KeysetPagination.limit(limit));
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(KeysetPagination.NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
-        List<WorkspaceDTO> workspaceDTOS = WorkspaceMapper.INSTANCE.toDTOList(workspaces);
-        return ResponseEntity.ok(workspaceDTOS);
     }
 
     /**
@@ -0,0 +1,13 @@
+package io.coworking.dao;
+
+import java.time.Instant;
+
+/**
+ * Версия агрегата, составленного из нескольких таблиц.
+ *
+ * @param tag the versions of the tables joined with dots, changes whenever any of the tables changes
+ * @param lastModified the time of the latest change of any of the tables, for diagnostics only:
+ *                     it is not sent as Last-Modified, see ConditionalGet
+ */
+public record AggregateVersion(String tag, Instant lastModified) {
+}
@@ -0,0 +1,17 @@
+package io.coworking.dao;
+
+import java.util.List;
+
+/**
+ * Интерфейс для чтения счетчиков изменений таблиц, поддерживаемых триггерами.
+ */
+public interface AggregateVersionDAO {
+
+    /**
+     * Находим версию агрегата из указанных таблиц одним запросом.
+     *
+     * @param tables the table names without schema
+     * @return the combined version of the tables
+     */
+    AggregateVersion findVersion(List<String> tables);
+}
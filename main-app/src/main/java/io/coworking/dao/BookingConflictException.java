@@ -0,0 +1,23 @@
+package io.coworking.dao;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Исключение при попытке забронировать рабочее место на уже занятое время.
+ * Для пакетного бронирования содержит позиции конфликтующих элементов.
+ */
+@Getter
+public class BookingConflictException extends IllegalArgumentException {
+    private final List<Integer> conflictingPositions;
+
+    public BookingConflictException(String message) {
+        this(message, List.of());
+    }
+
+    public BookingConflictException(String message, List<Integer> conflictingPositions) {
+        super(message);
+        this.conflictingPositions = conflictingPositions;
+    }
+}
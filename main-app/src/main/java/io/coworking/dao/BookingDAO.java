@@ -1,10 +1,12 @@
 package io.coworking.dao;
 
+import io.coworking.dao.filter.BookingFilter;
 import io.coworking.entities.Booking;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс для дальнейшей имплементации Booking Data Access Object
@@ -15,9 +17,26 @@ public interface BookingDAO {
      * Добавляем бронирование.
      *
      * @param booking the booking
+     * @throws BookingConflictException if the booking overlaps an existing booking of the workspace
      */
     void addBooking(Booking booking);
 
+    /**
+     * Добавляем бронирования одним пакетом (JDBC batch) и проставляем им сгенерированные ID.
+     *
+     * @param bookings the bookings to add
+     * @throws BookingConflictException if any booking overlaps an existing booking of the workspace
+     */
+    void addBookings(List<Booking> bookings);
+
+    /**
+     * Находим позиции бронирований из списка, пересекающихся с уже существующими, одним запросом.
+     *
+     * @param bookings the bookings to check
+     * @return the zero-based positions of conflicting bookings, in ascending order
+     */
+    List<Integer> findConflictingPositions(List<Booking> bookings);
+
     /**
      * Находим бронирование по ID
      *
@@ -33,10 +52,29 @@ public interface BookingDAO {
      */
     List<Booking> findAllBookings();
 
+    /**
+     * Находим страницу бронирований, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param filter the booking filter
+     * @param after the last booking ID of the previous page, or null for the first page
+     * @param limit the maximum number of bookings on the page
+     * @return the page of bookings with the next cursor
+     */
+    KeysetPage<Booking> findBookings(BookingFilter filter, Integer after, int limit);
+
+    /**
+     * Последовательно передаем все бронирования, упорядоченные по ID, в обработчик,
+     * читая их серверным курсором без загрузки всей таблицы в память.
+     *
+     * @param consumer the consumer receiving each booking
+     */
+    void streamAllBookings(Consumer<Booking> consumer);
+
     /**
      * Обновляем бронирование.
      *
      * @param booking the booking to update
+     * @throws BookingConflictException if the new interval overlaps another booking of the workspace
      */
     void updateBooking(Booking booking);
 
@@ -86,4 +124,14 @@ public interface BookingDAO {
      * @return true if the booking is available, false otherwise
      */
     boolean isBookingAvailable(int workspaceId, LocalDateTime bookingTime);
+
+    /**
+     * Проверяем доступность бронирования на интервал с учетом его длительности.
+     *
+     * @param workspaceId the workspace ID
+     * @param bookingTime the booking start time
+     * @param durationHours the booking duration in hours
+     * @return true if no existing booking overlaps the interval, false otherwise
+     */
+    boolean isBookingAvailable(int workspaceId, LocalDateTime bookingTime, int durationHours);
 }
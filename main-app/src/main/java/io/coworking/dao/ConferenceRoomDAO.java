@@ -1,5 +1,7 @@
 package io.coworking.dao;
 
+import io.coworking.dao.projection.ConferenceRoomSummary;
+import io.coworking.dao.filter.ConferenceRoomFilter;
 import io.coworking.entities.Booking;
 import io.coworking.entities.ConferenceRoom;
 import io.coworking.entities.Workspace;
@@ -34,6 +36,26 @@ public interface ConferenceRoomDAO {
      */
     List<ConferenceRoom> findAllConferenceRooms();
 
+    /**
+     * Находим страницу конференц-залов, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param filter the conference room filter
+     * @param after the last conference room ID of the previous page, or null for the first page
+     * @param limit the maximum number of conference rooms on the page
+     * @return the page of conference rooms with the next cursor
+     */
+    KeysetPage<ConferenceRoom> findConferenceRooms(ConferenceRoomFilter filter, Integer after, int limit);
+
+    /**
+     * Находим страницу облегченных проекций конференц-залов без загрузки связанных данных.
+     *
+     * @param filter the conference room filter
+     * @param after the last conference room ID of the previous page, or null for the first page
+     * @param limit the maximum number of conference rooms on the page
+     * @return the page of conference room summaries with the next cursor
+     */
+    KeysetPage<ConferenceRoomSummary> findConferenceRoomSummaries(ConferenceRoomFilter filter, Integer after, int limit);
+
     /**
      * Обновляем информацию о конференц-зале.
      *
@@ -0,0 +1,33 @@
+package io.coworking.dao;
+
+import io.coworking.entities.ConferenceRoom;
+import io.coworking.entities.Workspace;
+
+import java.util.List;
+
+/**
+ * Интерфейс для загрузки графа конференц-зал → рабочие места → бронирования
+ * фиксированным числом запросов, независимо от количества залов и рабочих мест.
+ */
+public interface ConferenceRoomGraphDAO {
+
+    /**
+     * Загружаем рабочие места (вместе с их бронированиями) для всех переданных конференц-залов
+     * и заполняем списки {@code ConferenceRoom.workspaces}.
+     *
+     * @param conferenceRooms the conference rooms to fill
+     * @param bookingsLimit the maximum number of latest bookings per workspace
+     */
+    void loadWorkspaces(List<ConferenceRoom> conferenceRooms, int bookingsLimit);
+
+    /**
+     * Загружаем бронирования для всех переданных рабочих мест одним запросом
+     * и заполняем списки {@code Workspace.bookings}: не более {@code bookingsLimit} последних
+     * по времени начала бронирований каждого места в порядке времени начала. Если бронирований больше,
+     * у рабочего места выставляется {@code bookingsTruncated}.
+     *
+     * @param workspaces the workspaces to fill
+     * @param bookingsLimit the maximum number of latest bookings per workspace
+     */
+    void loadBookings(List<Workspace> workspaces, int bookingsLimit);
+}
@@ -0,0 +1,27 @@
+package io.coworking.dao;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Страница результатов keyset-пагинации по ID.
+ *
+ * @param <T> the item type
+ */
+@Getter
+public class KeysetPage<T> {
+    private final List<T> items;
+    private final Integer nextCursor;
+
+    /**
+     * Конструктор страницы.
+     *
+     * @param items the items of the page ordered by ID
+     * @param nextCursor the ID to pass as {@code after} for the next page, or null if this is the last page
+     */
+    public KeysetPage(List<T> items, Integer nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -1,5 +1,7 @@
 package io.coworking.dao;
 
+import io.coworking.dao.projection.UserSummary;
+import io.coworking.dao.filter.UserFilter;
 import io.coworking.entities.User;
 
 import java.util.List;
@@ -17,6 +19,24 @@ public interface UserDAO {
      */
     void addUser(User user);
 
+    /**
+     * Добавляем пользователя, если имя и email свободны, одним запросом без предварительных проверок.
+     * При успехе пользователю проставляется сгенерированный ID.
+     *
+     * @param user the user to insert
+     * @return the generated ID, or which of the unique keys collided
+     */
+    UserInsertResult insertUserIfAbsent(User user);
+
+    /**
+     * Добавляем пакет пользователей одним запросом, пропуская тех, чьи имя или email уже заняты
+     * (в том числе предыдущими пользователями этого же пакета). Добавленным пользователям проставляются ID.
+     *
+     * @param users the users to insert
+     * @return the results in the order of {@code users}
+     */
+    List<UserInsertResult> insertUsersIfAbsent(List<User> users);
+
     /**
      * Находим пользователя по его ID
      *
@@ -48,6 +68,26 @@ public interface UserDAO {
      */
     List<User> findAllUsers();
 
+    /**
+     * Находим страницу пользователей, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param filter the user filter
+     * @param after the last user ID of the previous page, or null for the first page
+     * @param limit the maximum number of users on the page
+     * @return the page of users with the next cursor
+     */
+    KeysetPage<User> findUsers(UserFilter filter, Integer after, int limit);
+
+    /**
+     * Находим страницу облегченных проекций пользователей без загрузки связанных данных.
+     *
+     * @param filter the user filter
+     * @param after the last user ID of the previous page, or null for the first page
+     * @param limit the maximum number of users on the page
+     * @return the page of user summaries with the next cursor
+     */
+    KeysetPage<UserSummary> findUserSummaries(UserFilter filter, Integer after, int limit);
+
     /**
      * Обновляем информацию о пользователе в базе данных.
      *
@@ -55,6 +95,14 @@ public interface UserDAO {
      */
     void updateUser(User user);
 
+    /**
+     * Заменяем сохраненный пароль пользователя.
+     *
+     * @param id the user ID
+     * @param password the encoded password
+     */
+    void updatePassword(int id, String password);
+
     /**
      * Удаляем пользователя по его идентификатору.
      *
@@ -0,0 +1,20 @@
+package io.coworking.dao;
+
+/**
+ * Результат вставки пользователя через {@code INSERT ... ON CONFLICT DO NOTHING}.
+ *
+ * @param id the generated user ID, null if the user was not inserted
+ * @param nameTaken whether the username is already used by another user
+ * @param emailTaken whether the email is already used by another user
+ */
+public record UserInsertResult(Integer id, boolean nameTaken, boolean emailTaken) {
+
+    /**
+     * Проверяем, был ли пользователь добавлен.
+     *
+     * @return true if the user was inserted, false if the name or email collided
+     */
+    public boolean inserted() {
+        return id != null;
+    }
+}
@@ -1,5 +1,7 @@
 package io.coworking.dao;
 
+import io.coworking.dao.projection.WorkspaceSummary;
+import io.coworking.dao.filter.WorkspaceFilter;
 import io.coworking.entities.Booking;
 import io.coworking.entities.Workspace;
 
@@ -42,6 +44,26 @@ public interface WorkspaceDAO {
      */
     List<Workspace> findAllWorkspaces();
 
+    /**
+     * Находим страницу рабочих мест, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param filter the workspace filter
+     * @param after the last workspace ID of the previous page, or null for the first page
+     * @param limit the maximum number of workspaces on the page
+     * @return the page of workspaces with the next cursor
+     */
+    KeysetPage<Workspace> findWorkspaces(WorkspaceFilter filter, Integer after, int limit);
+
+    /**
+     * Находим страницу облегченных проекций рабочих мест без загрузки связанных данных.
+     *
+     * @param filter the workspace filter
+     * @param after the last workspace ID of the previous page, or null for the first page
+     * @param limit the maximum number of workspaces on the page
+     * @return the page of workspace summaries with the next cursor
+     */
+    KeysetPage<WorkspaceSummary> findWorkspaceSummaries(WorkspaceFilter filter, Integer after, int limit);
+
     /**
      * Обновляем рабочее место
      *
@@ -86,6 +108,16 @@ public interface WorkspaceDAO {
      */
     boolean isWorkspaceAvailable(int workspaceId, LocalDateTime bookingTime);
 
+    /**
+     * Проверяем доступность рабочего места на интервал с учетом длительности бронирования.
+     *
+     * @param workspaceId the workspace ID
+     * @param bookingTime the booking start time
+     * @param durationHours the booking duration in hours
+     * @return true if no existing booking overlaps the interval, false otherwise
+     */
+    boolean isWorkspaceAvailable(int workspaceId, LocalDateTime bookingTime, int durationHours);
+
     /**
      * Находим рабочее место и его бронирования по идентификатору.
      *
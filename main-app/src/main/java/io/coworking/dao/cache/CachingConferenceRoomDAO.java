@@ -0,0 +1,143 @@
+package io.coworking.dao.cache;
+
+import io.coworking.dao.ConferenceRoomDAO;
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.filter.ConferenceRoomFilter;
+import io.coworking.dao.projection.ConferenceRoomSummary;
+import io.coworking.entities.Booking;
+import io.coworking.entities.ConferenceRoom;
+import io.coworking.entities.Workspace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Кэширующая обертка над DAO конференц-залов.
+ * Поиск по ID и список всех залов читаются через {@link EntityCache},
+ * любые изменения сбрасывают затронутые записи после успешной записи в базу данных.
+ * Остальные запросы передаются в базу данных без изменений.
+ */
+@Repository
+@Primary
+public class CachingConferenceRoomDAO implements ConferenceRoomDAO {
+    private final ConferenceRoomDAO delegate;
+    private final EntityCache entityCache;
+
+    /**
+     * Конструктор с внедрением DAO конференц-залов и кэша.
+     *
+     * @param delegate DAO, работающий с базой данных
+     * @param entityCache кэш сущностей
+     */
+    @Autowired
+    public CachingConferenceRoomDAO(@Qualifier("conferenceRoomDAOImpl") ConferenceRoomDAO delegate, EntityCache entityCache) {
+        this.delegate = delegate;
+        this.entityCache = entityCache;
+    }
+
+    /**
+     * Добавляем конференц-зал и сбрасываем список залов.
+     *
+     * @param conferenceRoom the conference room
+     */
+    @Override
+    public void addConferenceRoom(ConferenceRoom conferenceRoom) {
+        delegate.addConferenceRoom(conferenceRoom);
+        entityCache.invalidateConferenceRoom(conferenceRoom.getId());
+    }
+
+    /**
+     * Находим конференц-зал по ID через кэш.
+     *
+     * @param id the conference room ID
+     * @return Optional with a copy of the conference room
+     */
+    @Override
+    public Optional<ConferenceRoom> findConferenceRoomById(int id) {
+        return entityCache.getConferenceRoom(id, () -> delegate.findConferenceRoomById(id));
+    }
+
+    /**
+     * Возвращаем список всех конференц-залов через кэш.
+     *
+     * @return the list of conference room copies
+     */
+    @Override
+    public List<ConferenceRoom> findAllConferenceRooms() {
+        return entityCache.getAllConferenceRooms(delegate::findAllConferenceRooms);
+    }
+
+    @Override
+    public KeysetPage<ConferenceRoom> findConferenceRooms(ConferenceRoomFilter filter, Integer after, int limit) {
+        return delegate.findConferenceRooms(filter, after, limit);
+    }
+
+    @Override
+    public KeysetPage<ConferenceRoomSummary> findConferenceRoomSummaries(ConferenceRoomFilter filter, Integer after, int limit) {
+        return delegate.findConferenceRoomSummaries(filter, after, limit);
+    }
+
+    /**
+     * Обновляем конференц-зал и сбрасываем его запись в кэше.
+     *
+     * @param conferenceRoom the conference room to update
+     */
+    @Override
+    public void updateConferenceRoom(ConferenceRoom conferenceRoom) {
+        delegate.updateConferenceRoom(conferenceRoom);
+        entityCache.invalidateConferenceRoom(conferenceRoom.getId());
+    }
+
+    /**
+     * Удаляем конференц-зал и сбрасываем его запись в кэше.
+     *
+     * @param id the conference room id
+     */
+    @Override
+    public void deleteConferenceRoom(int id) {
+        delegate.deleteConferenceRoom(id);
+        entityCache.invalidateConferenceRoom(id);
+    }
+
+    /**
+     * Добавляем рабочее место в конференц-зал и сбрасываем кэш рабочих мест.
+     *
+     * @param conferenceRoomId the conference room ID
+     * @param workspace the workspace
+     */
+    @Override
+    public void addWorkspaceToConferenceRoom(int conferenceRoomId, Workspace workspace) {
+        delegate.addWorkspaceToConferenceRoom(conferenceRoomId, workspace);
+        entityCache.invalidateWorkspace(workspace.getId());
+    }
+
+    @Override
+    public List<Workspace> findWorkspacesByConferenceRoomId(int conferenceRoomId) {
+        return delegate.findWorkspacesByConferenceRoomId(conferenceRoomId);
+    }
+
+    @Override
+    public List<Booking> findBookingsByWorkspaceId(int workspaceId) {
+        return delegate.findBookingsByWorkspaceId(workspaceId);
+    }
+
+    @Override
+    public List<ConferenceRoom> findRoomsByDate(LocalDate date) {
+        return delegate.findRoomsByDate(date);
+    }
+
+    @Override
+    public List<ConferenceRoom> findRoomsByUser(String userName) {
+        return delegate.findRoomsByUser(userName);
+    }
+
+    @Override
+    public List<ConferenceRoom> findRoomsWithAvailableWorkspaces() {
+        return delegate.findRoomsWithAvailableWorkspaces();
+    }
+}
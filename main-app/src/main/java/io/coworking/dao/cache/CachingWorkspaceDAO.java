@@ -0,0 +1,145 @@
+package io.coworking.dao.cache;
+
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.WorkspaceDAO;
+import io.coworking.dao.filter.WorkspaceFilter;
+import io.coworking.dao.projection.WorkspaceSummary;
+import io.coworking.entities.Booking;
+import io.coworking.entities.Workspace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Кэширующая обертка над DAO рабочих мест.
+ * Поиск по ID и список всех рабочих мест читаются через {@link EntityCache},
+ * любые изменения сбрасывают затронутые записи после успешной записи в базу данных.
+ * Запросы, зависящие от бронирований, всегда выполняются без кэша.
+ */
+@Repository
+@Primary
+public class CachingWorkspaceDAO implements WorkspaceDAO {
+    private final WorkspaceDAO delegate;
+    private final EntityCache entityCache;
+
+    /**
+     * Конструктор с внедрением DAO рабочих мест и кэша.
+     *
+     * @param delegate DAO, работающий с базой данных
+     * @param entityCache кэш сущностей
+     */
+    @Autowired
+    public CachingWorkspaceDAO(@Qualifier("workspaceDAOImpl") WorkspaceDAO delegate, EntityCache entityCache) {
+        this.delegate = delegate;
+        this.entityCache = entityCache;
+    }
+
+    /**
+     * Добавляем рабочее место и сбрасываем список рабочих мест.
+     *
+     * @param workspace the workspace to add
+     */
+    @Override
+    public void addWorkspace(Workspace workspace) {
+        delegate.addWorkspace(workspace);
+        entityCache.invalidateWorkspace(workspace.getId());
+    }
+
+    /**
+     * Находим рабочее место по ID через кэш.
+     *
+     * @param id the workspace ID
+     * @return Optional with a copy of the workspace
+     */
+    @Override
+    public Optional<Workspace> findWorkspaceById(int id) {
+        return entityCache.getWorkspace(id, () -> delegate.findWorkspaceById(id));
+    }
+
+    @Override
+    public Optional<Workspace> findWorkspaceByName(String name) {
+        return delegate.findWorkspaceByName(name);
+    }
+
+    /**
+     * Находим все рабочие места через кэш.
+     *
+     * @return the list of workspace copies
+     */
+    @Override
+    public List<Workspace> findAllWorkspaces() {
+        return entityCache.getAllWorkspaces(delegate::findAllWorkspaces);
+    }
+
+    @Override
+    public KeysetPage<Workspace> findWorkspaces(WorkspaceFilter filter, Integer after, int limit) {
+        return delegate.findWorkspaces(filter, after, limit);
+    }
+
+    @Override
+    public KeysetPage<WorkspaceSummary> findWorkspaceSummaries(WorkspaceFilter filter, Integer after, int limit) {
+        return delegate.findWorkspaceSummaries(filter, after, limit);
+    }
+
+    /**
+     * Обновляем рабочее место и сбрасываем его запись в кэше.
+     *
+     * @param workspace the workspace object to update
+     */
+    @Override
+    public void updateWorkspace(Workspace workspace) {
+        delegate.updateWorkspace(workspace);
+        entityCache.invalidateWorkspace(workspace.getId());
+    }
+
+    /**
+     * Удаляем рабочее место и сбрасываем его запись в кэше.
+     *
+     * @param id the workspace ID
+     */
+    @Override
+    public void deleteWorkspace(int id) {
+        delegate.deleteWorkspace(id);
+        entityCache.invalidateWorkspace(id);
+    }
+
+    @Override
+    public List<Workspace> findAvailableWorkspaces() {
+        return delegate.findAvailableWorkspaces();
+    }
+
+    @Override
+    public List<Workspace> findWorkspacesByConferenceRoomId(int conferenceRoomId) {
+        return delegate.findWorkspacesByConferenceRoomId(conferenceRoomId);
+    }
+
+    @Override
+    public List<Workspace> findBookedWorkspaces() {
+        return delegate.findBookedWorkspaces();
+    }
+
+    @Override
+    public boolean isWorkspaceAvailable(int workspaceId, LocalDateTime bookingTime) {
+        return delegate.isWorkspaceAvailable(workspaceId, bookingTime);
+    }
+
+    @Override
+    public boolean isWorkspaceAvailable(int workspaceId, LocalDateTime bookingTime, int durationHours) {
+        return delegate.isWorkspaceAvailable(workspaceId, bookingTime, durationHours);
+    }
+
+    @Override
+    public Optional<Workspace> findWorkspaceWithBookingsById(int id) {
+        return delegate.findWorkspaceWithBookingsById(id);
+    }
+
+    @Override
+    public List<Booking> findBookingsByWorkspaceId(int workspaceId) {
+        return delegate.findBookingsByWorkspaceId(workspaceId);
+    }
+}
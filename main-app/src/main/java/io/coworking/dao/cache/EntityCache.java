@@ -0,0 +1,196 @@
+package io.coworking.dao.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.coworking.entities.ConferenceRoom;
+import io.coworking.entities.Workspace;
+import io.coworking.invalidation.InvalidationListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш редко изменяемых сущностей: конференц-залов и рабочих мест.
+ * <p>
+ * Кэши ограничены по размеру и времени жизни записи, статистика попаданий, промахов
+ * и вытеснений публикуется в Micrometer (метрики {@code cache.*} с тегом {@code cache}).
+ * Наружу всегда отдаются копии, поэтому изменение возвращенного объекта не портит кэш.
+ * Изменения, сделанные другими экземплярами приложения, приходят через {@link InvalidationListener}.
+ */
+@Component
+public class EntityCache implements InvalidationListener {
+    private static final String ALL = "all";
+
+    private final Cache<Integer, Optional<ConferenceRoom>> conferenceRooms;
+    private final Cache<String, List<ConferenceRoom>> allConferenceRooms;
+    private final Cache<Integer, Optional<Workspace>> workspaces;
+    private final Cache<String, List<Workspace>> allWorkspaces;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Конструктор с внедрением настроек кэша и реестра метрик.
+     *
+     * @param maximumSize максимальное число записей в кэше по ID
+     * @param expireAfterWrite время жизни записи
+     * @param meterRegistry реестр метрик
+     */
+    @Autowired
+    public EntityCache(@Value("${coworking.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${coworking.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                       MeterRegistry meterRegistry) {
+        this.conferenceRooms = monitor(meterRegistry, "conferenceRooms", newCache(maximumSize, expireAfterWrite));
+        this.allConferenceRooms = monitor(meterRegistry, "allConferenceRooms", newCache(1, expireAfterWrite));
+        this.workspaces = monitor(meterRegistry, "workspaces", newCache(maximumSize, expireAfterWrite));
+        this.allWorkspaces = monitor(meterRegistry, "allWorkspaces", newCache(1, expireAfterWrite));
+    }
+
+    Optional<ConferenceRoom> getConferenceRoom(int id, Supplier<Optional<ConferenceRoom>> loader) {
+        return getOrLoad(conferenceRooms, id, () -> loader.get().map(EntityCache::copy)).map(EntityCache::copy);
+    }
+
+    List<ConferenceRoom> getAllConferenceRooms(Supplier<List<ConferenceRoom>> loader) {
+        return copyConferenceRooms(getOrLoad(allConferenceRooms, ALL, () -> copyConferenceRooms(loader.get())));
+    }
+
+    Optional<Workspace> getWorkspace(int id, Supplier<Optional<Workspace>> loader) {
+        return getOrLoad(workspaces, id, () -> loader.get().map(EntityCache::copy)).map(EntityCache::copy);
+    }
+
+    List<Workspace> getAllWorkspaces(Supplier<List<Workspace>> loader) {
+        return copyWorkspaces(getOrLoad(allWorkspaces, ALL, () -> copyWorkspaces(loader.get())));
+    }
+
+    /**
+     * Загружаем значение вне блокировок кэша. {@code Cache.get(key, loader)} выполняет загрузку внутри
+     * {@code ConcurrentHashMap.compute}, то есть под монитором, и запрос к базе данных в виртуальном
+     * потоке закрепил бы его за потоком-носителем. Параллельные промахи по одному ключу могут загрузить
+     * значение дважды; результат загрузки, начатой до сброса кэша, не сохраняется.
+     */
+    private <K, V> V getOrLoad(Cache<K, V> cache, K key, Supplier<V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generationBefore = generation.get();
+        V loaded = loader.get();
+        if (generation.get() != generationBefore) {
+            return loaded;
+        }
+        V existing = cache.asMap().putIfAbsent(key, loaded);
+        if (generation.get() != generationBefore) {
+            cache.asMap().remove(key, loaded);
+        }
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Сбрасываем конференц-зал и список всех конференц-залов.
+     *
+     * @param id the conference room ID, or null to reset only the list
+     */
+    public void invalidateConferenceRoom(Integer id) {
+        generation.incrementAndGet();
+        if (id != null) {
+            conferenceRooms.invalidate(id);
+        }
+        allConferenceRooms.invalidateAll();
+    }
+
+    /**
+     * Сбрасываем рабочее место и список всех рабочих мест.
+     *
+     * @param id the workspace ID, or null to reset only the list
+     */
+    public void invalidateWorkspace(Integer id) {
+        generation.incrementAndGet();
+        if (id != null) {
+            workspaces.invalidate(id);
+        }
+        allWorkspaces.invalidateAll();
+    }
+
+    /**
+     * Сбрасываем записи по уведомлению об изменении строк таблицы.
+     *
+     * @param table the table name without schema
+     * @param ids the IDs of changed rows
+     */
+    @Override
+    public void invalidate(String table, Collection<Integer> ids) {
+        // Уведомления о бронированиях, пользователях и прочих таблицах не касаются кэша
+        // и не должны отменять сохранение параллельных загрузок.
+        if (CONFERENCE_ROOMS_TABLE.equals(table)) {
+            generation.incrementAndGet();
+            conferenceRooms.invalidateAll(ids);
+            allConferenceRooms.invalidateAll();
+        } else if (WORKSPACES_TABLE.equals(table)) {
+            generation.incrementAndGet();
+            workspaces.invalidateAll(ids);
+            allWorkspaces.invalidateAll();
+        }
+    }
+
+    /**
+     * Полностью очищаем кэш.
+     */
+    @Override
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        conferenceRooms.invalidateAll();
+        allConferenceRooms.invalidateAll();
+        workspaces.invalidateAll();
+        allWorkspaces.invalidateAll();
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    private static <K, V> Cache<K, V> monitor(MeterRegistry meterRegistry, String name, Cache<K, V> cache) {
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    private static List<ConferenceRoom> copyConferenceRooms(List<ConferenceRoom> conferenceRooms) {
+        List<ConferenceRoom> copies = new ArrayList<>(conferenceRooms.size());
+        for (ConferenceRoom conferenceRoom : conferenceRooms) {
+            copies.add(copy(conferenceRoom));
+        }
+        return copies;
+    }
+
+    private static List<Workspace> copyWorkspaces(List<Workspace> workspaces) {
+        List<Workspace> copies = new ArrayList<>(workspaces.size());
+        for (Workspace workspace : workspaces) {
+            copies.add(copy(workspace));
+        }
+        return copies;
+    }
+
+    private static ConferenceRoom copy(ConferenceRoom conferenceRoom) {
+        ConferenceRoom copy = new ConferenceRoom(conferenceRoom.getName(), conferenceRoom.getCapacity());
+        copy.setId(conferenceRoom.getId());
+        return copy;
+    }
+
+    private static Workspace copy(Workspace workspace) {
+        Workspace copy = new Workspace();
+        copy.setId(workspace.getId());
+        copy.setName(workspace.getName());
+        copy.setConferenceRoomId(workspace.getConferenceRoomId());
+        return copy;
+    }
+}
@@ -0,0 +1,16 @@
+package io.coworking.dao.filter;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фильтр для постраничного поиска бронирований. Незаданные (null) поля не участвуют в фильтрации.
+ */
+@Data
+public class BookingFilter {
+    private Integer workspaceId;
+    private String bookedBy;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
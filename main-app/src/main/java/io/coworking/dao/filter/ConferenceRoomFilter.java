@@ -0,0 +1,12 @@
+package io.coworking.dao.filter;
+
+import lombok.Data;
+
+/**
+ * Фильтр для постраничного поиска конференц-залов. Незаданные (null) поля не участвуют в фильтрации.
+ */
+@Data
+public class ConferenceRoomFilter {
+    private String name;
+    private Integer minCapacity;
+}
@@ -0,0 +1,12 @@
+package io.coworking.dao.filter;
+
+import lombok.Data;
+
+/**
+ * Фильтр для постраничного поиска пользователей. Незаданные (null) поля не участвуют в фильтрации.
+ */
+@Data
+public class UserFilter {
+    private String name;
+    private String email;
+}
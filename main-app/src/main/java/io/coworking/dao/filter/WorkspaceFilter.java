@@ -0,0 +1,12 @@
+package io.coworking.dao.filter;
+
+import lombok.Data;
+
+/**
+ * Фильтр для постраничного поиска рабочих мест. Незаданные (null) поля не участвуют в фильтрации.
+ */
+@Data
+public class WorkspaceFilter {
+    private Integer conferenceRoomId;
+    private String name;
+}
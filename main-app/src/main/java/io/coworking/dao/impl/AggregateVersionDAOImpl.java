@@ -0,0 +1,67 @@
+package io.coworking.dao.impl;
+
+import io.coworking.dao.AggregateVersion;
+import io.coworking.dao.AggregateVersionDAO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Реализация DAO для счетчиков изменений таблиц.
+ * <p>
+ * Счетчик таблицы хранится в нескольких строках (слотах), версия таблицы — их сумма.
+ * Счетчик увеличивается в той же транзакции, что и изменение, поэтому новая версия
+ * не может стать видимой раньше новых данных.
+ */
+@Repository
+public class AggregateVersionDAOImpl implements AggregateVersionDAO {
+
+    private static final String TABLE_NAME = "coworking.\"aggregate_versions-liquibase\"";
+    static final String FIND_VERSION_SQL = "SELECT COALESCE(sum(v.version), 0), max(v.updated_at)" +
+            " FROM unnest(?::varchar[]) WITH ORDINALITY AS t(name, position)" +
+            " LEFT JOIN " + TABLE_NAME + " v ON v.table_name = t.name" +
+            " GROUP BY t.position ORDER BY t.position";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конструктор с внедрением зависимости DataSource.
+     *
+     * @param dataSource источник данных
+     */
+    @Autowired
+    public AggregateVersionDAOImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Находим версию агрегата из указанных таблиц одним запросом.
+     *
+     * @param tables the table names without schema
+     * @return the combined version of the tables
+     */
+    @Override
+    public AggregateVersion findVersion(List<String> tables) {
+        StringJoiner tag = new StringJoiner(".");
+        Instant[] lastModified = {Instant.EPOCH};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FIND_VERSION_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", tables.toArray()));
+            return statement;
+        }, rs -> {
+            tag.add(Long.toString(rs.getLong(1)));
+            Timestamp updatedAt = rs.getTimestamp(2);
+            if (updatedAt != null && updatedAt.toInstant().isAfter(lastModified[0])) {
+                lastModified[0] = updatedAt.toInstant();
+            }
+        });
+        return new AggregateVersion(tag.toString(), lastModified[0]);
+    }
+}
@@ -1,17 +1,30 @@
 package io.coworking.dao.impl;
 
+import io.coworking.availability.WorkspaceAvailabilityIndex;
+import io.coworking.config.WorkspaceConfig;
+import io.coworking.dao.BookingConflictException;
 import io.coworking.dao.BookingDAO;
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.filter.BookingFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import io.coworking.entities.Booking;
 
 import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Реализвация DAO для бронирований.
@@ -20,47 +33,119 @@ import java.util.Optional;
 public class BookingDAOImpl implements BookingDAO {
 
     private static final String TABLE_NAME = "coworking.\"bookings-liquibase\"";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    // Запросы поиска вынесены в константы, чтобы тест планов выполнения проверял ровно тот же SQL.
+    static final String FIND_BY_WORKSPACE_ID_SQL = "SELECT " + Projections.BOOKING.columns() + " FROM " + TABLE_NAME + " WHERE \"workspace_id\" = ?";
+    static final String FIND_BY_USER_SQL = "SELECT " + Projections.BOOKING.columns() + " FROM " + TABLE_NAME + " WHERE \"booked_by\" = ?";
+    static final String FIND_BY_DATE_SQL = "SELECT " + Projections.BOOKING.columns() + " FROM " + TABLE_NAME + " WHERE \"booking_time\" >= ? AND \"booking_time\" < ?";
+    private static final int STREAM_FETCH_SIZE = 1000;
 
     private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final WorkspaceAvailabilityIndex availabilityIndex;
 
     /**
      * Конструктор с внедрением зависимости DataSource.
      *
      * @param dataSource источник данных
+     * @param availabilityIndex индекс занятости рабочих мест
      */
     @Autowired
-    public BookingDAOImpl(DataSource dataSource) {
+    public BookingDAOImpl(DataSource dataSource, WorkspaceAvailabilityIndex availabilityIndex) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
-    }
-
-    /**
-     * Преобразовуем строки результата SQL-запроса в объект Booking.
-     */
-    private static final class BookingRowMapper implements RowMapper<Booking> {
-        @Override
-        public Booking mapRow(ResultSet rs, int rowNum) throws SQLException {
-            Booking booking = new Booking();
-            booking.setId(rs.getInt("id"));
-            booking.setWorkspaceId(rs.getInt("workspace_id"));
-            booking.setBookedBy(rs.getString("booked_by"));
-            booking.setBookingTime(rs.getTimestamp("booking_time").toLocalDateTime());
-            booking.setBookingDurationHours(rs.getInt("duration_hours"));
-            return booking;
-        }
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(STREAM_FETCH_SIZE);
+        this.availabilityIndex = availabilityIndex;
     }
 
     /**
      * Добавляем бронирование.
      *
      * @param booking the booking
+     * @throws BookingConflictException if the booking overlaps an existing booking of the workspace
      */
     @Override
     public void addBooking(Booking booking) {
         String sql = "INSERT INTO " + TABLE_NAME + " (\"workspace_id\", \"booked_by\", \"booking_time\", \"duration_hours\") VALUES (?, ?, ?, ?) RETURNING id";
-        Integer newId = jdbcTemplate.queryForObject(sql, new Object[]{booking.getWorkspaceId(), booking.getBookedBy(), booking.getBookingTime(), booking.getBookingDurationHours()}, Integer.class);
+        Integer newId;
+        try {
+            newId = jdbcTemplate.queryForObject(sql, new Object[]{booking.getWorkspaceId(), booking.getBookedBy(), booking.getBookingTime(), booking.getBookingDurationHours()}, Integer.class);
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e);
+        }
         if (newId != null) {
             booking.setId(newId);
+            afterCommit(() -> availabilityIndex.put(booking));
+        }
+    }
+
+    /**
+     * Добавляем бронирования одним пакетом (JDBC batch) и проставляем им сгенерированные ID.
+     *
+     * @param bookings the bookings to add
+     * @throws BookingConflictException if any booking overlaps an existing booking of the workspace
+     */
+    @Override
+    public void addBookings(List<Booking> bookings) {
+        String sql = "INSERT INTO " + TABLE_NAME + " (\"workspace_id\", \"booked_by\", \"booking_time\", \"duration_hours\") VALUES (?, ?, ?, ?)";
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[]{"id"}), new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Booking booking = bookings.get(i);
+                    ps.setInt(1, booking.getWorkspaceId());
+                    ps.setString(2, booking.getBookedBy());
+                    ps.setTimestamp(3, Timestamp.valueOf(booking.getBookingTime()));
+                    ps.setInt(4, booking.getBookingDurationHours());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return bookings.size();
+                }
+            }, keyHolder);
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e);
+        }
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId(((Number) keys.get(i).get("id")).intValue());
+        }
+        afterCommit(() -> bookings.forEach(availabilityIndex::put));
+    }
+
+    /**
+     * Находим позиции бронирований из списка, пересекающихся с уже существующими, одним запросом.
+     * Список передается массивами и разворачивается через {@code unnest ... WITH ORDINALITY}.
+     *
+     * @param bookings the bookings to check
+     * @return the zero-based positions of conflicting bookings, in ascending order
+     */
+    @Override
+    public List<Integer> findConflictingPositions(List<Booking> bookings) {
+        String sql = "SELECT DISTINCT r.ord - 1 AS pos FROM unnest(?::bigint[], ?::timestamp[], ?::int[]) WITH ORDINALITY AS r(workspace_id, start_time, duration_hours, ord)" +
+                " JOIN " + TABLE_NAME + " b ON b.\"workspace_id\" = r.workspace_id" +
+                " AND b.slot && tsrange(r.start_time, r.start_time + r.duration_hours * INTERVAL '1 hour', '[)')" +
+                " ORDER BY pos";
+        Long[] workspaceIds = new Long[bookings.size()];
+        Timestamp[] startTimes = new Timestamp[bookings.size()];
+        Integer[] durations = new Integer[bookings.size()];
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            workspaceIds[i] = (long) booking.getWorkspaceId();
+            startTimes[i] = Timestamp.valueOf(booking.getBookingTime());
+            durations[i] = booking.getBookingDurationHours();
         }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", workspaceIds));
+            statement.setArray(2, connection.createArrayOf("timestamp", startTimes));
+            statement.setArray(3, connection.createArrayOf("integer", durations));
+            return statement;
+        }, (rs, rowNum) -> rs.getInt("pos"));
     }
 
     /**
@@ -71,8 +156,8 @@ public class BookingDAOImpl implements BookingDAO {
      */
     @Override
     public Optional<Booking> findBookingById(int id) {
-        String sql = "SELECT * FROM " + TABLE_NAME + " WHERE id = ?";
-        List<Booking> bookings = jdbcTemplate.query(sql, new Object[]{id}, new BookingRowMapper());
+        String sql = "SELECT " + Projections.BOOKING.columns() + " FROM " + TABLE_NAME + " WHERE id = ?";
+        List<Booking> bookings = jdbcTemplate.query(sql, new Object[]{id}, Projections.BOOKING);
         return bookings.isEmpty() ? Optional.empty() : Optional.of(bookings.get(0));
     }
 
@@ -83,19 +168,62 @@ public class BookingDAOImpl implements BookingDAO {
      */
     @Override
     public List<Booking> findAllBookings() {
-        String sql = "SELECT * FROM " + TABLE_NAME;
-        return jdbcTemplate.query(sql, new BookingRowMapper());
+        String sql = "SELECT " + Projections.BOOKING.columns() + " FROM " + TABLE_NAME;
+        return jdbcTemplate.query(sql, Projections.BOOKING);
+    }
+
+    /**
+     * Находим страницу бронирований, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param filter the booking filter
+     * @param after the last booking ID of the previous page, or null for the first page
+     * @param limit the maximum number of bookings on the page
+     * @return the page of bookings with the next cursor
+     */
+    @Override
+    public KeysetPage<Booking> findBookings(BookingFilter filter, Integer after, int limit) {
+        return new KeysetQuery(TABLE_NAME)
+                .where("\"workspace_id\" = ?", filter.getWorkspaceId())
+                .where("\"booked_by\" = ?", filter.getBookedBy())
+                .where("\"booking_time\" >= ?", filter.getFrom())
+                .where("\"booking_time\" < ?", filter.getTo())
+                .fetch(jdbcTemplate, after, limit, Projections.BOOKING, Booking::getId);
+    }
+
+    /**
+     * Последовательно передаем все бронирования в обработчик.
+     * PostgreSQL использует курсор (fetch size) только внутри транзакции,
+     * поэтому метод выполняется в read-only транзакции.
+     *
+     * @param consumer the consumer receiving each booking
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllBookings(Consumer<Booking> consumer) {
+        String sql = "SELECT " + Projections.BOOKING.columns() + " FROM " + TABLE_NAME + " ORDER BY id";
+        streamingJdbcTemplate.query(sql, rs -> {
+            consumer.accept(Projections.BOOKING.mapRow(rs, 0));
+        });
     }
 
     /**
      * Обновляем бронирование.
      *
      * @param booking the booking to update
+     * @throws BookingConflictException if the new interval overlaps another booking of the workspace
      */
     @Override
     public void updateBooking(Booking booking) {
         String sql = "UPDATE " + TABLE_NAME + " SET \"workspace_id\" = ?, \"booked_by\" = ?, \"booking_time\" = ?, \"duration_hours\" = ? WHERE id = ?";
-        jdbcTemplate.update(sql, booking.getWorkspaceId(), booking.getBookedBy(), booking.getBookingTime(), booking.getBookingDurationHours(), booking.getId());
+        int updated;
+        try {
+            updated = jdbcTemplate.update(sql, booking.getWorkspaceId(), booking.getBookedBy(), booking.getBookingTime(), booking.getBookingDurationHours(), booking.getId());
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e);
+        }
+        if (updated > 0) {
+            afterCommit(() -> availabilityIndex.put(booking));
+        }
     }
 
     /**
@@ -107,6 +235,7 @@ public class BookingDAOImpl implements BookingDAO {
     public void deleteBooking(int id) {
         String sql = "DELETE FROM " + TABLE_NAME + " WHERE id = ?";
         jdbcTemplate.update(sql, id);
+        afterCommit(() -> availabilityIndex.remove(id));
     }
 
     /**
@@ -117,8 +246,7 @@ public class BookingDAOImpl implements BookingDAO {
      */
     @Override
     public List<Booking> findBookingsByWorkspaceId(int workspaceId) {
-        String sql = "SELECT * FROM " + TABLE_NAME + " WHERE \"workspace_id\" = ?";
-        return jdbcTemplate.query(sql, new Object[]{workspaceId}, new BookingRowMapper());
+        return jdbcTemplate.query(FIND_BY_WORKSPACE_ID_SQL, new Object[]{workspaceId}, Projections.BOOKING);
     }
 
     /**
@@ -129,20 +257,21 @@ public class BookingDAOImpl implements BookingDAO {
      */
     @Override
     public List<Booking> findBookingsByUser(String bookedBy) {
-        String sql = "SELECT * FROM " + TABLE_NAME + " WHERE \"booked_by\" = ?";
-        return jdbcTemplate.query(sql, new Object[]{bookedBy}, new BookingRowMapper());
+        return jdbcTemplate.query(FIND_BY_USER_SQL, new Object[]{bookedBy}, Projections.BOOKING);
     }
 
     /**
      * Находим бронирования на определенную дату.
+     * Дата задается полуоткрытым диапазоном [начало дня, начало следующего дня),
+     * чтобы запрос использовал индекс по {@code booking_time}.
      *
      * @param date the date of bookings
      * @return the list of bookings on the specified date
      */
     @Override
     public List<Booking> findBookingsByDate(LocalDateTime date) {
-        String sql = "SELECT * FROM " + TABLE_NAME + " WHERE \"booking_time\"::date = ?";
-        return jdbcTemplate.query(sql, new Object[]{date.toLocalDate()}, new BookingRowMapper());
+        LocalDateTime dayStart = date.toLocalDate().atStartOfDay();
+        return jdbcTemplate.query(FIND_BY_DATE_SQL, new Object[]{dayStart, dayStart.plusDays(1)}, Projections.BOOKING);
     }
 
     /**
@@ -152,8 +281,9 @@ public class BookingDAOImpl implements BookingDAO {
      */
     @Override
     public void cancelBookingsByUser(String bookedBy) {
-        String sql = "DELETE FROM " + TABLE_NAME + " WHERE \"booked_by\" = ?";
-        jdbcTemplate.update(sql, bookedBy);
+        String sql = "DELETE FROM " + TABLE_NAME + " WHERE \"booked_by\" = ? RETURNING id";
+        List<Integer> deletedIds = jdbcTemplate.queryForList(sql, Integer.class, bookedBy);
+        afterCommit(() -> deletedIds.forEach(availabilityIndex::remove));
     }
 
     /**
@@ -165,8 +295,47 @@ public class BookingDAOImpl implements BookingDAO {
      */
     @Override
     public boolean isBookingAvailable(int workspaceId, LocalDateTime bookingTime) {
-        String sql = "SELECT COUNT(*) FROM " + TABLE_NAME + " WHERE \"workspace_id\" = ? AND \"booking_time\" = ?";
-        Integer count = jdbcTemplate.queryForObject(sql, new Object[]{workspaceId, bookingTime}, Integer.class);
-        return count != null && count == 0;
+        return isBookingAvailable(workspaceId, bookingTime, WorkspaceConfig.BOOKING_DURATION_HOURS.getValue());
+    }
+
+    /**
+     * Проверяем доступность бронирования на интервал с учетом его длительности.
+     *
+     * @param workspaceId the workspace ID
+     * @param bookingTime the booking start time
+     * @param durationHours the booking duration in hours
+     * @return true if no existing booking overlaps the interval, false otherwise
+     */
+    @Override
+    public boolean isBookingAvailable(int workspaceId, LocalDateTime bookingTime, int durationHours) {
+        return availabilityIndex.isAvailable(workspaceId, bookingTime, durationHours);
+    }
+
+    /**
+     * Преобразуем нарушение ограничения исключения {@code bookings-liquibase_no_overlap}
+     * (SQLSTATE 23P01) в конфликт бронирования; остальные нарушения целостности пробрасываем как есть.
+     */
+    private static RuntimeException translateOverlap(DataIntegrityViolationException e) {
+        if (e.getMostSpecificCause() instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+            return new BookingConflictException("Workspace is not available at the specified time");
+        }
+        return e;
+    }
+
+    /**
+     * Обновляем индекс занятости только после фиксации транзакции,
+     * чтобы откат пакетного бронирования не оставил в индексе несуществующие записи.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
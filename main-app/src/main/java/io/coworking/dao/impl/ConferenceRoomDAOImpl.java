@@ -1,16 +1,17 @@
 package io.coworking.dao.impl;
 
 import io.coworking.dao.ConferenceRoomDAO;
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.projection.ConferenceRoomSummary;
+import io.coworking.dao.filter.ConferenceRoomFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 import io.coworking.entities.Booking;
 import io.coworking.entities.ConferenceRoom;
 import io.coworking.entities.Workspace;
 
 import javax.sql.DataSource;
-import java.sql.*;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +22,18 @@ public class ConferenceRoomDAOImpl implements ConferenceRoomDAO {
     private static final String WORKSPACE_TABLE_NAME = "coworking.\"workspaces-liquibase\"";
     private static final String BOOKING_TABLE_NAME = "coworking.\"bookings-liquibase\"";
 
+    // Запросы поиска вынесены в константы, чтобы тест планов выполнения проверял ровно тот же SQL.
+    static final String FIND_WORKSPACES_BY_ROOM_SQL = "SELECT " + Projections.WORKSPACE.columns() + " FROM " + WORKSPACE_TABLE_NAME + " WHERE \"conference_room_id\" = ?";
+    static final String FIND_BOOKINGS_BY_WORKSPACE_SQL = "SELECT " + Projections.BOOKING.columns() + " FROM " + BOOKING_TABLE_NAME + " WHERE \"workspace_id\" = ?";
+    static final String FIND_ROOMS_BY_DATE_SQL = "SELECT " + Projections.CONFERENCE_ROOM.columns(CONFERENCE_TABLE_NAME) + " FROM " + CONFERENCE_TABLE_NAME +
+            " JOIN " + WORKSPACE_TABLE_NAME + " ON " + CONFERENCE_TABLE_NAME + ".id = " + WORKSPACE_TABLE_NAME + ".\"conference_room_id\"" +
+            " JOIN " + BOOKING_TABLE_NAME + " ON " + WORKSPACE_TABLE_NAME + ".id = " + BOOKING_TABLE_NAME + ".\"workspace_id\"" +
+            " WHERE " + BOOKING_TABLE_NAME + ".\"booking_time\" >= ? AND " + BOOKING_TABLE_NAME + ".\"booking_time\" < ?";
+    static final String FIND_ROOMS_BY_USER_SQL = "SELECT " + Projections.CONFERENCE_ROOM.columns(CONFERENCE_TABLE_NAME) + " FROM " + CONFERENCE_TABLE_NAME +
+            " JOIN " + WORKSPACE_TABLE_NAME + " ON " + CONFERENCE_TABLE_NAME + ".id = " + WORKSPACE_TABLE_NAME + ".\"conference_room_id\"" +
+            " JOIN " + BOOKING_TABLE_NAME + " ON " + WORKSPACE_TABLE_NAME + ".id = " + BOOKING_TABLE_NAME + ".\"workspace_id\"" +
+            " WHERE " + BOOKING_TABLE_NAME + ".\"booked_by\" = ?";
+
     private final JdbcTemplate jdbcTemplate;
 
     /**
@@ -33,49 +46,6 @@ public class ConferenceRoomDAOImpl implements ConferenceRoomDAO {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
-    /**
-     * Преобразовуем строки результата SQL-запроса в объект ConferenceRoom.
-     */
-    private static final class ConferenceRoomRowMapper implements RowMapper<ConferenceRoom> {
-        @Override
-        public ConferenceRoom mapRow(ResultSet rs, int rowNum) throws SQLException {
-            ConferenceRoom conferenceRoom = new ConferenceRoom();
-            conferenceRoom.setId(rs.getInt("id"));
-            conferenceRoom.setName(rs.getString("name"));
-            conferenceRoom.setCapacity(rs.getInt("capacity"));
-            return conferenceRoom;
-        }
-    }
-
-    /**
-     * МПреобразовуем строки результата SQL-запроса в объект Workspace.
-     */
-    private static final class WorkspaceRowMapper implements RowMapper<Workspace> {
-        @Override
-        public Workspace mapRow(ResultSet rs, int rowNum) throws SQLException {
-            Workspace workspace = new Workspace();
-            workspace.setId(rs.getInt("id"));
-            workspace.setName(rs.getString("name"));
-            return workspace;
-        }
-    }
-
-    /**
-     * Преобразовуем строки результата SQL-запроса в объект Booking.
-     */
-    private static final class BookingRowMapper implements RowMapper<Booking> {
-        @Override
-        public Booking mapRow(ResultSet rs, int rowNum) throws SQLException {
-            Booking booking = new Booking();
-            booking.setId(rs.getInt("id"));
-            booking.setWorkspaceId(rs.getInt("workspace_id"));
-            booking.setBookedBy(rs.getString("booked_by"));
-            booking.setBookingTime(rs.getTimestamp("booking_time").toLocalDateTime());
-            booking.setBookingDurationHours(rs.getInt("duration_hours"));
-            return booking;
-        }
-    }
-
     /**
      * Добавляем новый конференц-зал в базу данных.
      *
@@ -98,8 +68,8 @@ public class ConferenceRoomDAOImpl implements ConferenceRoomDAO {
      */
     @Override
     public Optional<ConferenceRoom> findConferenceRoomById(int id) {
-        String sql = "SELECT * FROM " + CONFERENCE_TABLE_NAME + " WHERE id = ?";
-        List<ConferenceRoom> conferenceRooms = jdbcTemplate.query(sql, new Object[]{id}, new ConferenceRoomRowMapper());
+        String sql = "SELECT " + Projections.CONFERENCE_ROOM.columns() + " FROM " + CONFERENCE_TABLE_NAME + " WHERE id = ?";
+        List<ConferenceRoom> conferenceRooms = jdbcTemplate.query(sql, new Object[]{id}, Projections.CONFERENCE_ROOM);
         return conferenceRooms.isEmpty() ? Optional.empty() : Optional.of(conferenceRooms.get(0));
     }
 
@@ -110,8 +80,40 @@ public class ConferenceRoomDAOImpl implements ConferenceRoomDAO {
      */
     @Override
     public List<ConferenceRoom> findAllConferenceRooms() {
-        String sql = "SELECT * FROM " + CONFERENCE_TABLE_NAME;
-        return jdbcTemplate.query(sql, new ConferenceRoomRowMapper());
+        String sql = "SELECT " + Projections.CONFERENCE_ROOM.columns() + " FROM " + CONFERENCE_TABLE_NAME;
+        return jdbcTemplate.query(sql, Projections.CONFERENCE_ROOM);
+    }
+
+    /**
+     * Находим страницу конференц-залов, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param filter the conference room filter
+     * @param after the last conference room ID of the previous page, or null for the first page
+     * @param limit the maximum number of conference rooms on the page
+     * @return the page of conference rooms with the next cursor
+     */
+    @Override
+    public KeysetPage<ConferenceRoom> findConferenceRooms(ConferenceRoomFilter filter, Integer after, int limit) {
+        return keysetQuery(filter).fetch(jdbcTemplate, after, limit, Projections.CONFERENCE_ROOM, ConferenceRoom::getId);
+    }
+
+    /**
+     * Находим страницу облегченных проекций конференц-залов без загрузки связанных данных.
+     *
+     * @param filter the conference room filter
+     * @param after the last conference room ID of the previous page, or null for the first page
+     * @param limit the maximum number of conference rooms on the page
+     * @return the page of conference room summaries with the next cursor
+     */
+    @Override
+    public KeysetPage<ConferenceRoomSummary> findConferenceRoomSummaries(ConferenceRoomFilter filter, Integer after, int limit) {
+        return keysetQuery(filter).fetch(jdbcTemplate, after, limit, Projections.CONFERENCE_ROOM_SUMMARY, ConferenceRoomSummary::id);
+    }
+
+    private KeysetQuery keysetQuery(ConferenceRoomFilter filter) {
+        return new KeysetQuery(CONFERENCE_TABLE_NAME)
+                .where("name = ?", filter.getName())
+                .where("capacity >= ?", filter.getMinCapacity());
     }
 
     /**
@@ -159,8 +161,7 @@ public class ConferenceRoomDAOImpl implements ConferenceRoomDAO {
      */
     @Override
     public List<Workspace> findWorkspacesByConferenceRoomId(int conferenceRoomId) {
-        String sql = "SELECT * FROM " + WORKSPACE_TABLE_NAME + " WHERE \"conference_room_id\" = ?";
-        return jdbcTemplate.query(sql, new Object[]{conferenceRoomId}, new WorkspaceRowMapper());
+        return jdbcTemplate.query(FIND_WORKSPACES_BY_ROOM_SQL, new Object[]{conferenceRoomId}, Projections.WORKSPACE);
     }
 
     /**
@@ -171,8 +172,7 @@ public class ConferenceRoomDAOImpl implements ConferenceRoomDAO {
      */
     @Override
     public List<Booking> findBookingsByWorkspaceId(int workspaceId) {
-        String sql = "SELECT * FROM " + BOOKING_TABLE_NAME + " WHERE \"workspace_id\" = ?";
-        return jdbcTemplate.query(sql, new Object[]{workspaceId}, new BookingRowMapper());
+        return jdbcTemplate.query(FIND_BOOKINGS_BY_WORKSPACE_SQL, new Object[]{workspaceId}, Projections.BOOKING);
     }
 
     /**
@@ -183,11 +183,7 @@ public class ConferenceRoomDAOImpl implements ConferenceRoomDAO {
      */
     @Override
     public List<ConferenceRoom> findRoomsByDate(LocalDate date) {
-        String sql = "SELECT " + CONFERENCE_TABLE_NAME + ".* FROM " + CONFERENCE_TABLE_NAME +
-                " JOIN " + WORKSPACE_TABLE_NAME + " ON " + CONFERENCE_TABLE_NAME + ".id = " + WORKSPACE_TABLE_NAME + ".\"conference_room_id\"" +
-                " JOIN " + BOOKING_TABLE_NAME + " ON " + WORKSPACE_TABLE_NAME + ".id = " + BOOKING_TABLE_NAME + ".\"workspace_id\"" +
-                " WHERE " + BOOKING_TABLE_NAME + ".\"booking_time\"::date = ?";
-        return jdbcTemplate.query(sql, new Object[]{date}, new ConferenceRoomRowMapper());
+        return jdbcTemplate.query(FIND_ROOMS_BY_DATE_SQL, new Object[]{date.atStartOfDay(), date.plusDays(1).atStartOfDay()}, Projections.CONFERENCE_ROOM);
     }
 
     /**
@@ -198,11 +194,7 @@ public class ConferenceRoomDAOImpl implements ConferenceRoomDAO {
      */
     @Override
     public List<ConferenceRoom> findRoomsByUser(String userName) {
-        String sql = "SELECT " + CONFERENCE_TABLE_NAME + ".* FROM " + CONFERENCE_TABLE_NAME +
-                " JOIN " + WORKSPACE_TABLE_NAME + " ON " + CONFERENCE_TABLE_NAME + ".id = " + WORKSPACE_TABLE_NAME + ".\"conference_room_id\"" +
-                " JOIN " + BOOKING_TABLE_NAME + " ON " + WORKSPACE_TABLE_NAME + ".id = " + BOOKING_TABLE_NAME + ".\"workspace_id\"" +
-                " WHERE " + BOOKING_TABLE_NAME + ".\"booked_by\" = ?";
-        return jdbcTemplate.query(sql, new Object[]{userName}, new ConferenceRoomRowMapper());
+        return jdbcTemplate.query(FIND_ROOMS_BY_USER_SQL, new Object[]{userName}, Projections.CONFERENCE_ROOM);
     }
 
     /**
@@ -212,10 +204,10 @@ public class ConferenceRoomDAOImpl implements ConferenceRoomDAO {
      */
     @Override
     public List<ConferenceRoom> findRoomsWithAvailableWorkspaces() {
-        String sql = "SELECT " + CONFERENCE_TABLE_NAME + ".* FROM " + CONFERENCE_TABLE_NAME +
+        String sql = "SELECT " + Projections.CONFERENCE_ROOM.columns(CONFERENCE_TABLE_NAME) + " FROM " + CONFERENCE_TABLE_NAME +
                 " JOIN " + WORKSPACE_TABLE_NAME + " ON " + CONFERENCE_TABLE_NAME + ".id = " + WORKSPACE_TABLE_NAME + ".\"conference_room_id\"" +
                 " LEFT JOIN " + BOOKING_TABLE_NAME + " ON " + WORKSPACE_TABLE_NAME + ".id = " + BOOKING_TABLE_NAME + ".\"workspace_id\"" +
                 " WHERE " + BOOKING_TABLE_NAME + ".id IS NULL";
-        return jdbcTemplate.query(sql, new ConferenceRoomRowMapper());
+        return jdbcTemplate.query(sql, Projections.CONFERENCE_ROOM);
     }
 }
@@ -0,0 +1,117 @@
+package io.coworking.dao.impl;
+
+import io.coworking.dao.ConferenceRoomGraphDAO;
+import io.coworking.entities.Booking;
+import io.coworking.entities.ConferenceRoom;
+import io.coworking.entities.Workspace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Реализация загрузчика графа конференц-залов.
+ * Вместо запроса на каждый зал и каждое рабочее место выполняет по одному запросу
+ * на уровень графа ({@code WHERE ... = ANY(?)}) и связывает объекты в памяти.
+ */
+@Repository
+public class ConferenceRoomGraphDAOImpl implements ConferenceRoomGraphDAO {
+    private static final String WORKSPACE_TABLE_NAME = "coworking.\"workspaces-liquibase\"";
+    private static final String BOOKING_TABLE_NAME = "coworking.\"bookings-liquibase\"";
+    // Для каждого рабочего места — обратный проход по idx_bookings_workspace_time с LIMIT,
+    // поэтому размер ответа и время запроса не зависят от длины истории бронирований.
+    // Лишняя строка сверх лимита показывает, что список усечен.
+    private static final String LOAD_BOOKINGS_SQL = "SELECT " + Projections.BOOKING.columns()
+            + " FROM unnest(?) AS requested(workspace_id_value)"
+            + " CROSS JOIN LATERAL (SELECT " + Projections.BOOKING.columns() + " FROM " + BOOKING_TABLE_NAME
+            + " WHERE \"workspace_id\" = requested.workspace_id_value ORDER BY booking_time DESC LIMIT ?) latest"
+            + " ORDER BY workspace_id, booking_time";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конструктор с внедрением зависимости DataSource.
+     *
+     * @param dataSource источник данных
+     */
+    @Autowired
+    public ConferenceRoomGraphDAOImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Загружаем рабочие места (вместе с их бронированиями) для всех переданных конференц-залов.
+     *
+     * @param conferenceRooms the conference rooms to fill
+     * @param bookingsLimit the maximum number of latest bookings per workspace
+     */
+    @Override
+    public void loadWorkspaces(List<ConferenceRoom> conferenceRooms, int bookingsLimit) {
+        if (conferenceRooms.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Workspace>> workspacesByRoom = new HashMap<>();
+        for (ConferenceRoom conferenceRoom : conferenceRooms) {
+            workspacesByRoom.put(conferenceRoom.getId(), new ArrayList<>());
+        }
+
+        String sql = "SELECT " + Projections.WORKSPACE.columns() + " FROM " + WORKSPACE_TABLE_NAME + " WHERE \"conference_room_id\" = ANY(?) ORDER BY id";
+        List<Workspace> workspaces = queryByIds(sql, workspacesByRoom.keySet(), Projections.WORKSPACE);
+        for (Workspace workspace : workspaces) {
+            workspacesByRoom.get(workspace.getConferenceRoomId()).add(workspace);
+        }
+        loadBookings(workspaces, bookingsLimit);
+
+        for (ConferenceRoom conferenceRoom : conferenceRooms) {
+            conferenceRoom.setWorkspaces(workspacesByRoom.get(conferenceRoom.getId()));
+        }
+    }
+
+    /**
+     * Загружаем последние бронирования для всех переданных рабочих мест одним запросом.
+     *
+     * @param workspaces the workspaces to fill
+     * @param bookingsLimit the maximum number of latest bookings per workspace
+     */
+    @Override
+    public void loadBookings(List<Workspace> workspaces, int bookingsLimit) {
+        if (workspaces.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Booking>> bookingsByWorkspace = new HashMap<>();
+        for (Workspace workspace : workspaces) {
+            bookingsByWorkspace.put(workspace.getId(), new ArrayList<>());
+        }
+
+        Long[] idArray = bookingsByWorkspace.keySet().stream().map(Integer::longValue).toArray(Long[]::new);
+        List<Booking> bookings = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOAD_BOOKINGS_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", idArray));
+            statement.setInt(2, bookingsLimit + 1);
+            return statement;
+        }, Projections.BOOKING);
+        for (Booking booking : bookings) {
+            bookingsByWorkspace.get(booking.getWorkspaceId()).add(booking);
+        }
+
+        for (Workspace workspace : workspaces) {
+            List<Booking> latest = bookingsByWorkspace.get(workspace.getId());
+            boolean truncated = latest.size() > bookingsLimit;
+            // Строки упорядочены по времени начала, поэтому лишняя — самая ранняя.
+            workspace.setBookings(truncated ? new ArrayList<>(latest.subList(1, latest.size())) : latest);
+            workspace.setBookingsTruncated(truncated);
+        }
+    }
+
+    private <T> List<T> queryByIds(String sql, Collection<Integer> ids, Projection<T> projection) {
+        Long[] idArray = ids.stream().map(Integer::longValue).toArray(Long[]::new);
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", idArray));
+            return statement;
+        }, projection);
+    }
+}
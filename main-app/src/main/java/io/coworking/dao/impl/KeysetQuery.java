@@ -0,0 +1,54 @@
+package io.coworking.dao.impl;
+
+import io.coworking.dao.KeysetPage;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Построитель запроса keyset-пагинации: {@code WHERE id > :after AND <фильтры> ORDER BY id LIMIT :limit + 1}.
+ * Лишняя строка нужна только для того, чтобы понять, есть ли следующая страница.
+ */
+final class KeysetQuery {
+    private final String tableName;
+    private final List<String> conditions = new ArrayList<>();
+    private final List<Object> params = new ArrayList<>();
+
+    KeysetQuery(String tableName) {
+        this.tableName = tableName;
+    }
+
+    /**
+     * Добавляем условие фильтрации, если значение задано.
+     *
+     * @param condition the SQL condition with a single placeholder
+     * @param value the parameter value, null to skip the condition
+     * @return this query
+     */
+    KeysetQuery where(String condition, Object value) {
+        if (value != null) {
+            conditions.add(condition);
+            params.add(value);
+        }
+        return this;
+    }
+
+    <T> KeysetPage<T> fetch(JdbcTemplate jdbcTemplate, Integer after, int limit, Projection<T> projection, ToIntFunction<T> idExtractor) {
+        where("id > ?", after);
+        StringBuilder sql = new StringBuilder("SELECT ").append(projection.columns()).append(" FROM ").append(tableName);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        params.add(limit + 1);
+
+        List<T> items = jdbcTemplate.query(sql.toString(), projection, params.toArray());
+        if (items.size() <= limit) {
+            return new KeysetPage<>(items, null);
+        }
+        List<T> page = new ArrayList<>(items.subList(0, limit));
+        return new KeysetPage<>(page, idExtractor.applyAsInt(page.get(limit - 1)));
+    }
+}
@@ -0,0 +1,63 @@
+package io.coworking.dao.impl;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Проекция таблицы: явный список столбцов и маппер, читающий их по позиции.
+ * <p>
+ * Чтение по номеру столбца не требует поиска имени в метаданных результата на каждой строке.
+ * Поэтому проекция должна использоваться только в запросах, построенных из ее же {@link #columns()}.
+ *
+ * @param <T> the mapped type
+ */
+final class Projection<T> implements RowMapper<T> {
+    private final String[] columnNames;
+    private final String columns;
+    private final RowMapper<T> rowMapper;
+
+    /**
+     * @param rowMapper the mapper reading columns by position, starting with 1
+     * @param columnNames the column names in the order the mapper reads them
+     */
+    Projection(RowMapper<T> rowMapper, String... columnNames) {
+        this.columnNames = columnNames;
+        this.columns = qualify(null);
+        this.rowMapper = rowMapper;
+    }
+
+    /**
+     * Список столбцов для {@code SELECT}.
+     *
+     * @return the comma separated quoted column names
+     */
+    String columns() {
+        return columns;
+    }
+
+    /**
+     * Список столбцов, уточненных именем таблицы, для запросов с соединениями.
+     *
+     * @param tableName the table name or alias
+     * @return the comma separated qualified column names
+     */
+    String columns(String tableName) {
+        return qualify(tableName);
+    }
+
+    @Override
+    public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return rowMapper.mapRow(rs, rowNum);
+    }
+
+    private String qualify(String tableName) {
+        String prefix = tableName == null ? "" : tableName + ".";
+        return Arrays.stream(columnNames)
+                .map(column -> prefix + "\"" + column + "\"")
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,68 @@
+package io.coworking.dao.impl;
+
+import io.coworking.dao.projection.ConferenceRoomSummary;
+import io.coworking.dao.projection.UserSummary;
+import io.coworking.dao.projection.WorkspaceSummary;
+import io.coworking.entities.Booking;
+import io.coworking.entities.ConferenceRoom;
+import io.coworking.entities.User;
+import io.coworking.entities.Workspace;
+
+import java.time.LocalDateTime;
+
+/**
+ * Общие проекции таблиц для всех DAO.
+ * Порядок столбцов в каждой проекции совпадает с порядком чтения в ее маппере.
+ */
+final class Projections {
+
+    static final Projection<Booking> BOOKING = new Projection<>((rs, rowNum) -> {
+        Booking booking = new Booking();
+        booking.setId(rs.getInt(1));
+        booking.setWorkspaceId(rs.getInt(2));
+        booking.setBookedBy(rs.getString(3));
+        booking.setBookingTime(rs.getObject(4, LocalDateTime.class));
+        booking.setBookingDurationHours(rs.getInt(5));
+        return booking;
+    }, "id", "workspace_id", "booked_by", "booking_time", "duration_hours");
+
+    static final Projection<Workspace> WORKSPACE = new Projection<>((rs, rowNum) -> {
+        Workspace workspace = new Workspace();
+        workspace.setId(rs.getInt(1));
+        workspace.setName(rs.getString(2));
+        workspace.setConferenceRoomId(rs.getInt(3));
+        return workspace;
+    }, "id", "name", "conference_room_id");
+
+    static final Projection<ConferenceRoom> CONFERENCE_ROOM = new Projection<>((rs, rowNum) -> {
+        ConferenceRoom conferenceRoom = new ConferenceRoom();
+        conferenceRoom.setId(rs.getInt(1));
+        conferenceRoom.setName(rs.getString(2));
+        conferenceRoom.setCapacity(rs.getInt(3));
+        return conferenceRoom;
+    }, "id", "name", "capacity");
+
+    static final Projection<User> USER = new Projection<>((rs, rowNum) -> {
+        User user = new User();
+        user.setId(rs.getInt(1));
+        user.setName(rs.getString(2));
+        user.setEmail(rs.getString(3));
+        user.setPassword(rs.getString(4));
+        return user;
+    }, "id", "name", "email", "password");
+
+    static final Projection<UserSummary> USER_SUMMARY = new Projection<>(
+            (rs, rowNum) -> new UserSummary(rs.getInt(1), rs.getString(2), rs.getString(3)),
+            "id", "name", "email");
+
+    static final Projection<WorkspaceSummary> WORKSPACE_SUMMARY = new Projection<>(
+            (rs, rowNum) -> new WorkspaceSummary(rs.getInt(1), rs.getString(2), rs.getInt(3)),
+            "id", "name", "conference_room_id");
+
+    static final Projection<ConferenceRoomSummary> CONFERENCE_ROOM_SUMMARY = new Projection<>(
+            (rs, rowNum) -> new ConferenceRoomSummary(rs.getInt(1), rs.getString(2), rs.getInt(3)),
+            "id", "name", "capacity");
+
+    private Projections() {
+    }
+}
@@ -1,16 +1,18 @@
 package io.coworking.dao.impl;
 
+import io.coworking.dao.KeysetPage;
 import io.coworking.dao.UserDAO;
+import io.coworking.dao.UserInsertResult;
+import io.coworking.dao.projection.UserSummary;
+import io.coworking.dao.filter.UserFilter;
 import io.coworking.entities.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
-import java.sql.*;
-import java.util.List;
-import java.util.Optional;
+import java.sql.PreparedStatement;
+import java.util.*;
 
 /**
  * Реализвация DAO для пользователей
@@ -19,6 +21,17 @@ import java.util.Optional;
 public class UserDAOImpl implements UserDAO {
 
     private static final String TABLE_NAME = "coworking.\"users-liquibase\"";
+    // Подзапросы EXISTS видят снимок до вставки, поэтому при успешной вставке оба флага ложны.
+    static final String INSERT_IF_ABSENT_SQL = "WITH inserted AS (INSERT INTO " + TABLE_NAME + " (name, email, password)" +
+            " VALUES (?, ?, ?) ON CONFLICT DO NOTHING RETURNING id)" +
+            " SELECT (SELECT id FROM inserted)," +
+            " EXISTS (SELECT 1 FROM " + TABLE_NAME + " WHERE name = ?)," +
+            " EXISTS (SELECT 1 FROM " + TABLE_NAME + " WHERE email = ?)";
+    static final String INSERT_ALL_IF_ABSENT_SQL = "INSERT INTO " + TABLE_NAME + " (name, email, password)" +
+            " SELECT u.name, u.email, u.password FROM unnest(?::varchar[], ?::varchar[], ?::varchar[]) WITH ORDINALITY AS u(name, email, password, position)" +
+            " ORDER BY position ON CONFLICT DO NOTHING RETURNING id, name, email";
+    static final String FIND_TAKEN_KEYS_SQL = "SELECT name, email FROM " + TABLE_NAME +
+            " WHERE name = ANY(?::varchar[]) OR email = ANY(?::varchar[])";
 
     private final JdbcTemplate jdbcTemplate;
 
@@ -32,21 +45,6 @@ public class UserDAOImpl implements UserDAO {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
-    /**
-     * Преобразовуем строки результата SQL-запроса в объект User.
-     */
-    private static final class UserRowMapper implements RowMapper<User> {
-        @Override
-        public User mapRow(ResultSet rs, int rowNum) throws SQLException {
-            User user = new User();
-            user.setId(rs.getInt("id"));
-            user.setName(rs.getString("name"));
-            user.setPassword(rs.getString("password"));
-            user.setEmail(rs.getString("email"));
-            return user;
-        }
-    }
-
     /**
      * Создаем и добавляем нового пользователя в базу данных.
      *
@@ -61,6 +59,92 @@ public class UserDAOImpl implements UserDAO {
         }
     }
 
+    /**
+     * Добавляем пользователя, если имя и email свободны, одним запросом без предварительных проверок.
+     * Если конфликт вызван параллельной вставкой, не видимой в снимке запроса, оба флага ложны.
+     *
+     * @param user the user to insert
+     * @return the generated ID, or which of the unique keys collided
+     */
+    @Override
+    public UserInsertResult insertUserIfAbsent(User user) {
+        UserInsertResult result = jdbcTemplate.queryForObject(INSERT_IF_ABSENT_SQL,
+                (rs, rowNum) -> {
+                    int id = rs.getInt(1);
+                    return new UserInsertResult(rs.wasNull() ? null : id, rs.getBoolean(2), rs.getBoolean(3));
+                },
+                user.getName(), user.getEmail(), user.getPassword(), user.getName(), user.getEmail());
+        if (result.inserted()) {
+            user.setId(result.id());
+        }
+        return result;
+    }
+
+    /**
+     * Добавляем пакет пользователей одним запросом {@code INSERT ... SELECT FROM unnest(...)}.
+     * Занятые ключи отклоненных пользователей определяются вторым запросом, только если такие пользователи есть.
+     *
+     * @param users the users to insert
+     * @return the results in the order of {@code users}
+     */
+    @Override
+    public List<UserInsertResult> insertUsersIfAbsent(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        String[] names = users.stream().map(User::getName).toArray(String[]::new);
+        String[] emails = users.stream().map(User::getEmail).toArray(String[]::new);
+        String[] passwords = users.stream().map(User::getPassword).toArray(String[]::new);
+        Map<String, Integer> insertedIds = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_ALL_IF_ABSENT_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", names));
+            statement.setArray(2, connection.createArrayOf("varchar", emails));
+            statement.setArray(3, connection.createArrayOf("varchar", passwords));
+            return statement;
+        }, rs -> {
+            insertedIds.put(rs.getString(2) + '\n' + rs.getString(3), rs.getInt(1));
+        });
+
+        List<UserInsertResult> results = new ArrayList<>(users.size());
+        List<Integer> rejected = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            // Удаляем ID из карты, чтобы повтор той же пары имени и email в пакете считался конфликтом.
+            Integer id = insertedIds.remove(user.getName() + '\n' + user.getEmail());
+            if (id != null) {
+                user.setId(id);
+            } else {
+                rejected.add(i);
+            }
+            results.add(new UserInsertResult(id, false, false));
+        }
+        if (!rejected.isEmpty()) {
+            markTakenKeys(users, rejected, results);
+        }
+        return results;
+    }
+
+    private void markTakenKeys(List<User> users, List<Integer> rejected, List<UserInsertResult> results) {
+        String[] names = rejected.stream().map(i -> users.get(i).getName()).toArray(String[]::new);
+        String[] emails = rejected.stream().map(i -> users.get(i).getEmail()).toArray(String[]::new);
+        Set<String> takenNames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FIND_TAKEN_KEYS_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", names));
+            statement.setArray(2, connection.createArrayOf("varchar", emails));
+            return statement;
+        }, rs -> {
+            takenNames.add(rs.getString(1));
+            takenEmails.add(rs.getString(2));
+        });
+        for (int i : rejected) {
+            User user = users.get(i);
+            results.set(i, new UserInsertResult(null, takenNames.contains(user.getName()), takenEmails.contains(user.getEmail())));
+        }
+    }
+
     /**
      * Находим пользователя по его ID
      *
@@ -69,8 +153,8 @@ public class UserDAOImpl implements UserDAO {
      */
     @Override
     public Optional<User> findUserById(int id) {
-        String sql = "SELECT * FROM " + TABLE_NAME + " WHERE id = ?";
-        List<User> users = jdbcTemplate.query(sql, new Object[]{id}, new UserRowMapper());
+        String sql = "SELECT " + Projections.USER.columns() + " FROM " + TABLE_NAME + " WHERE id = ?";
+        List<User> users = jdbcTemplate.query(sql, new Object[]{id}, Projections.USER);
         return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
     }
 
@@ -82,8 +166,8 @@ public class UserDAOImpl implements UserDAO {
      */
     @Override
     public Optional<User> findUserByName(String name) {
-        String sql = "SELECT * FROM " + TABLE_NAME + " WHERE name = ?";
-        List<User> users = jdbcTemplate.query(sql, new Object[]{name}, new UserRowMapper());
+        String sql = "SELECT " + Projections.USER.columns() + " FROM " + TABLE_NAME + " WHERE name = ?";
+        List<User> users = jdbcTemplate.query(sql, new Object[]{name}, Projections.USER);
         return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
     }
 
@@ -95,8 +179,8 @@ public class UserDAOImpl implements UserDAO {
      */
     @Override
     public Optional<User> findUserByEmail(String email) {
-        String sql = "SELECT * FROM " + TABLE_NAME + " WHERE email = ?";
-        List<User> users = jdbcTemplate.query(sql, new Object[]{email}, new UserRowMapper());
+        String sql = "SELECT " + Projections.USER.columns() + " FROM " + TABLE_NAME + " WHERE email = ?";
+        List<User> users = jdbcTemplate.query(sql, new Object[]{email}, Projections.USER);
         return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
     }
 
@@ -107,8 +191,40 @@ public class UserDAOImpl implements UserDAO {
      */
     @Override
     public List<User> findAllUsers() {
-        String sql = "SELECT * FROM " + TABLE_NAME;
-        return jdbcTemplate.query(sql, new UserRowMapper());
+        String sql = "SELECT " + Projections.USER.columns() + " FROM " + TABLE_NAME;
+        return jdbcTemplate.query(sql, Projections.USER);
+    }
+
+    /**
+     * Находим страницу пользователей, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param filter the user filter
+     * @param after the last user ID of the previous page, or null for the first page
+     * @param limit the maximum number of users on the page
+     * @return the page of users with the next cursor
+     */
+    @Override
+    public KeysetPage<User> findUsers(UserFilter filter, Integer after, int limit) {
+        return keysetQuery(filter).fetch(jdbcTemplate, after, limit, Projections.USER, User::getId);
+    }
+
+    /**
+     * Находим страницу облегченных проекций пользователей без загрузки связанных данных.
+     *
+     * @param filter the user filter
+     * @param after the last user ID of the previous page, or null for the first page
+     * @param limit the maximum number of users on the page
+     * @return the page of user summaries with the next cursor
+     */
+    @Override
+    public KeysetPage<UserSummary> findUserSummaries(UserFilter filter, Integer after, int limit) {
+        return keysetQuery(filter).fetch(jdbcTemplate, after, limit, Projections.USER_SUMMARY, UserSummary::id);
+    }
+
+    private KeysetQuery keysetQuery(UserFilter filter) {
+        return new KeysetQuery(TABLE_NAME)
+                .where("name = ?", filter.getName())
+                .where("email = ?", filter.getEmail());
     }
 
     /**
@@ -122,6 +238,18 @@ public class UserDAOImpl implements UserDAO {
         jdbcTemplate.update(sql, user.getName(), user.getEmail(), user.getPassword(), user.getId());
     }
 
+    /**
+     * Заменяем сохраненный пароль пользователя.
+     *
+     * @param id the user ID
+     * @param password the encoded password
+     */
+    @Override
+    public void updatePassword(int id, String password) {
+        String sql = "UPDATE " + TABLE_NAME + " SET password = ? WHERE id = ?";
+        jdbcTemplate.update(sql, password, id);
+    }
+
     /**
      * Удаляем пользователя по его идентификатору.
      *
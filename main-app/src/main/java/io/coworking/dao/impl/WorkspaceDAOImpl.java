@@ -2,15 +2,20 @@ package io.coworking.dao.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import io.coworking.availability.OccupancyBitmapStore;
+import io.coworking.availability.WorkspaceAvailabilityIndex;
+import io.coworking.config.WorkspaceConfig;
+import io.coworking.dao.KeysetPage;
 import io.coworking.dao.WorkspaceDAO;
+import io.coworking.dao.projection.WorkspaceSummary;
+import io.coworking.dao.filter.WorkspaceFilter;
 import io.coworking.entities.Booking;
 import io.coworking.entities.Workspace;
 
 import javax.sql.DataSource;
-import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,45 +27,26 @@ public class WorkspaceDAOImpl implements WorkspaceDAO {
     private static final String WORKSPACE_TABLE_NAME = "coworking.\"workspaces-liquibase\"";
     private static final String BOOKING_TABLE_NAME = "coworking.\"bookings-liquibase\"";
 
+    // Запросы поиска вынесены в константы, чтобы тест планов выполнения проверял ровно тот же SQL.
+    static final String FIND_BOOKINGS_BY_WORKSPACE_SQL = "SELECT " + Projections.BOOKING.columns() + " FROM " + BOOKING_TABLE_NAME + " WHERE \"workspace_id\" = ?";
+    static final String FIND_BY_CONFERENCE_ROOM_SQL = "SELECT " + Projections.WORKSPACE.columns() + " FROM " + WORKSPACE_TABLE_NAME + " WHERE \"conference_room_id\" = ?";
+
     private final JdbcTemplate jdbcTemplate;
+    private final WorkspaceAvailabilityIndex availabilityIndex;
+    private final OccupancyBitmapStore occupancy;
 
     /**
      * Конструктор с внедрением зависимости DataSource.
      *
      * @param dataSource источник данных
+     * @param availabilityIndex индекс занятости рабочих мест
+     * @param occupancy битовые маски занятости по дням
      */
     @Autowired
-    public WorkspaceDAOImpl(DataSource dataSource) {
+    public WorkspaceDAOImpl(DataSource dataSource, WorkspaceAvailabilityIndex availabilityIndex, OccupancyBitmapStore occupancy) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
-    }
-
-    /**
-     * Преобразовуем строки результата SQL-запроса в объект Workspace.
-     */
-    private static final class WorkspaceRowMapper implements RowMapper<Workspace> {
-        @Override
-        public Workspace mapRow(ResultSet rs, int rowNum) throws SQLException {
-            Workspace workspace = new Workspace();
-            workspace.setId(rs.getInt("id"));
-            workspace.setName(rs.getString("name"));
-            return workspace;
-        }
-    }
-
-    /**
-     * Преобразовуем строки результата SQL-запроса в объект Booking.
-     */
-    private static final class BookingRowMapper implements RowMapper<Booking> {
-        @Override
-        public Booking mapRow(ResultSet rs, int rowNum) throws SQLException {
-            Booking booking = new Booking();
-            booking.setId(rs.getInt("id"));
-            booking.setWorkspaceId(rs.getInt("workspace_id"));
-            booking.setBookedBy(rs.getString("booked_by"));
-            booking.setBookingTime(rs.getTimestamp("booking_time").toLocalDateTime());
-            booking.setBookingDurationHours(rs.getInt("duration_hours"));
-            return booking;
-        }
+        this.availabilityIndex = availabilityIndex;
+        this.occupancy = occupancy;
     }
 
     /**
@@ -85,8 +71,8 @@ public class WorkspaceDAOImpl implements WorkspaceDAO {
      */
     @Override
     public Optional<Workspace> findWorkspaceById(int id) {
-        String sql = "SELECT * FROM " + WORKSPACE_TABLE_NAME + " WHERE id = ?";
-        List<Workspace> workspaces = jdbcTemplate.query(sql, new Object[]{id}, new WorkspaceRowMapper());
+        String sql = "SELECT " + Projections.WORKSPACE.columns() + " FROM " + WORKSPACE_TABLE_NAME + " WHERE id = ?";
+        List<Workspace> workspaces = jdbcTemplate.query(sql, new Object[]{id}, Projections.WORKSPACE);
         return workspaces.isEmpty() ? Optional.empty() : Optional.of(workspaces.get(0));
     }
 
@@ -98,8 +84,8 @@ public class WorkspaceDAOImpl implements WorkspaceDAO {
      */
     @Override
     public Optional<Workspace> findWorkspaceByName(String name) {
-        String sql = "SELECT * FROM " + WORKSPACE_TABLE_NAME + " WHERE name = ?";
-        List<Workspace> workspaces = jdbcTemplate.query(sql, new Object[]{name}, new WorkspaceRowMapper());
+        String sql = "SELECT " + Projections.WORKSPACE.columns() + " FROM " + WORKSPACE_TABLE_NAME + " WHERE name = ?";
+        List<Workspace> workspaces = jdbcTemplate.query(sql, new Object[]{name}, Projections.WORKSPACE);
         return workspaces.isEmpty() ? Optional.empty() : Optional.of(workspaces.get(0));
     }
 
@@ -110,8 +96,40 @@ public class WorkspaceDAOImpl implements WorkspaceDAO {
      */
     @Override
     public List<Workspace> findAllWorkspaces() {
-        String sql = "SELECT * FROM " + WORKSPACE_TABLE_NAME;
-        return jdbcTemplate.query(sql, new WorkspaceRowMapper());
+        String sql = "SELECT " + Projections.WORKSPACE.columns() + " FROM " + WORKSPACE_TABLE_NAME;
+        return jdbcTemplate.query(sql, Projections.WORKSPACE);
+    }
+
+    /**
+     * Находим страницу рабочих мест, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param filter the workspace filter
+     * @param after the last workspace ID of the previous page, or null for the first page
+     * @param limit the maximum number of workspaces on the page
+     * @return the page of workspaces with the next cursor
+     */
+    @Override
+    public KeysetPage<Workspace> findWorkspaces(WorkspaceFilter filter, Integer after, int limit) {
+        return keysetQuery(filter).fetch(jdbcTemplate, after, limit, Projections.WORKSPACE, Workspace::getId);
+    }
+
+    /**
+     * Находим страницу облегченных проекций рабочих мест без загрузки связанных данных.
+     *
+     * @param filter the workspace filter
+     * @param after the last workspace ID of the previous page, or null for the first page
+     * @param limit the maximum number of workspaces on the page
+     * @return the page of workspace summaries with the next cursor
+     */
+    @Override
+    public KeysetPage<WorkspaceSummary> findWorkspaceSummaries(WorkspaceFilter filter, Integer after, int limit) {
+        return keysetQuery(filter).fetch(jdbcTemplate, after, limit, Projections.WORKSPACE_SUMMARY, WorkspaceSummary::id);
+    }
+
+    private KeysetQuery keysetQuery(WorkspaceFilter filter) {
+        return new KeysetQuery(WORKSPACE_TABLE_NAME)
+                .where("\"conference_room_id\" = ?", filter.getConferenceRoomId())
+                .where("name = ?", filter.getName());
     }
 
     /**
@@ -144,20 +162,24 @@ public class WorkspaceDAOImpl implements WorkspaceDAO {
      */
     @Override
     public List<Booking> findBookingsByWorkspaceId(int workspaceId) {
-        String sql = "SELECT * FROM " + BOOKING_TABLE_NAME + " WHERE \"workspace_id\" = ?";
-        return jdbcTemplate.query(sql, new Object[]{workspaceId}, new BookingRowMapper());
+        return jdbcTemplate.query(FIND_BOOKINGS_BY_WORKSPACE_SQL, new Object[]{workspaceId}, Projections.BOOKING);
     }
 
     /**
-     * Находим рабочие места, которые доступны для бронирования.
+     * Находим рабочие места, которые доступны для бронирования (не имеют ни одного бронирования).
+     * Наличие бронирований проверяется по битовым маскам занятости вместо соединения с таблицей бронирований.
      *
      * @return the list of available workspaces
      */
     @Override
     public List<Workspace> findAvailableWorkspaces() {
-        String sql = "SELECT * FROM " + WORKSPACE_TABLE_NAME +
-                " LEFT JOIN " + BOOKING_TABLE_NAME + " ON " + WORKSPACE_TABLE_NAME + ".id = " + BOOKING_TABLE_NAME + ".\"workspace_id\" WHERE " + BOOKING_TABLE_NAME + ".id IS NULL";
-        return jdbcTemplate.query(sql, new WorkspaceRowMapper());
+        List<Workspace> available = new ArrayList<>();
+        for (Workspace workspace : findAllWorkspaces()) {
+            if (!occupancy.hasBookings(workspace.getId())) {
+                available.add(workspace);
+            }
+        }
+        return available;
     }
 
     /**
@@ -168,8 +190,7 @@ public class WorkspaceDAOImpl implements WorkspaceDAO {
      */
     @Override
     public List<Workspace> findWorkspacesByConferenceRoomId(int conferenceRoomId) {
-        String sql = "SELECT * FROM " + WORKSPACE_TABLE_NAME + " WHERE \"conference_room_id\" = ?";
-        return jdbcTemplate.query(sql, new Object[]{conferenceRoomId}, new WorkspaceRowMapper());
+        return jdbcTemplate.query(FIND_BY_CONFERENCE_ROOM_SQL, new Object[]{conferenceRoomId}, Projections.WORKSPACE);
     }
 
     /**
@@ -179,9 +200,9 @@ public class WorkspaceDAOImpl implements WorkspaceDAO {
      */
     @Override
     public List<Workspace> findBookedWorkspaces() {
-        String sql = "SELECT * FROM " + WORKSPACE_TABLE_NAME +
+        String sql = "SELECT " + Projections.WORKSPACE.columns(WORKSPACE_TABLE_NAME) + " FROM " + WORKSPACE_TABLE_NAME +
                 " JOIN " + BOOKING_TABLE_NAME + " ON " + WORKSPACE_TABLE_NAME + ".id = " + BOOKING_TABLE_NAME + ".\"workspace_id\"";
-        return jdbcTemplate.query(sql, new WorkspaceRowMapper());
+        return jdbcTemplate.query(sql, Projections.WORKSPACE);
     }
 
     /**
@@ -193,9 +214,21 @@ public class WorkspaceDAOImpl implements WorkspaceDAO {
      */
     @Override
     public boolean isWorkspaceAvailable(int workspaceId, LocalDateTime bookingTime) {
-        String sql = "SELECT COUNT(*) FROM " + BOOKING_TABLE_NAME + " WHERE \"workspace_id\" = ? AND \"booking_time\" = ?";
-        Integer count = jdbcTemplate.queryForObject(sql, new Object[]{workspaceId, bookingTime}, Integer.class);
-        return count != null && count == 0;
+        return isWorkspaceAvailable(workspaceId, bookingTime, WorkspaceConfig.BOOKING_DURATION_HOURS.getValue());
+    }
+
+    /**
+     * Проверяем доступность рабочего места на интервал с учетом длительности бронирования.
+     * Ответ дает индекс занятости в памяти, без обращения к базе данных.
+     *
+     * @param workspaceId the workspace ID
+     * @param bookingTime the booking start time
+     * @param durationHours the booking duration in hours
+     * @return true if no existing booking overlaps the interval, false otherwise
+     */
+    @Override
+    public boolean isWorkspaceAvailable(int workspaceId, LocalDateTime bookingTime, int durationHours) {
+        return availabilityIndex.isAvailable(workspaceId, bookingTime, durationHours);
     }
 
     /**
@@ -0,0 +1,7 @@
+package io.coworking.dao.projection;
+
+/**
+ * Облегченная проекция конференц-зала без рабочих мест для списочных запросов.
+ */
+public record ConferenceRoomSummary(int id, String name, int capacity) {
+}
@@ -0,0 +1,7 @@
+package io.coworking.dao.projection;
+
+/**
+ * Облегченная проекция пользователя без пароля для списочных запросов.
+ */
+public record UserSummary(int id, String name, String email) {
+}
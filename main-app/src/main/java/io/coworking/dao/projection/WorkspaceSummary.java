@@ -0,0 +1,7 @@
+package io.coworking.dao.projection;
+
+/**
+ * Облегченная проекция рабочего места без бронирований для списочных запросов.
+ */
+public record WorkspaceSummary(int id, String name, int conferenceRoomId) {
+}
@@ -0,0 +1,20 @@
+package io.coworking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO для пакетного бронирования рабочих мест.
+ */
+@Data
+public class BookingBatchRequestDTO {
+
+    @Valid
+    @NotEmpty(message = "Bookings cannot be empty")
+    @Size(max = 1000, message = "Batch cannot contain more than 1000 bookings")
+    private List<BookingDTO> bookings;
+}
@@ -0,0 +1,20 @@
+package io.coworking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат пакетного бронирования: ID созданных бронирований в порядке запроса
+ * либо позиции элементов, из-за которых пакет был отклонен целиком.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResultDTO {
+    private List<Integer> ids;
+    private List<Integer> conflicts;
+    private String message;
+}
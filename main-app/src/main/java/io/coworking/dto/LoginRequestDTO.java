@@ -0,0 +1,17 @@
+package io.coworking.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * Data Transfer Object для входа пользователя.
+ */
+@Data
+public class LoginRequestDTO {
+
+    @NotBlank(message = "Username cannot be blank")
+    private String name;
+
+    @NotBlank(message = "Password cannot be blank")
+    private String password;
+}
@@ -0,0 +1,20 @@
+package io.coworking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO для массового импорта пользователей.
+ */
+@Data
+public class UserImportRequestDTO {
+
+    @Valid
+    @NotEmpty(message = "Users cannot be empty")
+    @Size(max = 10000, message = "Import cannot contain more than 10000 users")
+    private List<UserDTO> users;
+}
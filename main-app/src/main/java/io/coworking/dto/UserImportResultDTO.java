@@ -0,0 +1,20 @@
+package io.coworking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат импорта пользователей: ID в порядке запроса (null для пропущенных)
+ * и позиции пользователей, пропущенных из-за занятого имени или email.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+    private List<Integer> ids;
+    private List<Integer> nameConflicts;
+    private List<Integer> emailConflicts;
+}
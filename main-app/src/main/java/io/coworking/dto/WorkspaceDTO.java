@@ -19,4 +19,7 @@ public class WorkspaceDTO {
     private String name;
 
     private List<BookingDTO> bookings;
+
+    // Во вложенном списке только последние бронирования; полный список — /bookings?workspaceId=.
+    private boolean bookingsTruncated;
 }
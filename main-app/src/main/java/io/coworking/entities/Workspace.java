@@ -12,7 +12,10 @@ import java.util.List;
 public class Workspace {
     private int id;
     private String name;
+    private int conferenceRoomId;
     private List<Booking> bookings;
+    // Список bookings содержит только последние бронирования.
+    private boolean bookingsTruncated;
 
     /**
      * Конструктор для создания нового рабочего места.
@@ -0,0 +1,30 @@
+package io.coworking.invalidation;
+
+import java.util.Collection;
+
+/**
+ * Получатель уведомлений об изменении строк в базе данных.
+ * Реализации сбрасывают или перечитывают локальные копии данных.
+ */
+public interface InvalidationListener {
+    String USERS_TABLE = "users-liquibase";
+    String CONFERENCE_ROOMS_TABLE = "conference_rooms-liquibase";
+    String WORKSPACES_TABLE = "workspaces-liquibase";
+    String BOOKINGS_TABLE = "bookings-liquibase";
+    String WORKING_HOURS_TABLE = "working_hours-liquibase";
+    String CALENDAR_EXCEPTIONS_TABLE = "calendar_exceptions-liquibase";
+    String SESSION_REVOCATIONS_TABLE = "session_revocations-liquibase";
+
+    /**
+     * Строки таблицы были добавлены, изменены или удалены.
+     *
+     * @param table the table name without schema
+     * @param ids the IDs of changed rows
+     */
+    void invalidate(String table, Collection<Integer> ids);
+
+    /**
+     * Уведомления могли быть потеряны (например, при переподключении), все локальные данные устарели.
+     */
+    void invalidateAll();
+}
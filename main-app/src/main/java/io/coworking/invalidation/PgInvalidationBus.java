@@ -0,0 +1,167 @@
+package io.coworking.invalidation;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * Шина инвалидации локальных кэшей между экземплярами приложения на основе PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * Триггеры (changeset 008) публикуют в канал {@value #CHANNEL} сообщения вида {@code таблица:id}.
+ * Шина держит одно выделенное соединение вне пула, ждет уведомления в отдельном потоке
+ * и передает их пачками всем {@link InvalidationListener}. После первой подписки и после каждого
+ * переподключения шина сбрасывает все локальные данные, так как изменения до {@code LISTEN} не были получены.
+ * При {@code spring.threads.virtual.enabled=true} слушатель работает в виртуальном потоке.
+ */
+@Component
+@ConditionalOnProperty(name = "coworking.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class PgInvalidationBus implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(PgInvalidationBus.class);
+
+    static final String CHANNEL = "coworking_invalidation";
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final List<InvalidationListener> listeners;
+    private final Environment environment;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Конструктор с внедрением настроек источника данных и получателей уведомлений.
+     *
+     * @param dataSourceProperties настройки подключения к базе данных
+     * @param listeners получатели уведомлений
+     * @param environment окружение для выбора типа потока
+     */
+    @Autowired
+    public PgInvalidationBus(DataSourceProperties dataSourceProperties, List<InvalidationListener> listeners,
+                             Environment environment) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.listeners = listeners;
+        this.environment = environment;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread.Builder builder = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual()
+                : Thread.ofPlatform().daemon(true);
+        thread = builder.name("pg-invalidation-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(POLL_TIMEOUT_MILLIS * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        long reconnectDelay = 500;
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Изменения, сделанные до LISTEN (между начальной загрузкой данных и первой подпиской
+                // или во время обрыва соединения), уведомлений не дадут, поэтому после каждой подписки
+                // все локальные данные сбрасываются и перечитываются.
+                if (reconnecting) {
+                    logger.info("Invalidation listener reconnected, dropping all local caches");
+                }
+                dispatchAll();
+                reconnecting = true;
+                reconnectDelay = 500;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null && notifications.length > 0) {
+                        dispatch(notifications);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Invalidation listener connection lost, retrying in {} ms: {}", reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MILLIS);
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    private void dispatch(PGNotification[] notifications) {
+        Map<String, Set<Integer>> idsByTable = new HashMap<>();
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            int separator = payload.lastIndexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+            try {
+                int id = Integer.parseInt(payload.substring(separator + 1));
+                idsByTable.computeIfAbsent(payload.substring(0, separator), table -> new HashSet<>()).add(id);
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring malformed invalidation payload: {}", payload);
+            }
+        }
+        for (Map.Entry<String, Set<Integer>> entry : idsByTable.entrySet()) {
+            for (InvalidationListener listener : listeners) {
+                try {
+                    listener.invalidate(entry.getKey(), entry.getValue());
+                } catch (RuntimeException e) {
+                    logger.error("Invalidation listener {} failed", listener.getClass().getSimpleName(), e);
+                }
+            }
+        }
+    }
+
+    private void dispatchAll() {
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.invalidateAll();
+            } catch (RuntimeException e) {
+                logger.error("Invalidation listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
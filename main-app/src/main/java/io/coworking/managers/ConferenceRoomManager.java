@@ -1,8 +1,18 @@
 package io.coworking.managers;
 
+import io.coworking.availability.OccupancyBitmapStore;
+import io.coworking.availability.WorkingCalendar;
+import io.coworking.availability.WorkspaceAvailabilityIndex;
+import io.coworking.config.WorkspaceConfig;
+import io.coworking.dao.AggregateVersion;
+import io.coworking.dao.AggregateVersionDAO;
 import io.coworking.dao.ConferenceRoomDAO;
+import io.coworking.dao.ConferenceRoomGraphDAO;
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.projection.ConferenceRoomSummary;
+import io.coworking.dao.filter.ConferenceRoomFilter;
 import io.coworking.dao.WorkspaceDAO;
-import io.coworking.util.WorkingDateTimeUtil;
+import io.coworking.invalidation.InvalidationListener;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,13 +31,28 @@ import java.time.LocalDate;
 @Getter
 @Setter
 public class ConferenceRoomManager {
+    private static final List<String> CONFERENCE_ROOM_GRAPH_TABLES = List.of(InvalidationListener.CONFERENCE_ROOMS_TABLE,
+            InvalidationListener.WORKSPACES_TABLE, InvalidationListener.BOOKINGS_TABLE);
+
     private final ConferenceRoomDAO conferenceRoomDAO;
     private final WorkspaceDAO workspaceDAO;
+    private final ConferenceRoomGraphDAO conferenceRoomGraphDAO;
+    private final WorkingCalendar workingCalendar;
+    private final OccupancyBitmapStore occupancy;
+    private final WorkspaceAvailabilityIndex availabilityIndex;
+    private final AggregateVersionDAO aggregateVersionDAO;
 
     @Autowired
-    public ConferenceRoomManager(ConferenceRoomDAO conferenceRoomDAO, WorkspaceDAO workspaceDAO) {
+    public ConferenceRoomManager(ConferenceRoomDAO conferenceRoomDAO, WorkspaceDAO workspaceDAO, ConferenceRoomGraphDAO conferenceRoomGraphDAO,
+                                 WorkingCalendar workingCalendar, OccupancyBitmapStore occupancy, WorkspaceAvailabilityIndex availabilityIndex,
+                                 AggregateVersionDAO aggregateVersionDAO) {
         this.conferenceRoomDAO = conferenceRoomDAO;
         this.workspaceDAO = workspaceDAO;
+        this.conferenceRoomGraphDAO = conferenceRoomGraphDAO;
+        this.workingCalendar = workingCalendar;
+        this.occupancy = occupancy;
+        this.availabilityIndex = availabilityIndex;
+        this.aggregateVersionDAO = aggregateVersionDAO;
     }
 
     /**
@@ -58,6 +83,56 @@ public class ConferenceRoomManager {
         return conferenceRoomDAO.findAllConferenceRooms();
     }
 
+    /**
+     * Получаем версию графа конференц-залов с рабочими местами и бронированиями.
+     * Версия меняется при любом изменении этих таблиц и читается одним запросом без загрузки графа.
+     *
+     * @return the version of the conference room graph
+     */
+    public AggregateVersion getConferenceRoomGraphVersion() {
+        return aggregateVersionDAO.findVersion(CONFERENCE_ROOM_GRAPH_TABLES);
+    }
+
+    /**
+     * Находим страницу конференц-залов вместе с рабочими местами и их бронированиями.
+     *
+     * @param filter the conference room filter
+     * @param after the last conference room ID of the previous page, or null for the first page
+     * @param limit the maximum number of conference rooms on the page
+     * @param bookingsLimit the maximum number of latest bookings per workspace
+     * @return the page of conference rooms with workspaces and bookings
+     */
+    public KeysetPage<ConferenceRoom> findConferenceRoomsWithWorkspaces(ConferenceRoomFilter filter, Integer after, int limit, int bookingsLimit) {
+        KeysetPage<ConferenceRoom> page = conferenceRoomDAO.findConferenceRooms(filter, after, limit);
+        conferenceRoomGraphDAO.loadWorkspaces(page.getItems(), bookingsLimit);
+        return page;
+    }
+
+    /**
+     * Находим страницу облегченных проекций конференц-залов.
+     *
+     * @param filter the conference room filter
+     * @param after the last conference room ID of the previous page, or null for the first page
+     * @param limit the maximum number of conference rooms on the page
+     * @return the page of conference room summaries
+     */
+    public KeysetPage<ConferenceRoomSummary> findConferenceRoomSummaries(ConferenceRoomFilter filter, Integer after, int limit) {
+        return conferenceRoomDAO.findConferenceRoomSummaries(filter, after, limit);
+    }
+
+    /**
+     * Находим конференц-зал по его ID вместе с рабочими местами и их бронированиями.
+     *
+     * @param id the conference room ID
+     * @param bookingsLimit the maximum number of latest bookings per workspace
+     * @return the conference room with workspaces and bookings if found, empty Optional otherwise
+     */
+    public Optional<ConferenceRoom> findConferenceRoomWithWorkspacesById(int id, int bookingsLimit) {
+        Optional<ConferenceRoom> conferenceRoom = conferenceRoomDAO.findConferenceRoomById(id);
+        conferenceRoom.ifPresent(room -> conferenceRoomGraphDAO.loadWorkspaces(List.of(room), bookingsLimit));
+        return conferenceRoom;
+    }
+
     /**
      * Обновляем конференц-зал.
      *
@@ -126,23 +201,106 @@ public class ConferenceRoomManager {
     }
 
     /**
-     * Находим конференц-залы с доступными рабочими местами.
+     * Находим конференц-залы, в которых есть рабочие места без бронирований.
+     * Конференц-залы и рабочие места читаются из кэша, бронирования проверяются по битовым маскам занятости.
      *
      * @return the list of conference rooms
      */
     public List<ConferenceRoom> findRoomsWithAvailableWorkspaces() {
-        return conferenceRoomDAO.findRoomsWithAvailableWorkspaces();
+        Set<Integer> roomIds = new HashSet<>();
+        for (Workspace workspace : workspaceDAO.findAllWorkspaces()) {
+            if (!occupancy.hasBookings(workspace.getId())) {
+                roomIds.add(workspace.getConferenceRoomId());
+            }
+        }
+        List<ConferenceRoom> rooms = new ArrayList<>();
+        for (ConferenceRoom room : conferenceRoomDAO.findAllConferenceRooms()) {
+            if (roomIds.contains(room.getId())) {
+                rooms.add(room);
+            }
+        }
+        return rooms;
     }
 
     /**
-     * Проверяем доступность конференц-зала на определенную дату.
+     * Проверяем доступность конференц-зала на стандартную длительность бронирования.
      *
      * @param conferenceRoomId the conference room ID
-     * @param date the booking date
-     * @return true if the conference room is available on the specified date, false otherwise
+     * @param date the booking start time
+     * @return true if the conference room is available at the specified time, false otherwise
      */
     public boolean isConferenceRoomAvailable(int conferenceRoomId, LocalDateTime date) {
-        return WorkingDateTimeUtil.isWithinWorkingHours(date) && WorkingDateTimeUtil.isWorkingDay(date) && conferenceRoomDAO.findRoomsByDate(date.toLocalDate()).stream()
-                .noneMatch(room -> room.getId() == conferenceRoomId);
+        return isConferenceRoomAvailable(conferenceRoomId, date, WorkspaceConfig.BOOKING_DURATION_HOURS.getValue());
+    }
+
+    /**
+     * Проверяем доступность конференц-зала на интервал: интервал должен приходиться на рабочие часы
+     * зала, а ни одно его рабочее место не должно быть забронировано в этом интервале.
+     * Проверка выполняется в памяти так же, как {@link #findAvailableConferenceRoomIds}.
+     *
+     * @param conferenceRoomId the conference room ID
+     * @param start the interval start time
+     * @param durationHours the interval duration in hours
+     * @return true if the conference room is available for the whole interval, false otherwise
+     * @throws IllegalArgumentException if the conference room does not exist
+     */
+    public boolean isConferenceRoomAvailable(int conferenceRoomId, LocalDateTime start, int durationHours) {
+        return !findAvailableConferenceRoomIds(List.of(conferenceRoomId), start, durationHours).isEmpty();
+    }
+
+    private boolean hasOccupiedHour(int workspaceId, LocalDateTime start, LocalDateTime end) {
+        LocalDate lastDay = end.minusNanos(1).toLocalDate();
+        for (LocalDate day = start.toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            int fromHour = day.equals(start.toLocalDate()) ? start.getHour() : 0;
+            int toHour = day.equals(end.toLocalDate()) ? end.minusNanos(1).getHour() + 1 : 24;
+            int hours = ((1 << toHour) - 1) & ~((1 << fromHour) - 1);
+            if ((occupancy.occupiedHours(workspaceId, day.toEpochDay()) & hours) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Находим среди указанных конференц-залов доступные на интервал.
+     * Проверка выполняется в памяти без обращения к базе данных: конференц-залы и рабочие места
+     * читаются из кэша, рабочие часы — из календаря, часы интервала сверяются с битовыми масками
+     * занятости, и только при занятом часе пересечение уточняется по дереву интервалов.
+     *
+     * @param conferenceRoomIds the conference room IDs to check
+     * @param start the interval start time
+     * @param durationHours the interval duration in hours
+     * @return the IDs of available conference rooms in ascending order
+     * @throws IllegalArgumentException if any of the conference rooms does not exist
+     */
+    public List<Integer> findAvailableConferenceRoomIds(Collection<Integer> conferenceRoomIds, LocalDateTime start, int durationHours) {
+        SortedSet<Integer> roomIds = new TreeSet<>(conferenceRoomIds);
+        List<Integer> unknownIds = new ArrayList<>();
+        for (int conferenceRoomId : roomIds) {
+            if (conferenceRoomDAO.findConferenceRoomById(conferenceRoomId).isEmpty()) {
+                unknownIds.add(conferenceRoomId);
+            }
+        }
+        if (!unknownIds.isEmpty()) {
+            throw new IllegalArgumentException("Conference rooms with IDs " + unknownIds + " not found");
+        }
+        SortedSet<Integer> available = new TreeSet<>();
+        for (int conferenceRoomId : roomIds) {
+            if (workingCalendar.isBookableInRoom(conferenceRoomId, start, durationHours)) {
+                available.add(conferenceRoomId);
+            }
+        }
+        if (available.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime end = start.plusHours(durationHours);
+        for (Workspace workspace : workspaceDAO.findAllWorkspaces()) {
+            if (available.contains(workspace.getConferenceRoomId())
+                    && hasOccupiedHour(workspace.getId(), start, end)
+                    && !availabilityIndex.isAvailable(workspace.getId(), start, durationHours)) {
+                available.remove(workspace.getConferenceRoomId());
+            }
+        }
+        return new ArrayList<>(available);
     }
 }
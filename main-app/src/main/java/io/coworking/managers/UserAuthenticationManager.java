@@ -1,6 +1,9 @@
 package io.coworking.managers;
 
 import io.coworking.entities.User;
+import io.coworking.security.PasswordHasher;
+import io.coworking.security.SessionToken;
+import io.coworking.security.SessionTokens;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,24 +18,67 @@ import java.util.Optional;
 @Service
 public class UserAuthenticationManager {
     private final UserDAO userDAO;
+    private final PasswordHasher passwordHasher;
+    private final SessionTokens sessionTokens;
+    private final String dummyHash;
 
     @Autowired
-    public UserAuthenticationManager(UserDAO userDAO) {
+    public UserAuthenticationManager(UserDAO userDAO, PasswordHasher passwordHasher, SessionTokens sessionTokens) {
         this.userDAO = userDAO;
+        this.passwordHasher = passwordHasher;
+        this.sessionTokens = sessionTokens;
+        this.dummyHash = passwordHasher.hash("dummy-password");
     }
 
     /**
-     * Проверяем User на логин, и возвращаем User если username найдено в памяти.
+     * Проверяем имя пользователя и пароль и возвращаем пользователя при успешном входе.
+     * Пароль, сохраненный в устаревшем формате или с меньшей стоимостью bcrypt, после успешного
+     * входа перехешируется с текущими настройками. Для неизвестного имени пароль все равно
+     * проверяется по фиктивному хешу, чтобы время ответа не выдавало существование пользователя.
      *
      * @param userName the username
      * @param password the user password
      * @return the logged-in user
+     * @throws io.coworking.security.PasswordHashingRejectedException if the hashing queue is full
      */
     public Optional<User> loginUser(String userName, String password) {
         Optional<User> user = userDAO.findUserByName(userName);
-        if (user.isPresent() && user.get().getPassword().equals(password)) {
-            return user;
+        if (user.isEmpty()) {
+            passwordHasher.verify(password, dummyHash);
+            return Optional.empty();
         }
-        return Optional.empty();
+        PasswordHasher.Verification verification = passwordHasher.verify(password, user.get().getPassword());
+        if (!verification.matches()) {
+            return Optional.empty();
+        }
+        if (verification.needsRehash()) {
+            String hash = passwordHasher.hash(password);
+            userDAO.updatePassword(user.get().getId(), hash);
+            user.get().setPassword(hash);
+        }
+        return user;
+    }
+
+    /**
+     * Проверяем имя пользователя и пароль и выдаем подписанный токен сессии.
+     * Последующие запросы с этим токеном проверяются без обращения к базе данных.
+     *
+     * @param userName the username
+     * @param password the user password
+     * @return the session token, empty if the credentials are invalid
+     * @throws io.coworking.security.PasswordHashingRejectedException if the hashing queue is full
+     */
+    public Optional<SessionToken> createSession(String userName, String password) {
+        return loginUser(userName, password).map(user -> sessionTokens.issue(user.getId(), user.getName()));
+    }
+
+    /**
+     * Завершаем сессию, отзывая ее токен.
+     *
+     * @param token the session token
+     * @return true if the token was valid and is now revoked, false otherwise
+     */
+    public boolean logout(String token) {
+        return sessionTokens.revoke(token);
     }
 }
@@ -3,8 +3,15 @@ package io.coworking.managers;
 import io.coworking.entities.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.projection.UserSummary;
 import io.coworking.dao.UserDAO;
+import io.coworking.dao.UserInsertResult;
+import io.coworking.dao.filter.UserFilter;
+import io.coworking.security.PasswordHasher;
+import io.coworking.security.SessionRevocations;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,30 +20,68 @@ import java.util.Optional;
  */
 @Service
 public class UserRegistrationManager {
+    /**
+     * Размер пакета импорта: один INSERT на пакет; пароли пакета хешируются параллельно
+     * и должны поместиться в очередь {@link PasswordHasher}.
+     */
+    static final int IMPORT_BATCH_SIZE = 128;
+
     private final UserDAO userDAO;
+    private final PasswordHasher passwordHasher;
+    private final SessionRevocations sessionRevocations;
 
     @Autowired
-    public UserRegistrationManager(UserDAO userDAO) {
+    public UserRegistrationManager(UserDAO userDAO, PasswordHasher passwordHasher, SessionRevocations sessionRevocations) {
         this.userDAO = userDAO;
+        this.passwordHasher = passwordHasher;
+        this.sessionRevocations = sessionRevocations;
     }
 
     /**
-     * Регистрируем нового пользователя.
+     * Регистрируем нового пользователя. Пароль сохраняется в виде хеша.
+     * Уникальность имени и email проверяется самой вставкой ({@code ON CONFLICT DO NOTHING}),
+     * поэтому регистрация выполняется одним запросом и не допускает дубликатов при гонке.
      *
      * @param userName the username
      * @param email the user email
      * @param password the user password
+     * @throws IllegalArgumentException if the username or email is already taken
      */
     public void registerUser(String userName, String email, String password) {
-        if (userDAO.findUserByName(userName).isPresent()) {
+        UserInsertResult result = userDAO.insertUserIfAbsent(new User(userName, email, passwordHasher.hash(password)));
+        if (result.nameTaken()) {
             throw new IllegalArgumentException("User with username " + userName + " already exists");
         }
-        if (userDAO.findUserByEmail(email).isPresent()) {
+        if (result.emailTaken()) {
             throw new IllegalArgumentException("User with email " + email + " already exists");
         }
+        if (!result.inserted()) {
+            throw new IllegalArgumentException("User with username " + userName + " or email " + email + " already exists");
+        }
+    }
 
-        User newUser = new User(userName, email, password);
-        userDAO.addUser(newUser);
+    /**
+     * Импортируем пользователей пакетами по {@link #IMPORT_BATCH_SIZE}. Пользователи с занятыми
+     * именем или email пропускаются, поэтому прерванный импорт можно безопасно повторить.
+     * Пароли хешируются с ограниченным параллелизмом {@link PasswordHasher#hashAll}, чтобы импорт не вытеснял входы.
+     * Как и {@link #registerUser}, импорт попадает под pointcut аудита по умолчанию ({@code register*}).
+     *
+     * @param users the users to import with passwords in plain text
+     * @return the results in the order of {@code users}
+     * @throws io.coworking.security.PasswordHashingRejectedException if the hashing queue is full
+     */
+    public List<UserInsertResult> registerUsers(List<User> users) {
+        List<UserInsertResult> results = new ArrayList<>(users.size());
+        for (int from = 0; from < users.size(); from += IMPORT_BATCH_SIZE) {
+            List<User> batch = users.subList(from, Math.min(from + IMPORT_BATCH_SIZE, users.size()));
+            List<String> hashes = passwordHasher.hashAll(batch.stream().map(User::getPassword).toList());
+            List<User> hashed = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                hashed.add(new User(batch.get(i).getName(), batch.get(i).getEmail(), hashes.get(i)));
+            }
+            results.addAll(userDAO.insertUsersIfAbsent(hashed));
+        }
+        return results;
     }
 
     /**
@@ -62,20 +107,46 @@ public class UserRegistrationManager {
     }
 
     /**
-     * Удаляем пользователя по его идентификатору.
+     * Получаем страницу пользователей.
+     *
+     * @param filter the user filter
+     * @param after the last user ID of the previous page, or null for the first page
+     * @param limit the maximum number of users on the page
+     * @return the page of users
+     */
+    public KeysetPage<User> getUsers(UserFilter filter, Integer after, int limit) {
+        return userDAO.findUsers(filter, after, limit);
+    }
+
+    /**
+     * Находим страницу облегченных проекций пользователей.
+     *
+     * @param filter the user filter
+     * @param after the last user ID of the previous page, or null for the first page
+     * @param limit the maximum number of users on the page
+     * @return the page of user summaries
+     */
+    public KeysetPage<UserSummary> getUserSummaries(UserFilter filter, Integer after, int limit) {
+        return userDAO.findUserSummaries(filter, after, limit);
+    }
+
+    /**
+     * Удаляем пользователя по его идентификатору. Выданные ему токены сессии перестают приниматься.
      *
      * @param userId the user ID
      */
     public void deleteUser(int userId) {
         userDAO.deleteUser(userId);
+        sessionRevocations.revokeUser(userId);
     }
 
     /**
-     * Обновляем информацию о пользователе.
+     * Обновляем информацию о пользователе. Новый пароль сохраняется в виде хеша.
      *
-     * @param user the updated user object to perform update in database
+     * @param user the updated user object with the password in plain text
      */
     public void updateUser(User user) {
+        user.setPassword(passwordHasher.hash(user.getPassword()));
         userDAO.updateUser(user);
     }
 }
@@ -3,15 +3,28 @@ package io.coworking.managers;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.coworking.availability.FreeSlotSearch;
+import io.coworking.availability.WorkingCalendar;
+import io.coworking.availability.WorkspaceBookingLocks;
+import io.coworking.config.WorkspaceConfig;
+import io.coworking.dao.AggregateVersion;
+import io.coworking.dao.AggregateVersionDAO;
+import io.coworking.dao.BookingConflictException;
 import io.coworking.dao.BookingDAO;
+import io.coworking.dao.ConferenceRoomGraphDAO;
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.projection.WorkspaceSummary;
+import io.coworking.dao.filter.BookingFilter;
+import io.coworking.dao.filter.WorkspaceFilter;
 import io.coworking.dao.WorkspaceDAO;
 import io.coworking.entities.Booking;
 import io.coworking.entities.Workspace;
-import io.coworking.util.WorkingDateTimeUtil;
+import io.coworking.invalidation.InvalidationListener;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Определяем класс для управления рабочими местами
@@ -19,13 +32,30 @@ import java.util.Optional;
 @Service
 @Getter
 public class WorkspaceManager {
+    private static final List<String> WORKSPACE_GRAPH_TABLES = List.of(InvalidationListener.WORKSPACES_TABLE,
+            InvalidationListener.BOOKINGS_TABLE);
+
     private final WorkspaceDAO workspaceDAO;
     private final BookingDAO bookingDAO;
+    private final ConferenceRoomGraphDAO conferenceRoomGraphDAO;
+    private final WorkspaceBookingLocks bookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkingCalendar workingCalendar;
+    private final FreeSlotSearch freeSlotSearch;
+    private final AggregateVersionDAO aggregateVersionDAO;
 
     @Autowired
-    public WorkspaceManager(WorkspaceDAO workspaceDAO, BookingDAO bookingDAO) {
+    public WorkspaceManager(WorkspaceDAO workspaceDAO, BookingDAO bookingDAO, ConferenceRoomGraphDAO conferenceRoomGraphDAO,
+                            WorkspaceBookingLocks bookingLocks, TransactionTemplate transactionTemplate,
+                            WorkingCalendar workingCalendar, FreeSlotSearch freeSlotSearch, AggregateVersionDAO aggregateVersionDAO) {
         this.workspaceDAO = workspaceDAO;
         this.bookingDAO = bookingDAO;
+        this.conferenceRoomGraphDAO = conferenceRoomGraphDAO;
+        this.bookingLocks = bookingLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.workingCalendar = workingCalendar;
+        this.freeSlotSearch = freeSlotSearch;
+        this.aggregateVersionDAO = aggregateVersionDAO;
     }
 
     /**
@@ -56,6 +86,42 @@ public class WorkspaceManager {
         return workspaceDAO.findAllWorkspaces();
     }
 
+    /**
+     * Получаем версию рабочих мест с бронированиями без загрузки самих данных.
+     *
+     * @return the version of the workspaces and bookings tables
+     */
+    public AggregateVersion getWorkspaceGraphVersion() {
+        return aggregateVersionDAO.findVersion(WORKSPACE_GRAPH_TABLES);
+    }
+
+    /**
+     * Находим страницу рабочих мест вместе с их бронированиями.
+     *
+     * @param filter the workspace filter
+     * @param after the last workspace ID of the previous page, or null for the first page
+     * @param limit the maximum number of workspaces on the page
+     * @param bookingsLimit the maximum number of latest bookings per workspace
+     * @return the page of workspaces with bookings
+     */
+    public KeysetPage<Workspace> findWorkspacesWithBookings(WorkspaceFilter filter, Integer after, int limit, int bookingsLimit) {
+        KeysetPage<Workspace> page = workspaceDAO.findWorkspaces(filter, after, limit);
+        conferenceRoomGraphDAO.loadBookings(page.getItems(), bookingsLimit);
+        return page;
+    }
+
+    /**
+     * Находим страницу облегченных проекций рабочих мест.
+     *
+     * @param filter the workspace filter
+     * @param after the last workspace ID of the previous page, or null for the first page
+     * @param limit the maximum number of workspaces on the page
+     * @return the page of workspace summaries
+     */
+    public KeysetPage<WorkspaceSummary> findWorkspaceSummaries(WorkspaceFilter filter, Integer after, int limit) {
+        return workspaceDAO.findWorkspaceSummaries(filter, after, limit);
+    }
+
     /**
      * Обновляем рабочее место.
      *
@@ -82,11 +148,40 @@ public class WorkspaceManager {
      * @return true if the workspace is available at the given time, false otherwise
      */
     public boolean isWorkspaceAvailable(int workspaceId, LocalDateTime bookingTime) {
-        return WorkingDateTimeUtil.isWithinWorkingHours(bookingTime) && WorkingDateTimeUtil.isWorkingDay(bookingTime) && workspaceDAO.isWorkspaceAvailable(workspaceId, bookingTime);
+        return workingCalendar.isBookable(workspaceId, bookingTime, WorkspaceConfig.BOOKING_DURATION_HOURS.getValue())
+                && workspaceDAO.isWorkspaceAvailable(workspaceId, bookingTime);
+    }
+
+    /**
+     * Проверяем доступность рабочего места на интервал с учетом длительности бронирования.
+     *
+     * @param workspaceId the workspace ID
+     * @param bookingTime the booking start time
+     * @param durationHours the booking duration in hours
+     * @return true if the workspace is free for the whole interval, false otherwise
+     */
+    public boolean isWorkspaceAvailable(int workspaceId, LocalDateTime bookingTime, int durationHours) {
+        return workingCalendar.isBookable(workspaceId, bookingTime, durationHours)
+                && workspaceDAO.isWorkspaceAvailable(workspaceId, bookingTime, durationHours);
+    }
+
+    /**
+     * Находим самые ранние свободные слоты по всем рабочим местам одним вызовом
+     * вместо проверки доступности каждого рабочего места и часа по отдельности.
+     *
+     * @param query the search parameters
+     * @param after the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of slots on the page
+     * @return the page of free slots
+     */
+    public FreeSlotSearch.Page findFreeSlots(FreeSlotSearch.Query query, String after, int limit) {
+        return freeSlotSearch.search(query, after, limit);
     }
 
     /**
      * Бронируем рабочее место.
+     * Проверка доступности и вставка выполняются под блокировкой рабочего места,
+     * поэтому два одновременных запроса на один слот не могут оба пройти проверку.
      *
      * @param workspaceId the workspace ID
      * @param bookedBy the user who booked the workspace
@@ -94,16 +189,85 @@ public class WorkspaceManager {
      * @param durationHours the booking duration in hours
      */
     public void bookWorkspace(int workspaceId, String bookedBy, LocalDateTime bookingTime, int durationHours) {
-        if (isWorkspaceAvailable(workspaceId, bookingTime)) {
-            Booking booking = new Booking();
-            booking.setWorkspaceId(workspaceId);
-            booking.setBookedBy(bookedBy);
-            booking.setBookingTime(bookingTime);
-            booking.setBookingDurationHours(durationHours);
-            bookingDAO.addBooking(booking);
-        } else {
-            throw new IllegalArgumentException("Workspace is not available at the specified time");
+        bookingLocks.withLock(workspaceId, () -> {
+            if (isWorkspaceAvailable(workspaceId, bookingTime, durationHours)) {
+                Booking booking = new Booking();
+                booking.setWorkspaceId(workspaceId);
+                booking.setBookedBy(bookedBy);
+                booking.setBookingTime(bookingTime);
+                booking.setBookingDurationHours(durationHours);
+                bookingDAO.addBooking(booking);
+            } else {
+                throw new IllegalArgumentException("Workspace is not available at the specified time");
+            }
+        });
+    }
+
+    /**
+     * Бронируем рабочие места пакетом: либо создаются все бронирования, либо ни одного.
+     * Пересечения с существующими бронированиями проверяются одним запросом,
+     * вставка выполняется одним JDBC batch в той же транзакции.
+     * Блокировки всех затронутых рабочих мест удерживаются до фиксации транзакции.
+     *
+     * @param bookings the bookings to create
+     * @throws BookingConflictException if any booking is outside working hours or overlaps another booking
+     */
+    public void bookWorkspaces(List<Booking> bookings) {
+        Set<Integer> workspaceIds = new HashSet<>();
+        for (Booking booking : bookings) {
+            workspaceIds.add(booking.getWorkspaceId());
+        }
+        bookingLocks.withLocks(workspaceIds, () -> transactionTemplate.executeWithoutResult(status -> insertBookings(bookings)));
+    }
+
+    private void insertBookings(List<Booking> bookings) {
+        List<Integer> outsideWorkingHours = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            if (!workingCalendar.isBookable(booking.getWorkspaceId(), booking.getBookingTime(), booking.getBookingDurationHours())) {
+                outsideWorkingHours.add(i);
+            }
+        }
+        if (!outsideWorkingHours.isEmpty()) {
+            throw new BookingConflictException("Bookings are outside working hours", outsideWorkingHours);
+        }
+
+        SortedSet<Integer> conflicts = new TreeSet<>(findOverlapsWithinBatch(bookings));
+        conflicts.addAll(bookingDAO.findConflictingPositions(bookings));
+        if (!conflicts.isEmpty()) {
+            throw new BookingConflictException("Workspaces are not available at the specified time", new ArrayList<>(conflicts));
+        }
+        bookingDAO.addBookings(bookings);
+    }
+
+    /**
+     * Находим позиции бронирований пакета, пересекающихся друг с другом.
+     */
+    private static List<Integer> findOverlapsWithinBatch(List<Booking> bookings) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingInt(i -> bookings.get(i).getWorkspaceId())
+                .thenComparing(i -> bookings.get(i).getBookingTime()));
+
+        List<Integer> overlaps = new ArrayList<>();
+        Booking previous = null;
+        LocalDateTime previousEnd = null;
+        for (int position : order) {
+            Booking booking = bookings.get(position);
+            LocalDateTime end = booking.getBookingTime().plusHours(booking.getBookingDurationHours());
+            if (previous != null && previous.getWorkspaceId() == booking.getWorkspaceId() && booking.getBookingTime().isBefore(previousEnd)) {
+                overlaps.add(position);
+                if (end.isAfter(previousEnd)) {
+                    previousEnd = end;
+                }
+            } else {
+                previousEnd = end;
+            }
+            previous = booking;
         }
+        return overlaps;
     }
 
     /**
@@ -172,6 +336,27 @@ public class WorkspaceManager {
         return bookingDAO.findAllBookings();
     }
 
+    /**
+     * Находим страницу бронирований.
+     *
+     * @param filter the booking filter
+     * @param after the last booking ID of the previous page, or null for the first page
+     * @param limit the maximum number of bookings on the page
+     * @return the page of bookings
+     */
+    public KeysetPage<Booking> findBookings(BookingFilter filter, Integer after, int limit) {
+        return bookingDAO.findBookings(filter, after, limit);
+    }
+
+    /**
+     * Выгружаем все бронирования в обработчик без загрузки всей таблицы в память.
+     *
+     * @param consumer the consumer receiving each booking
+     */
+    public void exportBookings(Consumer<Booking> consumer) {
+        bookingDAO.streamAllBookings(consumer);
+    }
+
     /**
      * Обновляем бронирование.
      *
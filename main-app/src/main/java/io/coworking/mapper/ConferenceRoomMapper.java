@@ -7,7 +7,7 @@ import io.coworking.entities.ConferenceRoom;
 
 import java.util.List;
 
-@Mapper
+@Mapper(uses = WorkspaceMapper.class)
 public interface ConferenceRoomMapper {
     ConferenceRoomMapper INSTANCE = Mappers.getMapper(ConferenceRoomMapper.class);
 
@@ -16,6 +16,8 @@ public interface WorkspaceMapper {
     WorkspaceDTO toDTO(Workspace workspace);
 
     @Mapping(target = "bookings", source = "bookings")
+    @Mapping(target = "conferenceRoomId", ignore = true)
+    @Mapping(target = "bookingsTruncated", ignore = true)
     Workspace toEntity(WorkspaceDTO workspaceDTO);
 
     List<WorkspaceDTO> toDTOList(List<Workspace> workspaces);
@@ -0,0 +1,189 @@
+package io.coworking.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Хеширование и проверка паролей на выделенном ограниченном пуле потоков.
+ * <p>
+ * Пароли хранятся в формате {@code {bcrypt}$2a$...}. Строки без префикса алгоритма считаются
+ * устаревшими паролями в открытом виде: они проверяются прямым сравнением и помечаются для
+ * перехеширования. Вычисление bcrypt занимает десятки миллисекунд процессорного времени,
+ * поэтому выполняется не в потоке запроса, а в пуле из {@code threads} потоков (по умолчанию по числу ядер)
+ * с очередью ограниченной длины. При переполнении очереди задача отклоняется
+ * с {@link PasswordHashingRejectedException}, и всплеск входов не отнимает процессор у бронирований.
+ * Массовый импорт занимает не более {@code import-threads} потоков пула одновременно (по умолчанию один),
+ * поэтому остальные потоки и почти вся очередь остаются входам.
+ * Пул публикует метрики {@code executor.*} с тегом {@code name=passwordHasher},
+ * отказы считаются в {@code coworking.password.rejected}.
+ */
+@Component
+public class PasswordHasher {
+    private static final String BCRYPT = "bcrypt";
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService monitoredExecutor;
+    private final Semaphore importPermits;
+    private final Counter rejected;
+
+    /**
+     * Результат проверки пароля.
+     *
+     * @param matches whether the password matches the stored hash
+     * @param needsRehash whether the stored hash should be replaced with a hash made with current settings
+     */
+    public record Verification(boolean matches, boolean needsRehash) {
+    }
+
+    /**
+     * Конструктор с внедрением настроек хеширования и реестра метрик.
+     *
+     * @param strength стоимость bcrypt (log2 числа раундов), от 4 до 31
+     * @param threads число потоков пула, 0 — по числу ядер
+     * @param queueCapacity максимальное число ожидающих задач
+     * @param importThreads максимальное число одновременно хешируемых паролей импорта
+     * @param meterRegistry реестр метрик
+     */
+    @Autowired
+    public PasswordHasher(@Value("${coworking.password.bcrypt-strength:10}") int strength,
+                          @Value("${coworking.password.threads:0}") int threads,
+                          @Value("${coworking.password.queue-capacity:256}") int queueCapacity,
+                          @Value("${coworking.password.import-threads:1}") int importThreads,
+                          MeterRegistry meterRegistry) {
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT,
+                Map.of(BCRYPT, new BCryptPasswordEncoder(strength)));
+        delegating.setDefaultPasswordEncoderForMatches(NoOpPasswordEncoder.getInstance());
+        this.encoder = delegating;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.monitoredExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHasher");
+        this.importPermits = new Semaphore(Math.max(1, importThreads), true);
+        this.rejected = Counter.builder("coworking.password.rejected")
+                .description("Password hashing tasks rejected because the queue is full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Хешируем пароль с текущими настройками.
+     *
+     * @param rawPassword the password in plain text
+     * @return the encoded password with algorithm prefix
+     * @throws PasswordHashingRejectedException if the hashing queue is full
+     */
+    public String hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Хешируем пароли массового импорта. Каждая задача занимает разрешение на импорт, поэтому все
+     * импорты вместе держат в пуле не более {@code import-threads} задач, а вызывающий поток ждет
+     * освобождения разрешения перед отправкой следующего пароля.
+     *
+     * @param rawPasswords the passwords in plain text
+     * @return the encoded passwords in the same order
+     * @throws PasswordHashingRejectedException if the hashing queue is full
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            acquireImportPermit();
+            try {
+                futures.add(monitoredExecutor.submit(() -> {
+                    try {
+                        return encoder.encode(rawPassword);
+                    } finally {
+                        importPermits.release();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                // Уже отправленные задачи дорабатывают сами и возвращают свои разрешения.
+                importPermits.release();
+                rejected.increment();
+                throw new PasswordHashingRejectedException("Password hashing queue is full", e);
+            }
+        }
+        List<String> hashes = new ArrayList<>(futures.size());
+        for (Future<String> future : futures) {
+            hashes.add(await(future));
+        }
+        return hashes;
+    }
+
+    /**
+     * Проверяем пароль по сохраненному значению.
+     *
+     * @param rawPassword the password in plain text
+     * @param storedPassword the stored encoded password or a legacy plaintext password
+     * @return the verification result
+     * @throws PasswordHashingRejectedException if the hashing queue is full
+     */
+    public Verification verify(String rawPassword, String storedPassword) {
+        return submit(() -> {
+            boolean matches = encoder.matches(rawPassword, storedPassword);
+            return new Verification(matches, matches && encoder.upgradeEncoding(storedPassword));
+        });
+    }
+
+    private void acquireImportPermit() {
+        try {
+            importPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to hash imported password", e);
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = monitoredExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full", e);
+        }
+        return await(future);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,12 @@
+package io.coworking.security;
+
+/**
+ * Исключение при переполнении очереди хеширования паролей.
+ * Запрос следует повторить позже, поэтому контроллеры отвечают на него статусом 503.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
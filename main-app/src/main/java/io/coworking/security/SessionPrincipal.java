@@ -0,0 +1,14 @@
+package io.coworking.security;
+
+import java.time.Instant;
+
+/**
+ * Пользователь, прошедший проверку по токену сессии, без обращения к базе данных.
+ *
+ * @param tokenId the random token ID used for revocation
+ * @param userId the user ID
+ * @param userName the user name
+ * @param expiresAt the token expiration time
+ */
+public record SessionPrincipal(long tokenId, int userId, String userName, Instant expiresAt) {
+}
@@ -0,0 +1,173 @@
+package io.coworking.security;
+
+import io.coworking.invalidation.InvalidationListener;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Локальный список отозванных токенов сессии.
+ * <p>
+ * Проверка при каждом запросе — поиск в хеш-таблице без обращения к базе данных. Отзыв записывается
+ * в таблицу {@code session_revocations-liquibase}, триггер которой рассылает уведомление через
+ * {@link InvalidationListener}, и остальные экземпляры приложения дочитывают новые строки.
+ * Записи хранятся только до истечения срока действия отозванного токена, поэтому список остается
+ * небольшим. Удаление пользователя записывается туда же строкой с {@code user_id}: его токены
+ * отклоняются до истечения срока жизни токенов, в том числе после перезапуска приложения.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class SessionRevocations implements InvalidationListener {
+    private static final String TABLE_NAME = "coworking.\"session_revocations-liquibase\"";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    // ID токена или пользователя -> момент (секунды эпохи), после которого запись можно удалить.
+    private final Map<Long, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    /**
+     * Конструктор с внедрением источника данных и срока жизни токенов.
+     *
+     * @param dataSource источник данных
+     * @param ttl срок жизни токена сессии
+     */
+    @Autowired
+    public SessionRevocations(DataSource dataSource, @Value("${coworking.session.ttl:8h}") Duration ttl) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Загружаем из базы данных отзывы токенов и пользователей, срок действия которых еще не истек.
+     */
+    @PostConstruct
+    public void load() {
+        Map<Long, Long> loadedTokens = new HashMap<>();
+        Map<Integer, Long> loadedUsers = new HashMap<>();
+        jdbcTemplate.query("SELECT token_id, user_id, expires_at FROM " + TABLE_NAME + " WHERE expires_at > ?",
+                (RowCallbackHandler) rs -> put(rs, loadedTokens, loadedUsers), now());
+        revokedTokens.putAll(loadedTokens);
+        revokedTokens.keySet().retainAll(loadedTokens.keySet());
+        revokedUsers.putAll(loadedUsers);
+        revokedUsers.keySet().retainAll(loadedUsers.keySet());
+    }
+
+    /**
+     * Проверяем, отозван ли токен или удален ли его пользователь.
+     *
+     * @param tokenId the token ID
+     * @param userId the user ID
+     * @return true if the token must be rejected, false otherwise
+     */
+    public boolean isRevoked(long tokenId, int userId) {
+        return revokedTokens.containsKey(tokenId) || revokedUsers.containsKey(userId);
+    }
+
+    /**
+     * Отзываем токен на этом экземпляре и записываем отзыв для остальных.
+     *
+     * @param tokenId the token ID
+     * @param expiresAt the token expiration time
+     */
+    public void revoke(long tokenId, Instant expiresAt) {
+        revokedTokens.put(tokenId, expiresAt.getEpochSecond());
+        deleteExpired();
+        jdbcTemplate.update("INSERT INTO " + TABLE_NAME + " (token_id, expires_at) VALUES (?, ?) ON CONFLICT (token_id) DO NOTHING",
+                tokenId, toTimestamp(expiresAt));
+        purgeExpired();
+    }
+
+    /**
+     * Отклоняем все токены пользователя до истечения срока их действия и записываем отзыв для остальных
+     * экземпляров. Выданные позже токены живут не дольше, поэтому запись хранится один срок жизни токена.
+     *
+     * @param userId the user ID
+     */
+    public void revokeUser(int userId) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        revokedUsers.put(userId, expiresAt.getEpochSecond());
+        deleteExpired();
+        jdbcTemplate.update("INSERT INTO " + TABLE_NAME + " (user_id, expires_at) VALUES (?, ?)"
+                + " ON CONFLICT (user_id) DO UPDATE SET expires_at = EXCLUDED.expires_at", userId, toTimestamp(expiresAt));
+        purgeExpired();
+    }
+
+    /**
+     * Дочитываем новые отзывы токенов и пользователей.
+     *
+     * @param table the table name without schema
+     * @param ids the IDs of changed rows
+     */
+    @Override
+    public void invalidate(String table, Collection<Integer> ids) {
+        if (SESSION_REVOCATIONS_TABLE.equals(table)) {
+            query("SELECT token_id, user_id, expires_at FROM " + TABLE_NAME + " WHERE id = ANY(?)", ids,
+                    rs -> put(rs, revokedTokens, revokedUsers));
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        load();
+    }
+
+    private void query(String sql, Collection<Integer> ids, RowCallbackHandler handler) {
+        Long[] values = ids.stream().map(Integer::longValue).toArray(Long[]::new);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", values));
+            return statement;
+        }, handler);
+    }
+
+    private static void put(ResultSet rs, Map<Long, Long> tokens, Map<Integer, Long> users) throws SQLException {
+        long expiresAt = toEpochSecond(rs.getTimestamp(3));
+        long tokenId = rs.getLong(1);
+        if (!rs.wasNull()) {
+            tokens.put(tokenId, expiresAt);
+        }
+        int userId = rs.getInt(2);
+        if (!rs.wasNull()) {
+            users.put(userId, expiresAt);
+        }
+    }
+
+    private void deleteExpired() {
+        jdbcTemplate.update("DELETE FROM " + TABLE_NAME + " WHERE expires_at <= ?", now());
+    }
+
+    private void purgeExpired() {
+        long now = Instant.now().getEpochSecond();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.valueOf(LocalDateTime.ofEpochSecond(instant.getEpochSecond(), 0, ZoneOffset.UTC));
+    }
+
+    private static long toEpochSecond(Timestamp timestamp) {
+        return timestamp.toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,12 @@
+package io.coworking.security;
+
+import java.time.Instant;
+
+/**
+ * Выданный токен сессии.
+ *
+ * @param token the signed token to send in the {@code Authorization: Bearer} header
+ * @param expiresAt the token expiration time
+ */
+public record SessionToken(String token, Instant expiresAt) {
+}
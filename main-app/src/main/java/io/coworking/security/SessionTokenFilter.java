@@ -0,0 +1,87 @@
+package io.coworking.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Фильтр, проверяющий токен сессии из заголовка {@code Authorization: Bearer}.
+ * <p>
+ * Действующий токен превращается в {@link SessionPrincipal} в атрибуте запроса {@link #PRINCIPAL_ATTRIBUTE}
+ * без обращения к базе данных; недействительный токен отклоняется с кодом 401. Запросы без токена
+ * пропускаются, если не включен режим {@code coworking.session.required}: в нем токен обязателен
+ * для всех путей, кроме входа, регистрации ({@code POST /users}), документации API и actuator.
+ */
+public class SessionTokenFilter extends OncePerRequestFilter {
+    public static final String PRINCIPAL_ATTRIBUTE = SessionPrincipal.class.getName();
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final List<String> PUBLIC_PATHS = List.of("/auth/login", "/v3/api-docs", "/swagger-ui", "/actuator");
+    private static final String REGISTRATION_PATH = "/users";
+
+    private final SessionTokens sessionTokens;
+    private final boolean required;
+
+    /**
+     * Конструктор фильтра.
+     *
+     * @param sessionTokens the token service
+     * @param required whether requests to non-public paths must carry a token
+     */
+    public SessionTokenFilter(SessionTokens sessionTokens, boolean required) {
+        this.sessionTokens = sessionTokens;
+        this.required = required;
+    }
+
+    /**
+     * Извлекаем токен из заголовка {@code Authorization}.
+     *
+     * @param header the header value
+     * @return the token, empty if the header is absent or uses another scheme
+     */
+    public static Optional<String> bearerToken(String header) {
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return Optional.empty();
+        }
+        String token = header.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? Optional.empty() : Optional.of(token);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Optional<String> token = bearerToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (token.isPresent()) {
+            Optional<SessionPrincipal> principal = sessionTokens.verify(token.get());
+            if (principal.isEmpty()) {
+                unauthorized(response, "error=\"invalid_token\"");
+                return;
+            }
+            request.setAttribute(PRINCIPAL_ATTRIBUTE, principal.get());
+        } else if (required && !isPublic(request)) {
+            unauthorized(response, null);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isPublic(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (HttpMethod.POST.matches(request.getMethod()) && path.equals(REGISTRATION_PATH)) {
+            return true;
+        }
+        return PUBLIC_PATHS.stream().anyMatch(path::startsWith);
+    }
+
+    private static void unauthorized(HttpServletResponse response, String error) {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, error == null ? "Bearer" : "Bearer " + error);
+    }
+}
@@ -0,0 +1,166 @@
+package io.coworking.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Выдача и проверка подписанных токенов сессии.
+ * <p>
+ * Токен имеет вид {@code base64url(payload).base64url(HMAC-SHA256(payload))}, где payload содержит
+ * версию формата, случайный ID токена, ID и имя пользователя и срок действия. Проверка токена
+ * вычисляет одну HMAC-подпись и ищет ID в {@link SessionRevocations}, поэтому запросы с токеном
+ * не обращаются к таблице пользователей. Ключ задается в {@code coworking.session.secret} (Base64, не менее 32 байт);
+ * если он не задан, генерируется случайный ключ, и токены перестают действовать после перезапуска
+ * и не принимаются другими экземплярами приложения.
+ */
+@Component
+public class SessionTokens {
+    private static final Logger logger = LoggerFactory.getLogger(SessionTokens.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int MIN_SECRET_LENGTH = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final SessionRevocations revocations;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Mac> mac;
+
+    /**
+     * Конструктор с внедрением ключа подписи, срока жизни токенов и списка отозванных токенов.
+     *
+     * @param secret ключ подписи в Base64, пустая строка — случайный ключ
+     * @param ttl срок жизни токена
+     * @param revocations список отозванных токенов
+     */
+    @Autowired
+    public SessionTokens(@Value("${coworking.session.secret:}") String secret,
+                         @Value("${coworking.session.ttl:8h}") Duration ttl,
+                         SessionRevocations revocations) {
+        byte[] secretBytes;
+        if (secret == null || secret.isBlank()) {
+            secretBytes = new byte[MIN_SECRET_LENGTH];
+            random.nextBytes(secretBytes);
+            logger.warn("coworking.session.secret is not set, session tokens are signed with a random key");
+        } else {
+            secretBytes = Base64.getDecoder().decode(secret.trim());
+            if (secretBytes.length < MIN_SECRET_LENGTH) {
+                throw new IllegalArgumentException("coworking.session.secret must be at least " + MIN_SECRET_LENGTH + " bytes");
+            }
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+        this.ttl = ttl;
+        this.revocations = revocations;
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Выдаем токен сессии пользователю.
+     *
+     * @param userId the user ID
+     * @param userName the user name
+     * @return the signed token
+     */
+    public SessionToken issue(int userId, String userName) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        byte[] name = userName.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES + Long.BYTES + name.length)
+                .put(VERSION)
+                .putLong(random.nextLong())
+                .putInt(userId)
+                .putLong(expiresAt.getEpochSecond())
+                .put(name)
+                .array();
+        String token = ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+        return new SessionToken(token, Instant.ofEpochSecond(expiresAt.getEpochSecond()));
+    }
+
+    /**
+     * Проверяем подпись, срок действия и отзыв токена.
+     *
+     * @param token the token from the {@code Authorization} header
+     * @return the authenticated user, empty if the token is malformed, forged, expired or revoked
+     */
+    public Optional<SessionPrincipal> verify(String token) {
+        Optional<SessionPrincipal> principal = decode(token);
+        if (principal.isEmpty()
+                || !principal.get().expiresAt().isAfter(Instant.now())
+                || revocations.isRevoked(principal.get().tokenId(), principal.get().userId())) {
+            return Optional.empty();
+        }
+        return principal;
+    }
+
+    /**
+     * Отзываем действующий токен.
+     *
+     * @param token the token to revoke
+     * @return true if the token was valid and is now revoked, false otherwise
+     */
+    public boolean revoke(String token) {
+        Optional<SessionPrincipal> principal = verify(token);
+        principal.ifPresent(p -> revocations.revoke(p.tokenId(), p.expiresAt()));
+        return principal.isPresent();
+    }
+
+    private Optional<SessionPrincipal> decode(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            if (buffer.get() != VERSION) {
+                return Optional.empty();
+            }
+            long tokenId = buffer.getLong();
+            int userId = buffer.getInt();
+            Instant expiresAt = Instant.ofEpochSecond(buffer.getLong());
+            String userName = new String(Arrays.copyOfRange(payload, buffer.position(), payload.length), StandardCharsets.UTF_8);
+            return Optional.of(new SessionPrincipal(tokenId, userId, userName, expiresAt));
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        return mac.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.coworking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingIntervalTreeTest {
+
+    @Test
+    void testOverlapsRespectsHalfOpenIntervals() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.insert(1, 10, 20);
+
+        assertTrue(tree.overlaps(15, 16));
+        assertTrue(tree.overlaps(5, 11));
+        assertTrue(tree.overlaps(19, 30));
+        assertFalse(tree.overlaps(20, 30));
+        assertFalse(tree.overlaps(0, 10));
+    }
+
+    @Test
+    void testRemove() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.insert(1, 10, 20);
+        tree.insert(2, 10, 40);
+
+        assertTrue(tree.remove(2, 10));
+        assertFalse(tree.remove(2, 10));
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(25, 30));
+        assertTrue(tree.overlaps(15, 16));
+    }
+
+    @Test
+    void testMatchesBruteForceOnRandomIntervals() {
+        Random random = new Random(42);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+
+        for (int id = 0; id < 2000; id++) {
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(50);
+            tree.insert(id, start, end);
+            intervals.add(new long[]{id, start, end});
+            if (random.nextInt(3) == 0) {
+                long[] removed = intervals.remove(random.nextInt(intervals.size()));
+                assertTrue(tree.remove((int) removed[0], removed[1]));
+            }
+        }
+        assertEquals(intervals.size(), tree.size());
+
+        for (int i = 0; i < 5000; i++) {
+            long start = random.nextInt(10_100);
+            long end = start + 1 + random.nextInt(20);
+            boolean expected = intervals.stream().anyMatch(interval -> interval[1] < end && start < interval[2]);
+            assertEquals(expected, tree.overlaps(start, end));
+        }
+    }
+}
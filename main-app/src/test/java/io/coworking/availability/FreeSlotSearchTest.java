@@ -0,0 +1,94 @@
+package io.coworking.availability;
+
+import io.coworking.dao.WorkspaceDAO;
+import io.coworking.entities.Booking;
+import io.coworking.entities.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FreeSlotSearchTest {
+    private static final LocalDate MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    private WorkspaceAvailabilityIndex index;
+    private FreeSlotSearch search;
+    private int bookingIds;
+
+    @BeforeEach
+    void setUp() {
+        WorkspaceDAO workspaceDAO = mock(WorkspaceDAO.class);
+        when(workspaceDAO.findAllWorkspaces()).thenReturn(List.of(
+                workspace(1, 10), workspace(2, 10), workspace(3, 20)));
+        index = new WorkspaceAvailabilityIndex(mock(DataSource.class), new OccupancyBitmapStore());
+        search = new FreeSlotSearch(workspaceDAO, index, new WorkingCalendar(mock(DataSource.class)));
+    }
+
+    @Test
+    void testEarliestSlotsSkipBookedAndNonWorkingHours() {
+        book(1, MONDAY.atTime(8, 0), 2);
+        FreeSlotSearch.Query query = new FreeSlotSearch.Query(MONDAY.minusDays(1).atTime(20, 0), MONDAY.atTime(12, 0), 1, null, 1);
+
+        FreeSlotSearch.Page page = search.search(query, null, 3);
+
+        assertEquals(List.of(
+                new FreeSlot(MONDAY.atTime(8, 0), MONDAY.atTime(9, 0), 10, List.of(2)),
+                new FreeSlot(MONDAY.atTime(8, 0), MONDAY.atTime(9, 0), 20, List.of(3)),
+                new FreeSlot(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0), 10, List.of(2))), page.items());
+        assertEquals(MONDAY.atTime(9, 0) + ",10", page.nextCursor());
+
+        FreeSlotSearch.Page next = search.search(query, page.nextCursor(), 3);
+        assertEquals(new FreeSlot(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0), 20, List.of(3)), next.items().get(0));
+        assertEquals(MONDAY.atTime(10, 0), next.items().get(1).startTime());
+    }
+
+    @Test
+    void testSeatsAreTakenFromOneConferenceRoom() {
+        book(2, MONDAY.atTime(9, 0), 1);
+        FreeSlotSearch.Query query = new FreeSlotSearch.Query(MONDAY.atTime(9, 0), MONDAY.atTime(16, 0), 2, null, 2);
+
+        FreeSlotSearch.Page page = search.search(query, null, 10);
+
+        assertEquals(new FreeSlot(MONDAY.atTime(10, 0), MONDAY.atTime(12, 0), 10, List.of(1, 2)), page.items().get(0));
+        assertTrue(page.items().stream().allMatch(slot -> slot.conferenceRoomId() == 10));
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testConferenceRoomFilterAndInvalidQueries() {
+        FreeSlotSearch.Query query = new FreeSlotSearch.Query(MONDAY.atTime(8, 0), MONDAY.atTime(16, 0), 8, 20, 1);
+
+        assertEquals(List.of(new FreeSlot(MONDAY.atTime(8, 0), MONDAY.atTime(16, 0), 20, List.of(3))),
+                search.search(query, null, 10).items());
+        assertThrows(IllegalArgumentException.class, () -> search.search(query, "garbage", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FreeSlotSearch.Query(MONDAY.atTime(8, 0), MONDAY.atTime(8, 0), 1, null, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FreeSlotSearch.Query(MONDAY.atTime(8, 0), MONDAY.plusDays(40).atTime(8, 0), 1, null, 1));
+    }
+
+    private void book(int workspaceId, LocalDateTime start, int durationHours) {
+        Booking booking = new Booking();
+        booking.setId(++bookingIds);
+        booking.setWorkspaceId(workspaceId);
+        booking.setBookingTime(start);
+        booking.setBookingDurationHours(durationHours);
+        index.put(booking);
+    }
+
+    private static Workspace workspace(int id, int conferenceRoomId) {
+        Workspace workspace = new Workspace();
+        workspace.setId(id);
+        workspace.setConferenceRoomId(conferenceRoomId);
+        return workspace;
+    }
+}
@@ -0,0 +1,74 @@
+package io.coworking.availability;
+
+import io.coworking.entities.Booking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class OccupancyBitmapStoreTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 7, 8);
+
+    private OccupancyBitmapStore store;
+    private WorkspaceAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        store = new OccupancyBitmapStore();
+        index = new WorkspaceAvailabilityIndex(mock(DataSource.class), store);
+    }
+
+    @Test
+    void testBookingsSetHourBits() {
+        index.put(booking(1, 7, DAY.atTime(9, 0), 2));
+        index.put(booking(2, 7, DAY.atTime(13, 30), 1));
+
+        assertEquals(WorkingCalendar.hoursMask(9, 11) | WorkingCalendar.hoursMask(13, 15), store.occupiedHours(7, DAY.toEpochDay()));
+        assertEquals(0, store.occupiedHours(7, DAY.plusDays(1).toEpochDay()));
+        assertEquals(0, store.occupiedHours(8, DAY.toEpochDay()));
+        assertTrue(store.hasBookings(7));
+        assertFalse(store.hasBookings(8));
+    }
+
+    @Test
+    void testBookingAcrossMidnightAndFarDatesGrowTheRow() {
+        index.put(booking(1, 7, DAY.atTime(22, 0), 4));
+        index.put(booking(2, 7, DAY.minusYears(1).atTime(10, 0), 1));
+        index.put(booking(3, 7, DAY.plusYears(1).atTime(10, 0), 1));
+
+        assertEquals(WorkingCalendar.hoursMask(22, 24), store.occupiedHours(7, DAY.toEpochDay()));
+        assertEquals(WorkingCalendar.hoursMask(0, 2), store.occupiedHours(7, DAY.plusDays(1).toEpochDay()));
+        assertEquals(WorkingCalendar.hoursMask(10, 11), store.occupiedHours(7, DAY.minusYears(1).toEpochDay()));
+        assertEquals(WorkingCalendar.hoursMask(10, 11), store.occupiedHours(7, DAY.plusYears(1).toEpochDay()));
+    }
+
+    @Test
+    void testRemovalKeepsBitsOfRemainingBookings() {
+        index.put(booking(1, 7, DAY.atTime(9, 0), 3));
+        index.put(booking(2, 7, DAY.atTime(11, 0), 2));
+
+        index.remove(1);
+        assertEquals(WorkingCalendar.hoursMask(11, 13), store.occupiedHours(7, DAY.toEpochDay()));
+
+        index.put(booking(2, 7, DAY.plusDays(1).atTime(8, 0), 1));
+        assertEquals(0, store.occupiedHours(7, DAY.toEpochDay()));
+        assertEquals(WorkingCalendar.hoursMask(8, 9), store.occupiedHours(7, DAY.plusDays(1).toEpochDay()));
+
+        index.remove(2);
+        assertFalse(store.hasBookings(7));
+    }
+
+    private static Booking booking(int id, int workspaceId, LocalDateTime start, int durationHours) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setWorkspaceId(workspaceId);
+        booking.setBookingTime(start);
+        booking.setBookingDurationHours(durationHours);
+        return booking;
+    }
+}
@@ -0,0 +1,130 @@
+package io.coworking.availability;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class WorkingCalendarTest {
+    private static final LocalDate MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        dataSource = postgres.getPostgresDatabase();
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/changelog.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void testDefaultRulesBeforeLoad() {
+        WorkingCalendar calendar = new WorkingCalendar(mock(DataSource.class));
+
+        assertTrue(calendar.isBookable(1, MONDAY.atTime(8, 0), 1));
+        assertTrue(calendar.isBookable(1, MONDAY.atTime(15, 0), 1));
+        assertTrue(calendar.isBookable(1, MONDAY.atTime(8, 0), 8));
+        assertFalse(calendar.isBookable(1, MONDAY.atTime(7, 0), 1));
+        assertFalse(calendar.isBookable(1, MONDAY.atTime(16, 0), 1));
+        assertFalse(calendar.isBookable(1, MONDAY.atTime(15, 30), 1), "booking must end within working hours");
+        assertFalse(calendar.isBookable(1, MONDAY.atTime(15, 0), 2));
+        assertFalse(calendar.isBookable(1, MONDAY.plusDays(5).atTime(10, 0), 1), "Saturday is a day off");
+        assertFalse(calendar.isBookable(1, MONDAY.atTime(23, 0), 2), "booking must not cross midnight");
+        assertFalse(calendar.isBookable(1, MONDAY.atTime(10, 0), 0));
+    }
+
+    @Test
+    void testDatesOutsideHorizonFollowWeekdayRules() {
+        WorkingCalendar calendar = new WorkingCalendar(mock(DataSource.class));
+        LocalDate farMonday = MONDAY.plusYears(10).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+
+        assertTrue(calendar.isBookable(1, farMonday.atTime(9, 0), 1));
+        assertFalse(calendar.isBookable(1, farMonday.plusDays(6).atTime(9, 0), 1));
+    }
+
+    @Test
+    void testExceptionsAndRoomCalendarsFromDatabase() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Integer roomId = jdbcTemplate.queryForObject("INSERT INTO coworking.\"conference_rooms-liquibase\" (name, capacity)" +
+                " VALUES ('Calendar room', 5) RETURNING id", Integer.class);
+        Integer workspaceId = jdbcTemplate.queryForObject("INSERT INTO coworking.\"workspaces-liquibase\" (name, conference_room_id)" +
+                " VALUES ('Calendar workspace', ?) RETURNING id", Integer.class, roomId);
+        Integer otherWorkspaceId = jdbcTemplate.queryForObject("SELECT min(id) FROM coworking.\"workspaces-liquibase\"", Integer.class);
+        Integer otherRoomId = jdbcTemplate.queryForObject("SELECT min(id) FROM coworking.\"conference_rooms-liquibase\"", Integer.class);
+
+        jdbcTemplate.update("INSERT INTO coworking.\"working_hours-liquibase\" (conference_room_id, work_days, start_hour, end_hour)" +
+                " VALUES (?, 'MONDAY,SATURDAY', 10, 20)", roomId);
+        jdbcTemplate.update("INSERT INTO coworking.\"calendar_exceptions-liquibase\" (conference_room_id, exception_date)" +
+                " VALUES (NULL, ?)", MONDAY.plusDays(1));
+        jdbcTemplate.update("INSERT INTO coworking.\"calendar_exceptions-liquibase\" (conference_room_id, exception_date, start_hour, end_hour)" +
+                " VALUES (NULL, ?, 9, 12)", MONDAY.plusDays(2));
+
+        WorkingCalendar calendar = new WorkingCalendar(dataSource);
+        calendar.load();
+
+        LocalDateTime mondayEvening = MONDAY.atTime(18, 0);
+        assertTrue(calendar.isBookable(workspaceId, mondayEvening, 2));
+        assertFalse(calendar.isBookable(otherWorkspaceId, mondayEvening, 1));
+        assertTrue(calendar.isBookable(workspaceId, MONDAY.plusDays(5).atTime(10, 0), 1));
+        assertFalse(calendar.isBookableInRoom(roomId, MONDAY.plusDays(3).atTime(12, 0), 1));
+
+        assertFalse(calendar.isBookable(otherWorkspaceId, MONDAY.plusDays(1).atTime(10, 0), 1), "holiday");
+        assertTrue(calendar.isBookable(otherWorkspaceId, MONDAY.plusDays(2).atTime(11, 0), 1));
+        assertFalse(calendar.isBookable(otherWorkspaceId, MONDAY.plusDays(2).atTime(12, 0), 1), "short day");
+        assertEquals(WorkingCalendar.hoursMask(9, 12), calendar.workingHours(otherRoomId, MONDAY.plusDays(2)));
+
+        jdbcTemplate.update("DELETE FROM coworking.\"working_hours-liquibase\" WHERE conference_room_id = ?", roomId);
+        calendar.invalidate(WorkingCalendar.WORKING_HOURS_TABLE, List.of(roomId));
+        assertFalse(calendar.isBookable(workspaceId, mondayEvening, 1));
+
+        jdbcTemplate.update("DELETE FROM coworking.\"calendar_exceptions-liquibase\"");
+        jdbcTemplate.update("DELETE FROM coworking.\"workspaces-liquibase\" WHERE id = ?", workspaceId);
+        jdbcTemplate.update("DELETE FROM coworking.\"conference_rooms-liquibase\" WHERE id = ?", roomId);
+    }
+
+    @Test
+    void testDatabaseRejectsUnknownDaysAndDuplicateDefaults() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("INSERT INTO coworking.\"working_hours-liquibase\"" +
+                " (conference_room_id, work_days, start_hour, end_hour) VALUES (NULL, 'MONDAY,FUNDAY', 8, 16)"));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("INSERT INTO coworking.\"working_hours-liquibase\"" +
+                " (conference_room_id, work_days, start_hour, end_hour) VALUES (NULL, 'SUNDAY', 8, 16)"),
+                "the default calendar is seeded by the changelog");
+        Integer roomId = jdbcTemplate.queryForObject("SELECT min(id) FROM coworking.\"conference_rooms-liquibase\"", Integer.class);
+        jdbcTemplate.update("INSERT INTO coworking.\"working_hours-liquibase\" (conference_room_id, work_days, start_hour, end_hour)" +
+                " VALUES (?, ' monday , Friday ', 8, 16)", roomId);
+        jdbcTemplate.update("DELETE FROM coworking.\"working_hours-liquibase\" WHERE conference_room_id = ?", roomId);
+
+        jdbcTemplate.update("INSERT INTO coworking.\"calendar_exceptions-liquibase\" (conference_room_id, exception_date)" +
+                " VALUES (NULL, ?)", MONDAY.plusDays(3));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("INSERT INTO coworking.\"calendar_exceptions-liquibase\"" +
+                " (conference_room_id, exception_date, start_hour, end_hour) VALUES (NULL, ?, 9, 12)", MONDAY.plusDays(3)));
+        jdbcTemplate.update("DELETE FROM coworking.\"calendar_exceptions-liquibase\"");
+    }
+}
@@ -0,0 +1,78 @@
+package io.coworking.availability;
+
+import io.coworking.entities.Booking;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class WorkspaceAvailabilityIndexTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 7, 8);
+    private static final int ROUNDS = 2000;
+
+    private final OccupancyBitmapStore occupancy = new OccupancyBitmapStore();
+    private final WorkspaceAvailabilityIndex index = new WorkspaceAvailabilityIndex(mock(DataSource.class), occupancy);
+
+    @Test
+    void testUpdateMovesBookingWithinAndAcrossWorkspaces() {
+        index.put(booking(1, 7, DAY.atTime(9, 0), 2));
+        index.put(booking(1, 7, DAY.atTime(14, 0), 1));
+
+        assertTrue(index.isAvailable(7, DAY.atTime(9, 0), 2));
+        assertFalse(index.isAvailable(7, DAY.atTime(14, 0), 1));
+
+        index.put(booking(1, 8, DAY.atTime(14, 0), 1));
+
+        assertTrue(index.isAvailable(7, DAY.atTime(14, 0), 1));
+        assertFalse(index.isAvailable(8, DAY.atTime(14, 0), 1));
+        assertEquals(0, occupancy.occupiedHours(7, DAY.toEpochDay()));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testConcurrentPutsOfSameBookingLeaveOneInterval() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int bookingId = 1; bookingId <= ROUNDS; bookingId++) {
+                Booking booking = booking(bookingId, 7, DAY.atTime(9, 0).plusDays(bookingId), 2);
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                Future<?> first = executor.submit(() -> putAfter(barrier, booking));
+                Future<?> second = executor.submit(() -> putAfter(barrier, booking));
+                first.get(10, TimeUnit.SECONDS);
+                second.get(10, TimeUnit.SECONDS);
+
+                index.remove(bookingId);
+
+                assertTrue(index.isAvailable(7, booking.getBookingTime(), 2), "phantom interval of booking " + bookingId);
+                assertEquals(0, occupancy.occupiedHours(7, booking.getBookingTime().toLocalDate().toEpochDay()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, index.size());
+    }
+
+    private Void putAfter(CyclicBarrier barrier, Booking booking) throws Exception {
+        barrier.await(10, TimeUnit.SECONDS);
+        index.put(booking);
+        return null;
+    }
+
+    private static Booking booking(int id, int workspaceId, LocalDateTime bookingTime, int durationHours) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setWorkspaceId(workspaceId);
+        booking.setBookingTime(bookingTime);
+        booking.setBookingDurationHours(durationHours);
+        return booking;
+    }
+}
@@ -0,0 +1,70 @@
+package io.coworking.controllers;
+
+import io.coworking.managers.UserAuthenticationManager;
+import io.coworking.security.PasswordHashingRejectedException;
+import io.coworking.security.SessionToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AuthController.class)
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserAuthenticationManager userAuthenticationManager;
+
+    @Test
+    void testLogin() throws Exception {
+        given(userAuthenticationManager.createSession("admin", "admin"))
+                .willReturn(Optional.of(new SessionToken("payload.signature", Instant.parse("2030-01-01T00:00:00Z"))));
+        given(userAuthenticationManager.createSession("admin", "wrong")).willReturn(Optional.empty());
+        given(userAuthenticationManager.createSession("busy", "admin"))
+                .willThrow(new PasswordHashingRejectedException("Password hashing queue is full", null));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"admin\",\"password\":\"admin\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("payload.signature"));
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"admin\",\"password\":\"wrong\"}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"busy\",\"password\":\"admin\"}"))
+                .andExpect(status().isServiceUnavailable());
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"\",\"password\":\"admin\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testLogout() throws Exception {
+        given(userAuthenticationManager.logout(anyString())).willReturn(false);
+        given(userAuthenticationManager.logout("payload.signature")).willReturn(true);
+
+        mockMvc.perform(post("/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer payload.signature"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer other.signature"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/logout"))
+                .andExpect(status().isUnauthorized());
+    }
+}
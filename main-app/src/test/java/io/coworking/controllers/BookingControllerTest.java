@@ -1,5 +1,11 @@
 package io.coworking.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.coworking.dao.BookingConflictException;
+import io.coworking.dao.KeysetPage;
+import io.coworking.dto.BookingDTO;
 import io.coworking.entities.Booking;
 import io.coworking.managers.WorkspaceManager;
 import org.junit.jupiter.api.Test;
@@ -11,13 +17,24 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -40,7 +57,7 @@ class BookingControllerTest {
         booking.setBookingTime(LocalDateTime.now());
         booking.setBookingDurationHours(2);
 
-        Mockito.when(workspaceManager.findAllBookings()).thenReturn(Collections.singletonList(booking));
+        Mockito.when(workspaceManager.findBookings(any(), isNull(), eq(100))).thenReturn(new KeysetPage<>(Collections.singletonList(booking), null));
 
         mockMvc.perform(get("/bookings")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -49,7 +66,89 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].workspaceId").value(1))
                 .andExpect(jsonPath("$[0].bookedBy").value("Benedict Spinoza"))
                 .andExpect(jsonPath("$[0].bookingTime").isNotEmpty())
-                .andExpect(jsonPath("$[0].bookingDurationHours").value(2));
+                .andExpect(jsonPath("$[0].bookingDurationHours").value(2))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testGetBookingsInBinaryFormats() throws Exception {
+        Booking booking = new Booking();
+        booking.setId(1);
+        booking.setWorkspaceId(3);
+        booking.setBookedBy("Benedict Spinoza");
+        booking.setBookingTime(LocalDateTime.of(2025, 1, 1, 9, 0));
+        booking.setBookingDurationHours(2);
+        Mockito.when(workspaceManager.findBookings(any(), isNull(), eq(100))).thenReturn(new KeysetPage<>(Collections.singletonList(booking), null));
+
+        for (ObjectMapper mapper : List.of(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory()))) {
+            MediaType mediaType = mapper.getFactory() instanceof CBORFactory
+                    ? MediaType.APPLICATION_CBOR : MediaType.valueOf("application/x-jackson-smile");
+            MvcResult result = mockMvc.perform(get("/bookings").accept(mediaType))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(mediaType))
+                    .andReturn();
+
+            mapper.findAndRegisterModules();
+            List<BookingDTO> bookings = Arrays.asList(mapper.readValue(result.getResponse().getContentAsByteArray(), BookingDTO[].class));
+            assertEquals(1, bookings.size());
+            assertEquals("Benedict Spinoza", bookings.get(0).getBookedBy());
+            assertEquals(3, bookings.get(0).getWorkspaceId());
+            assertEquals(LocalDateTime.of(2025, 1, 1, 9, 0), bookings.get(0).getBookingTime());
+        }
+    }
+
+    @Test
+    void testGetBookingsPageReturnsNextCursor() throws Exception {
+        Booking booking = new Booking();
+        booking.setId(7);
+        booking.setWorkspaceId(1);
+        booking.setBookedBy("Benedict Spinoza");
+        booking.setBookingTime(LocalDateTime.now());
+        booking.setBookingDurationHours(2);
+
+        Mockito.when(workspaceManager.findBookings(argThat(filter -> Integer.valueOf(1).equals(filter.getWorkspaceId())), eq(5), eq(1)))
+                .thenReturn(new KeysetPage<>(Collections.singletonList(booking), 7));
+
+        mockMvc.perform(get("/bookings")
+                        .param("after", "5")
+                        .param("limit", "1")
+                        .param("workspaceId", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "7"))
+                .andExpect(jsonPath("$[0].id").value(7));
+    }
+
+    @Test
+    void testExportBookingsAsCsv() throws Exception {
+        Booking booking = new Booking();
+        booking.setId(1);
+        booking.setWorkspaceId(2);
+        booking.setBookedBy("Spinoza, Benedict");
+        booking.setBookingTime(LocalDateTime.of(2024, 7, 8, 9, 0));
+        booking.setBookingDurationHours(2);
+
+        doAnswer(invocation -> {
+            Consumer<Booking> consumer = invocation.getArgument(0);
+            consumer.accept(booking);
+            return null;
+        }).when(workspaceManager).exportBookings(any());
+
+        MvcResult result = mockMvc.perform(get("/bookings/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id,workspace_id,booked_by,booking_time,duration_hours\n"
+                        + "1,2,\"Spinoza, Benedict\",2024-07-08T09:00,2\n"));
+    }
+
+    @Test
+    void testExportBookingsRejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/bookings/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -98,4 +197,55 @@ class BookingControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Booking not found"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreateBookingsInBatch() throws Exception {
+        doAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            for (int i = 0; i < bookings.size(); i++) {
+                bookings.get(i).setId(10 + i);
+            }
+            return null;
+        }).when(workspaceManager).bookWorkspaces(any());
+
+        mockMvc.perform(post("/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BATCH_REQUEST))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.ids[0]").value(10))
+                .andExpect(jsonPath("$.ids[1]").value(11))
+                .andExpect(jsonPath("$.conflicts").isEmpty());
+    }
+
+    @Test
+    void testCreateBookingsInBatchShouldReturnConflicts() throws Exception {
+        doThrow(new BookingConflictException("Workspaces are not available at the specified time", List.of(1)))
+                .when(workspaceManager).bookWorkspaces(any());
+
+        mockMvc.perform(post("/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BATCH_REQUEST))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.ids").isEmpty())
+                .andExpect(jsonPath("$.conflicts[0]").value(1))
+                .andExpect(jsonPath("$.message").value("Workspaces are not available at the specified time"));
+    }
+
+    private static final String BATCH_REQUEST = """
+            {"bookings": [
+              {"workspaceId": 1, "bookedBy": "Benedict Spinoza", "bookingTime": "2024-07-08 09:00", "bookingDurationHours": 1},
+              {"workspaceId": 1, "bookedBy": "Benedict Spinoza", "bookingTime": "2024-07-08 09:30", "bookingDurationHours": 1}
+            ]}""";
+
+    @Test
+    void testUpdateBookingShouldReturnConflictOnOverlap() throws Exception {
+        doThrow(new BookingConflictException("Workspace is not available at the specified time"))
+                .when(workspaceManager).updateBooking(any());
+
+        mockMvc.perform(put("/bookings/{id}", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"workspaceId\": 1, \"bookedBy\": \"Benedict Spinoza\", \"bookingTime\": \"2024-07-08 09:00\", \"bookingDurationHours\": 1}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Workspace is not available at the specified time"));
+    }
+}
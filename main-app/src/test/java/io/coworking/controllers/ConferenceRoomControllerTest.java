@@ -1,9 +1,10 @@
 package io.coworking.controllers;
 
+import io.coworking.dao.AggregateVersion;
+import io.coworking.dao.KeysetPage;
 import io.coworking.entities.ConferenceRoom;
 import io.coworking.entities.Workspace;
 import io.coworking.managers.ConferenceRoomManager;
-import io.coworking.managers.WorkspaceManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -14,11 +15,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,11 +37,9 @@ class ConferenceRoomControllerTest {
     @MockBean
     private ConferenceRoomManager conferenceRoomManager;
 
-    @MockBean
-    private WorkspaceManager workspaceManager;
-
     @Test
     void testGetAllConferenceRooms() throws Exception {
+        Mockito.when(conferenceRoomManager.getConferenceRoomGraphVersion()).thenReturn(new AggregateVersion("1.2.3", Instant.EPOCH));
         ConferenceRoom conferenceRoom = new ConferenceRoom();
         conferenceRoom.setId(1);
         conferenceRoom.setName("Conference Room 1");
@@ -49,9 +52,7 @@ class ConferenceRoomControllerTest {
 
         conferenceRoom.setWorkspaces(Collections.singletonList(workspace));
 
-        Mockito.when(conferenceRoomManager.findAllConferenceRooms()).thenReturn(Collections.singletonList(conferenceRoom));
-        Mockito.when(conferenceRoomManager.findWorkspacesByConferenceRoomId(1)).thenReturn(Collections.singletonList(workspace));
-        Mockito.when(workspaceManager.findBookingsByWorkspaceId(1)).thenReturn(Collections.emptyList());
+        Mockito.when(conferenceRoomManager.findConferenceRoomsWithWorkspaces(any(), any(), anyInt(), anyInt())).thenReturn(new KeysetPage<>(Collections.singletonList(conferenceRoom), null));
 
         mockMvc.perform(get("/conference_rooms")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -60,7 +61,61 @@ class ConferenceRoomControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Conference Room 1"))
                 .andExpect(jsonPath("$[0].workspaces[0].id").value(1))
                 .andExpect(jsonPath("$[0].workspaces[0].name").value("Workspace 1"))
-                .andExpect(jsonPath("$[0].workspaces[0].bookings").isEmpty());
+                .andExpect(jsonPath("$[0].workspaces[0].bookings").isEmpty())
+                .andExpect(header().string("ETag", "\"conference-rooms-1.2.3-json\""));
+    }
+
+    @Test
+    void testGetAllConferenceRoomsNotModified() throws Exception {
+        Instant lastModified = Instant.parse("2024-07-08T10:15:30Z");
+        Mockito.when(conferenceRoomManager.getConferenceRoomGraphVersion()).thenReturn(new AggregateVersion("4.5.6", lastModified));
+        Mockito.when(conferenceRoomManager.findConferenceRoomsWithWorkspaces(any(), any(), anyInt(), anyInt()))
+                .thenReturn(new KeysetPage<>(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/conference_rooms").header("If-None-Match", "\"conference-rooms-4.5.6-json\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"conference-rooms-4.5.6-json\""))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/conference_rooms").header("If-None-Match", "\"conference-rooms-4.5.5-json\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"));
+        Mockito.verify(conferenceRoomManager, Mockito.times(1)).findConferenceRoomsWithWorkspaces(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testIfModifiedSinceAloneNeverAnswersNotModified() throws Exception {
+        Instant lastModified = Instant.parse("2024-07-08T10:15:30Z");
+        Mockito.when(conferenceRoomManager.getConferenceRoomGraphVersion()).thenReturn(new AggregateVersion("4.5.6", lastModified));
+        Mockito.when(conferenceRoomManager.findConferenceRoomsWithWorkspaces(any(), any(), anyInt(), anyInt()))
+                .thenReturn(new KeysetPage<>(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/conference_rooms").header("If-Modified-Since", "Mon, 08 Jul 2024 10:15:30 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"conference-rooms-4.5.6-json\""))
+                .andExpect(header().doesNotExist("Last-Modified"));
+        mockMvc.perform(get("/conference_rooms").header("If-Modified-Since", "Mon, 08 Jul 2024 10:15:30 GMT")
+                        .header("If-None-Match", "\"conference-rooms-4.5.6-json\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetAllConferenceRoomsETagDependsOnEncoding() throws Exception {
+        Mockito.when(conferenceRoomManager.getConferenceRoomGraphVersion()).thenReturn(new AggregateVersion("1.2.3", Instant.EPOCH));
+        Mockito.when(conferenceRoomManager.findConferenceRoomsWithWorkspaces(any(), any(), anyInt(), anyInt()))
+                .thenReturn(new KeysetPage<>(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/conference_rooms").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"conference-rooms-1.2.3-cbor\""))
+                .andExpect(header().string("Vary", "Accept"));
+        mockMvc.perform(get("/conference_rooms").accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", "\"conference-rooms-1.2.3-json\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/conference_rooms").accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", "\"conference-rooms-1.2.3-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Accept"));
     }
 
     @Test
@@ -77,9 +132,7 @@ class ConferenceRoomControllerTest {
 
         conferenceRoom.setWorkspaces(Collections.singletonList(workspace));
 
-        Mockito.when(conferenceRoomManager.findConferenceRoomById(1)).thenReturn(Optional.of(conferenceRoom));
-        Mockito.when(conferenceRoomManager.findWorkspacesByConferenceRoomId(1)).thenReturn(Collections.singletonList(workspace));
-        Mockito.when(workspaceManager.findBookingsByWorkspaceId(1)).thenReturn(Collections.emptyList());
+        Mockito.when(conferenceRoomManager.findConferenceRoomWithWorkspacesById(1, 20)).thenReturn(Optional.of(conferenceRoom));
 
         mockMvc.perform(get("/conference_rooms/{id}", 1)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -91,6 +144,15 @@ class ConferenceRoomControllerTest {
                 .andExpect(jsonPath("$.workspaces[0].bookings").isEmpty());
     }
 
+    @Test
+    void testGetConferenceRoomByIdShouldReturnNotFound() throws Exception {
+        Mockito.when(conferenceRoomManager.findConferenceRoomWithWorkspacesById(1, 20)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/conference_rooms/{id}", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testCreateConferenceRoom() throws Exception {
         mockMvc.perform(post("/conference_rooms")
@@ -145,4 +207,50 @@ class ConferenceRoomControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Conference room not found"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testIsConferenceRoomAvailable() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2024, 7, 8, 10, 0);
+        Mockito.when(conferenceRoomManager.isConferenceRoomAvailable(1, start, 2)).thenReturn(true);
+
+        mockMvc.perform(get("/conference_rooms/{id}/availability", 1)
+                        .param("start", "2024-07-08T10:00:00")
+                        .param("durationHours", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+    }
+
+    @Test
+    void testIsConferenceRoomAvailableShouldReturnNotFound() throws Exception {
+        Mockito.when(conferenceRoomManager.isConferenceRoomAvailable(anyInt(), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("Conference room not found"));
+
+        mockMvc.perform(get("/conference_rooms/{id}/availability", 99)
+                        .param("start", "2024-07-08T10:00:00"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testFindAvailableConferenceRooms() throws Exception {
+        Mockito.when(conferenceRoomManager.findAvailableConferenceRoomIds(eq(List.of(3, 1, 2)), any(), eq(1))).thenReturn(List.of(1, 3));
+
+        mockMvc.perform(get("/conference_rooms/availability")
+                        .param("ids", "3,1,2")
+                        .param("start", "2024-07-08T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(1))
+                .andExpect(jsonPath("$[1]").value(3));
+    }
+
+    @Test
+    void testFindAvailableConferenceRoomsShouldReturnNotFound() throws Exception {
+        Mockito.when(conferenceRoomManager.findAvailableConferenceRoomIds(any(), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("Conference rooms with IDs [99] not found"));
+
+        mockMvc.perform(get("/conference_rooms/availability")
+                        .param("ids", "1,99")
+                        .param("start", "2024-07-08T10:00:00"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Conference rooms with IDs [99] not found"));
+    }
+}
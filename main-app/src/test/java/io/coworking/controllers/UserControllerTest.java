@@ -1,5 +1,8 @@
 package io.coworking.controllers;
 
+import io.coworking.dao.KeysetPage;
+import io.coworking.dao.UserInsertResult;
+import io.coworking.dao.projection.UserSummary;
 import io.coworking.dto.UserDTO;
 import io.coworking.entities.User;
 import io.coworking.managers.UserRegistrationManager;
@@ -14,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -43,7 +47,7 @@ class UserControllerTest {
     @Test
     void testGetAllUsers() throws Exception {
         User user = new User("Benedict Spinoza", "bspinoza@gmail.com", "ethic");
-        given(userRegistrationManager.getAllUsers()).willReturn(Collections.singletonList(user));
+        given(userRegistrationManager.getUsers(any(), any(), anyInt())).willReturn(new KeysetPage<>(Collections.singletonList(user), null));
 
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
@@ -51,6 +55,19 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].email").value("bspinoza@gmail.com"));
     }
 
+    @Test
+    void testGetUserSummariesOmitsPassword() throws Exception {
+        UserSummary summary = new UserSummary(1, "Benedict Spinoza", "bspinoza@gmail.com");
+        given(userRegistrationManager.getUserSummaries(any(), any(), anyInt())).willReturn(new KeysetPage<>(Collections.singletonList(summary), 1));
+
+        mockMvc.perform(get("/users/summary"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Benedict Spinoza"))
+                .andExpect(jsonPath("$[0].password").doesNotExist());
+    }
+
     @Test
     void testGetUserById() throws Exception {
         User user = new User("Benedict Spinoza", "bspinoza@gmail.com", "ethic");
@@ -101,6 +118,31 @@ class UserControllerTest {
                 .andExpect(content().string("User already exists"));
     }
 
+    @Test
+    void testImportUsersReportsSkippedUsers() throws Exception {
+        given(userRegistrationManager.registerUsers(any())).willReturn(List.of(
+                new UserInsertResult(5, false, false),
+                new UserInsertResult(null, true, false),
+                new UserInsertResult(null, false, true)));
+
+        mockMvc.perform(post("/users/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"users\":[" +
+                                "{\"name\":\"Benedict Spinoza\",\"email\":\"bspinoza@gmail.com\",\"password\":\"ethic\"}," +
+                                "{\"name\":\"Admin\",\"email\":\"other@gmail.com\",\"password\":\"secret\"}," +
+                                "{\"name\":\"Other\",\"email\":\"admin@example.com\",\"password\":\"secret\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids[0]").value(5))
+                .andExpect(jsonPath("$.ids[1]").doesNotExist())
+                .andExpect(jsonPath("$.nameConflicts[0]").value(1))
+                .andExpect(jsonPath("$.emailConflicts[0]").value(2));
+
+        mockMvc.perform(post("/users/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"users\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testUpdateUser() throws Exception {
         UserDTO userDTO = new UserDTO();
@@ -1,5 +1,9 @@
 package io.coworking.controllers;
 
+import io.coworking.availability.FreeSlot;
+import io.coworking.availability.FreeSlotSearch;
+import io.coworking.dao.AggregateVersion;
+import io.coworking.dao.KeysetPage;
 import io.coworking.entities.Workspace;
 import io.coworking.managers.WorkspaceManager;
 import org.junit.jupiter.api.Test;
@@ -12,11 +16,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,15 +46,43 @@ class WorkspaceControllerTest {
         workspace.setName("Workspace 1");
         workspace.setBookings(Collections.emptyList());
 
-        Mockito.when(workspaceManager.findAllWorkspaces()).thenReturn(Collections.singletonList(workspace));
-        Mockito.when(workspaceManager.findBookingsByWorkspaceId(1)).thenReturn(Collections.emptyList());
+        Mockito.when(workspaceManager.findWorkspacesWithBookings(any(), any(), anyInt(), anyInt())).thenReturn(new KeysetPage<>(Collections.singletonList(workspace), null));
+        Mockito.when(workspaceManager.getWorkspaceGraphVersion()).thenReturn(new AggregateVersion("7.8", Instant.EPOCH));
 
         mockMvc.perform(get("/workspaces")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].name").value("Workspace 1"))
-                .andExpect(jsonPath("$[0].bookings").isEmpty());
+                .andExpect(jsonPath("$[0].bookings").isEmpty())
+                .andExpect(header().string("ETag", "\"workspaces-7.8-json\""));
+
+        mockMvc.perform(get("/workspaces").header("If-None-Match", "\"workspaces-7.8-json\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/workspaces").header("Accept", "application/json;q=0.5, application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"workspaces-7.8-smile\""))
+                .andExpect(header().string("Vary", "Accept"));
+    }
+
+    @Test
+    void testGetAllWorkspacesReportsTruncatedBookings() throws Exception {
+        Workspace workspace = new Workspace();
+        workspace.setId(1);
+        workspace.setName("Workspace 1");
+        workspace.setBookings(Collections.emptyList());
+        workspace.setBookingsTruncated(true);
+
+        Mockito.when(workspaceManager.findWorkspacesWithBookings(any(), any(), anyInt(), anyInt())).thenReturn(new KeysetPage<>(Collections.singletonList(workspace), null));
+        Mockito.when(workspaceManager.getWorkspaceGraphVersion()).thenReturn(new AggregateVersion("7.8", Instant.EPOCH));
+
+        mockMvc.perform(get("/workspaces").param("bookingsLimit", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingsTruncated").value(true));
+        mockMvc.perform(get("/workspaces"))
+                .andExpect(status().isOk());
+        Mockito.verify(workspaceManager).findWorkspacesWithBookings(any(), isNull(), eq(100), eq(KeysetPagination.MAX_BOOKINGS_LIMIT));
+        Mockito.verify(workspaceManager).findWorkspacesWithBookings(any(), isNull(), eq(100), eq(20));
     }
 
     @Test
@@ -120,4 +157,30 @@ class WorkspaceControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Workspace not found"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindFreeSlots() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2024, 7, 8, 9, 0);
+        FreeSlot slot = new FreeSlot(start, start.plusHours(2), 1, List.of(3, 4));
+        Mockito.when(workspaceManager.findFreeSlots(any(), isNull(), anyInt()))
+                .thenReturn(new FreeSlotSearch.Page(List.of(slot), "2024-07-08T09:00,1"));
+
+        mockMvc.perform(get("/workspaces/free-slots")
+                        .param("from", "2024-07-08T08:00:00")
+                        .param("to", "2024-07-08T18:00:00")
+                        .param("durationHours", "2")
+                        .param("seats", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "2024-07-08T09:00,1"))
+                .andExpect(jsonPath("$[0].conferenceRoomId").value(1))
+                .andExpect(jsonPath("$[0].workspaceIds[1]").value(4));
+    }
+
+    @Test
+    void testFindFreeSlotsShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/workspaces/free-slots")
+                        .param("from", "2024-07-08T18:00:00")
+                        .param("to", "2024-07-08T08:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,103 @@
+package io.coworking.dao.cache;
+
+import io.coworking.dao.ConferenceRoomDAO;
+import io.coworking.entities.ConferenceRoom;
+import io.coworking.entities.Workspace;
+import io.coworking.invalidation.InvalidationListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingConferenceRoomDAOTest {
+    private ConferenceRoomDAO delegate;
+    private SimpleMeterRegistry meterRegistry;
+    private EntityCache entityCache;
+    private CachingConferenceRoomDAO cachingDAO;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ConferenceRoomDAO.class);
+        meterRegistry = new SimpleMeterRegistry();
+        entityCache = new EntityCache(100, Duration.ofMinutes(10), meterRegistry);
+        cachingDAO = new CachingConferenceRoomDAO(delegate, entityCache);
+
+        ConferenceRoom conferenceRoom = new ConferenceRoom("Information Technology", 10);
+        conferenceRoom.setId(1);
+        when(delegate.findConferenceRoomById(1)).thenAnswer(invocation -> {
+            ConferenceRoom loaded = new ConferenceRoom(conferenceRoom.getName(), conferenceRoom.getCapacity());
+            loaded.setId(1);
+            return Optional.of(loaded);
+        });
+    }
+
+    @Test
+    void testFindByIdIsServedFromCache() {
+        assertEquals("Information Technology", cachingDAO.findConferenceRoomById(1).orElseThrow().getName());
+        assertEquals("Information Technology", cachingDAO.findConferenceRoomById(1).orElseThrow().getName());
+
+        verify(delegate, times(1)).findConferenceRoomById(1);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "conferenceRooms").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testReturnedCopiesDoNotLeakIntoCache() {
+        ConferenceRoom first = cachingDAO.findConferenceRoomById(1).orElseThrow();
+        first.setName("Changed");
+        first.getWorkspaces().add(new Workspace("Observer"));
+
+        ConferenceRoom second = cachingDAO.findConferenceRoomById(1).orElseThrow();
+        assertEquals("Information Technology", second.getName());
+        assertTrue(second.getWorkspaces().isEmpty());
+    }
+
+    @Test
+    void testUpdateInvalidatesEntry() {
+        cachingDAO.findConferenceRoomById(1);
+        ConferenceRoom updated = new ConferenceRoom("Foreign Languages", 20);
+        updated.setId(1);
+        cachingDAO.updateConferenceRoom(updated);
+        cachingDAO.findConferenceRoomById(1);
+
+        verify(delegate).updateConferenceRoom(updated);
+        verify(delegate, times(2)).findConferenceRoomById(1);
+    }
+
+    @Test
+    void testUnrelatedNotificationDuringLoadKeepsLoadedValue() {
+        when(delegate.findConferenceRoomById(2)).thenAnswer(invocation -> {
+            entityCache.invalidate(InvalidationListener.BOOKINGS_TABLE, List.of(7));
+            return Optional.of(room(2));
+        });
+
+        cachingDAO.findConferenceRoomById(2);
+        cachingDAO.findConferenceRoomById(2);
+
+        verify(delegate, times(1)).findConferenceRoomById(2);
+    }
+
+    @Test
+    void testConferenceRoomNotificationDuringLoadDiscardsLoadedValue() {
+        when(delegate.findConferenceRoomById(2)).thenAnswer(invocation -> {
+            entityCache.invalidate(InvalidationListener.CONFERENCE_ROOMS_TABLE, List.of(2));
+            return Optional.of(room(2));
+        });
+
+        cachingDAO.findConferenceRoomById(2);
+        cachingDAO.findConferenceRoomById(2);
+
+        verify(delegate, times(2)).findConferenceRoomById(2);
+    }
+
+    private static ConferenceRoom room(int id) {
+        ConferenceRoom conferenceRoom = new ConferenceRoom("Room " + id, 4);
+        conferenceRoom.setId(id);
+        return conferenceRoom;
+    }
+}
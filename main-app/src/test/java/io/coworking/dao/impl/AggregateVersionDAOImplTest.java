@@ -0,0 +1,65 @@
+package io.coworking.dao.impl;
+
+import io.coworking.dao.AggregateVersion;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяем счетчики изменений, поддерживаемые триггерами, на встроенном PostgreSQL.
+ */
+class AggregateVersionDAOImplTest {
+    private static final List<String> TABLES = List.of("conference_rooms-liquibase", "workspaces-liquibase");
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private static AggregateVersionDAOImpl aggregateVersionDAO;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(postgres.getPostgresDatabase());
+        liquibase.setChangeLog("classpath:db/changelog/changelog.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        aggregateVersionDAO = new AggregateVersionDAOImpl(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void testEveryStatementChangesTheVersionOfItsTable() {
+        AggregateVersion initial = aggregateVersionDAO.findVersion(TABLES);
+
+        jdbcTemplate.update("INSERT INTO coworking.\"conference_rooms-liquibase\" (name, capacity) VALUES ('Room', 4)");
+        AggregateVersion afterInsert = aggregateVersionDAO.findVersion(TABLES);
+        jdbcTemplate.update("UPDATE coworking.\"conference_rooms-liquibase\" SET capacity = 5 WHERE name = 'Room'");
+        AggregateVersion afterUpdate = aggregateVersionDAO.findVersion(TABLES);
+
+        String[] before = initial.tag().split("\\.");
+        String[] after = afterUpdate.tag().split("\\.");
+        assertEquals(2, after.length);
+        assertEquals(Long.parseLong(before[0]) + 2, Long.parseLong(after[0]));
+        assertEquals(before[1], after[1]);
+        assertNotEquals(initial.tag(), afterInsert.tag());
+        assertFalse(afterUpdate.lastModified().isBefore(initial.lastModified()));
+    }
+
+    @Test
+    void testUnknownTableHasZeroVersion() {
+        assertEquals("0", aggregateVersionDAO.findVersion(List.of("unknown")).tag());
+    }
+}
@@ -0,0 +1,96 @@
+package io.coworking.dao.impl;
+
+import io.coworking.entities.Booking;
+import io.coworking.entities.Workspace;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяем ограничение вложенных бронирований на встроенном PostgreSQL.
+ */
+class ConferenceRoomGraphDAOImplTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 9, 0);
+    private static final int BOOKINGS_LIMIT = 20;
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private static ConferenceRoomGraphDAOImpl conferenceRoomGraphDAO;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(postgres.getPostgresDatabase());
+        liquibase.setChangeLog("classpath:db/changelog/changelog.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        conferenceRoomGraphDAO = new ConferenceRoomGraphDAOImpl(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void testLoadBookingsKeepsLatestBookingsPerWorkspace() {
+        Workspace crowded = insertWorkspace("Crowded", BOOKINGS_LIMIT + 5);
+        Workspace full = insertWorkspace("Full", BOOKINGS_LIMIT);
+        Workspace quiet = insertWorkspace("Quiet", 2);
+
+        conferenceRoomGraphDAO.loadBookings(List.of(crowded, full, quiet), BOOKINGS_LIMIT);
+
+        List<Booking> bookings = crowded.getBookings();
+        assertEquals(BOOKINGS_LIMIT, bookings.size());
+        assertTrue(crowded.isBookingsTruncated());
+        assertEquals(START.plusDays(5), bookings.get(0).getBookingTime());
+        assertEquals(START.plusDays(BOOKINGS_LIMIT + 4), bookings.get(bookings.size() - 1).getBookingTime());
+        assertTrue(bookings.stream().allMatch(booking -> booking.getWorkspaceId() == crowded.getId()));
+        assertEquals(BOOKINGS_LIMIT, full.getBookings().size());
+        assertFalse(full.isBookingsTruncated());
+        assertEquals(2, quiet.getBookings().size());
+        assertFalse(quiet.isBookingsTruncated());
+        assertEquals(START, quiet.getBookings().get(0).getBookingTime());
+    }
+
+    @Test
+    void testZeroLimitOnlyReportsTruncation() {
+        Workspace booked = insertWorkspace("Booked", 1);
+        Workspace empty = insertWorkspace("Empty", 0);
+
+        conferenceRoomGraphDAO.loadBookings(List.of(booked, empty), 0);
+
+        assertTrue(booked.getBookings().isEmpty());
+        assertTrue(booked.isBookingsTruncated());
+        assertTrue(empty.getBookings().isEmpty());
+        assertFalse(empty.isBookingsTruncated());
+    }
+
+    private static Workspace insertWorkspace(String name, int bookings) {
+        Integer conferenceRoomId = jdbcTemplate.queryForObject(
+                "INSERT INTO coworking.\"conference_rooms-liquibase\" (name, capacity) VALUES (?, 10) RETURNING id", Integer.class, name);
+        Integer workspaceId = jdbcTemplate.queryForObject(
+                "INSERT INTO coworking.\"workspaces-liquibase\" (name, conference_room_id) VALUES (?, ?) RETURNING id", Integer.class, name, conferenceRoomId);
+        // Вставляем в обратном порядке, чтобы порядок ID не совпадал с порядком времени начала.
+        for (int day = bookings - 1; day >= 0; day--) {
+            jdbcTemplate.update("INSERT INTO coworking.\"bookings-liquibase\" (workspace_id, booked_by, booking_time, duration_hours) VALUES (?, 'user', ?, 1)",
+                    workspaceId, START.plusDays(day));
+        }
+        Workspace workspace = new Workspace();
+        workspace.setId(workspaceId);
+        workspace.setName(name);
+        workspace.setConferenceRoomId(conferenceRoomId);
+        return workspace;
+    }
+}
@@ -0,0 +1,105 @@
+package io.coworking.dao.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяем планы выполнения запросов DAO на заполненной базе:
+ * ни один поиск не должен откатываться к последовательному сканированию таблицы,
+ * для которой существует индекс.
+ */
+class QueryPlanTest {
+    private static final String BOOKINGS = "bookings-liquibase";
+    private static final String WORKSPACES = "workspaces-liquibase";
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/changelog.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("INSERT INTO coworking.\"conference_rooms-liquibase\" (name, capacity)" +
+                " SELECT 'Room ' || g, 10 FROM generate_series(1, 2000) g");
+        jdbcTemplate.execute("INSERT INTO coworking.\"workspaces-liquibase\" (name, conference_room_id)" +
+                " SELECT 'Workspace ' || g, r.id FROM generate_series(0, 19999) g" +
+                " JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn FROM coworking.\"conference_rooms-liquibase\") r ON r.rn = g % 2000");
+        // 1000 рабочих мест по одному бронированию в день в течение года: ~365 тысяч строк без пересечений.
+        jdbcTemplate.execute("INSERT INTO coworking.\"bookings-liquibase\" (workspace_id, booked_by, booking_time, duration_hours)" +
+                " SELECT w.id, 'user' || ((w.rn * 365 + d) % 1000)," +
+                " TIMESTAMP '2025-01-01 08:00' + d * INTERVAL '1 day' + (w.rn % 8) * INTERVAL '1 hour', 1" +
+                " FROM (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM coworking.\"workspaces-liquibase\" ORDER BY id DESC LIMIT 1000) w" +
+                " CROSS JOIN generate_series(0, 364) d");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void testBookingLookupsUseIndexes() throws Exception {
+        Integer workspaceId = jdbcTemplate.queryForObject("SELECT max(workspace_id) FROM coworking.\"bookings-liquibase\"", Integer.class);
+        LocalDateTime dayStart = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+        assertNoSeqScan(BOOKINGS, BookingDAOImpl.FIND_BY_WORKSPACE_ID_SQL, workspaceId);
+        assertNoSeqScan(BOOKINGS, BookingDAOImpl.FIND_BY_USER_SQL, "user7");
+        assertNoSeqScan(BOOKINGS, BookingDAOImpl.FIND_BY_DATE_SQL, dayStart, dayStart.plusDays(1));
+        assertNoSeqScan(BOOKINGS, WorkspaceDAOImpl.FIND_BOOKINGS_BY_WORKSPACE_SQL, workspaceId);
+        assertNoSeqScan(BOOKINGS, ConferenceRoomDAOImpl.FIND_BOOKINGS_BY_WORKSPACE_SQL, workspaceId);
+    }
+
+    @Test
+    void testConferenceRoomLookupsUseIndexes() throws Exception {
+        Integer conferenceRoomId = jdbcTemplate.queryForObject("SELECT max(conference_room_id) FROM coworking.\"workspaces-liquibase\"", Integer.class);
+        LocalDateTime dayStart = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+        assertNoSeqScan(WORKSPACES, ConferenceRoomDAOImpl.FIND_WORKSPACES_BY_ROOM_SQL, conferenceRoomId);
+        assertNoSeqScan(WORKSPACES, WorkspaceDAOImpl.FIND_BY_CONFERENCE_ROOM_SQL, conferenceRoomId);
+        assertNoSeqScan(BOOKINGS, ConferenceRoomDAOImpl.FIND_ROOMS_BY_DATE_SQL, dayStart, dayStart.plusDays(1));
+        assertNoSeqScan(BOOKINGS, ConferenceRoomDAOImpl.FIND_ROOMS_BY_USER_SQL, "user7");
+    }
+
+    private void assertNoSeqScan(String relation, String sql, Object... args) throws Exception {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql, String.class, args);
+        JsonNode root = objectMapper.readTree(plan).get(0).get("Plan");
+
+        List<String> scans = new ArrayList<>();
+        collectScans(root, relation, scans);
+        assertFalse(scans.isEmpty(), () -> "Relation " + relation + " is not scanned by: " + sql);
+        assertFalse(scans.contains("Seq Scan"), () -> "Sequential scan on " + relation + " for: " + sql + "\n" + plan);
+    }
+
+    private static void collectScans(JsonNode node, String relation, List<String> scans) {
+        if (relation.equals(node.path("Relation Name").asText())) {
+            scans.add(node.path("Node Type").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectScans(child, relation, scans);
+        }
+    }
+}
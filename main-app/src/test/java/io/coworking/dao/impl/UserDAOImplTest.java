@@ -0,0 +1,75 @@
+package io.coworking.dao.impl;
+
+import io.coworking.dao.UserInsertResult;
+import io.coworking.entities.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяем вставку пользователей через {@code ON CONFLICT DO NOTHING} на встроенном PostgreSQL.
+ */
+class UserDAOImplTest {
+    private static EmbeddedPostgres postgres;
+    private static UserDAOImpl userDAO;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(postgres.getPostgresDatabase());
+        liquibase.setChangeLog("classpath:db/changelog/changelog.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        userDAO = new UserDAOImpl(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void testInsertUserIfAbsentReportsCollidedKey() {
+        User user = new User("Spinoza", "spinoza@example.com", "ethic");
+
+        UserInsertResult inserted = userDAO.insertUserIfAbsent(user);
+        assertTrue(inserted.inserted());
+        assertEquals(inserted.id(), user.getId());
+        assertFalse(inserted.nameTaken() || inserted.emailTaken());
+
+        assertEquals(new UserInsertResult(null, true, false),
+                userDAO.insertUserIfAbsent(new User("Spinoza", "other@example.com", "ethic")));
+        assertEquals(new UserInsertResult(null, false, true),
+                userDAO.insertUserIfAbsent(new User("Leibniz", "spinoza@example.com", "monad")));
+        assertEquals(new UserInsertResult(null, true, true),
+                userDAO.insertUserIfAbsent(new User("Spinoza", "spinoza@example.com", "ethic")));
+    }
+
+    @Test
+    void testInsertUsersIfAbsentSkipsExistingAndDuplicateUsers() {
+        List<User> users = List.of(
+                new User("Hume", "hume@example.com", "treatise"),
+                new User("Admin", "hume2@example.com", "secret"),
+                new User("Locke", "hume@example.com", "essay"),
+                new User("Kant", "kant@example.com", "critique"),
+                new User("Kant", "kant@example.com", "critique"));
+
+        List<UserInsertResult> results = userDAO.insertUsersIfAbsent(users);
+
+        assertTrue(results.get(0).inserted());
+        assertEquals(new UserInsertResult(null, true, false), results.get(1));
+        assertEquals(new UserInsertResult(null, false, true), results.get(2));
+        assertTrue(results.get(3).inserted());
+        assertEquals(new UserInsertResult(null, true, true), results.get(4));
+        assertEquals("Kant", userDAO.findUserById(results.get(3).id()).orElseThrow().getName());
+        assertEquals(users.get(0).getId(), results.get(0).id());
+    }
+}
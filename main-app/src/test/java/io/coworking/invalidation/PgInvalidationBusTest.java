@@ -0,0 +1,126 @@
+package io.coworking.invalidation;
+
+import io.coworking.availability.OccupancyBitmapStore;
+import io.coworking.availability.WorkspaceAvailabilityIndex;
+import io.coworking.dao.cache.CachingConferenceRoomDAO;
+import io.coworking.dao.cache.EntityCache;
+import io.coworking.dao.impl.ConferenceRoomDAOImpl;
+import io.coworking.entities.ConferenceRoom;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяем доставку уведомлений LISTEN/NOTIFY до локальных кэшей на встроенном PostgreSQL.
+ * Изменения выполняются через отдельное соединение, как это делал бы другой экземпляр приложения.
+ */
+class PgInvalidationBusTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final LocalDateTime BOOKING_TIME = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate otherNode;
+    private CachingConferenceRoomDAO conferenceRoomDAO;
+    private WorkspaceAvailabilityIndex availabilityIndex;
+    private PgInvalidationBus bus;
+    private int conferenceRoomId;
+    private int workspaceId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/changelog.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        otherNode = new JdbcTemplate(dataSource);
+        conferenceRoomId = otherNode.queryForObject(
+                "INSERT INTO coworking.\"conference_rooms-liquibase\" (name, capacity) VALUES ('Room', 4) RETURNING id", Integer.class);
+        workspaceId = otherNode.queryForObject(
+                "INSERT INTO coworking.\"workspaces-liquibase\" (name, conference_room_id) VALUES ('Desk', ?) RETURNING id", Integer.class, conferenceRoomId);
+
+        EntityCache entityCache = new EntityCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        conferenceRoomDAO = new CachingConferenceRoomDAO(new ConferenceRoomDAOImpl(dataSource), entityCache);
+        availabilityIndex = new WorkspaceAvailabilityIndex(dataSource, new OccupancyBitmapStore());
+        availabilityIndex.load();
+
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(postgres.getJdbcUrl("postgres", "postgres"));
+        properties.setUsername("postgres");
+        properties.setPassword("postgres");
+        bus = new PgInvalidationBus(properties, List.of(entityCache, availabilityIndex), new StandardEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        bus.stop();
+        postgres.close();
+    }
+
+    @Test
+    void testNotificationEvictsCachedConferenceRoom() throws Exception {
+        bus.start();
+        assertEquals("Room", conferenceRoomDAO.findConferenceRoomById(conferenceRoomId).map(ConferenceRoom::getName).orElseThrow());
+
+        otherNode.update("UPDATE coworking.\"conference_rooms-liquibase\" SET name = 'Renamed' WHERE id = ?", conferenceRoomId);
+
+        awaitTrue(() -> conferenceRoomDAO.findConferenceRoomById(conferenceRoomId).map(ConferenceRoom::getName).orElseThrow().equals("Renamed"));
+    }
+
+    @Test
+    void testNotificationRefreshesAndRemovesIndexedBooking() throws Exception {
+        bus.start();
+        assertTrue(availabilityIndex.isAvailable(workspaceId, BOOKING_TIME, 1));
+
+        Integer bookingId = otherNode.queryForObject(
+                "INSERT INTO coworking.\"bookings-liquibase\" (workspace_id, booked_by, booking_time, duration_hours) VALUES (?, 'user', ?, 2) RETURNING id",
+                Integer.class, workspaceId, BOOKING_TIME);
+        awaitTrue(() -> !availabilityIndex.isAvailable(workspaceId, BOOKING_TIME.plusHours(1), 1));
+
+        otherNode.update("UPDATE coworking.\"bookings-liquibase\" SET booking_time = ? WHERE id = ?", BOOKING_TIME.plusDays(1), bookingId);
+        awaitTrue(() -> availabilityIndex.isAvailable(workspaceId, BOOKING_TIME, 2)
+                && !availabilityIndex.isAvailable(workspaceId, BOOKING_TIME.plusDays(1), 1));
+
+        otherNode.update("DELETE FROM coworking.\"bookings-liquibase\" WHERE id = ?", bookingId);
+        awaitTrue(() -> availabilityIndex.isAvailable(workspaceId, BOOKING_TIME.plusDays(1), 1));
+    }
+
+    @Test
+    void testChangeBeforeFirstListenIsPickedUp() throws Exception {
+        // Бронирование создано после начальной загрузки индекса, но до подписки на уведомления.
+        otherNode.update("INSERT INTO coworking.\"bookings-liquibase\" (workspace_id, booked_by, booking_time, duration_hours) VALUES (?, 'user', ?, 1)",
+                workspaceId, BOOKING_TIME);
+        assertTrue(availabilityIndex.isAvailable(workspaceId, BOOKING_TIME, 1));
+
+        bus.start();
+
+        awaitTrue(() -> !availabilityIndex.isAvailable(workspaceId, BOOKING_TIME, 1));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition was not met within " + TIMEOUT);
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.coworking.managers;
+
+import io.coworking.availability.OccupancyBitmapStore;
+import io.coworking.availability.WorkingCalendar;
+import io.coworking.availability.WorkspaceAvailabilityIndex;
+import io.coworking.dao.AggregateVersionDAO;
+import io.coworking.dao.ConferenceRoomDAO;
+import io.coworking.dao.ConferenceRoomGraphDAO;
+import io.coworking.dao.WorkspaceDAO;
+import io.coworking.entities.Booking;
+import io.coworking.entities.ConferenceRoom;
+import io.coworking.entities.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ConferenceRoomManagerTest {
+    private static final int ROOM_ID = 1;
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 7, 8, 0, 0);
+
+    private ConferenceRoomDAO conferenceRoomDAO;
+    private WorkingCalendar workingCalendar;
+    private WorkspaceAvailabilityIndex index;
+    private ConferenceRoomManager conferenceRoomManager;
+
+    @BeforeEach
+    void setUp() {
+        conferenceRoomDAO = mock(ConferenceRoomDAO.class);
+        when(conferenceRoomDAO.findConferenceRoomById(ROOM_ID)).thenReturn(Optional.of(new ConferenceRoom("Room", 4)));
+        WorkspaceDAO workspaceDAO = mock(WorkspaceDAO.class);
+        when(workspaceDAO.findAllWorkspaces()).thenReturn(List.of(workspace(10, ROOM_ID), workspace(11, ROOM_ID), workspace(20, 2)));
+        workingCalendar = mock(WorkingCalendar.class);
+        when(workingCalendar.isBookableInRoom(anyInt(), any(), anyInt())).thenReturn(true);
+        OccupancyBitmapStore occupancy = new OccupancyBitmapStore();
+        index = new WorkspaceAvailabilityIndex(mock(DataSource.class), occupancy);
+        conferenceRoomManager = new ConferenceRoomManager(conferenceRoomDAO, workspaceDAO, mock(ConferenceRoomGraphDAO.class),
+                workingCalendar, occupancy, index, mock(AggregateVersionDAO.class));
+    }
+
+    @Test
+    void testRoomIsBusyWhenAnyWorkspaceOverlaps() {
+        index.put(booking(1, 11, MONDAY.plusHours(10), 2));
+
+        assertFalse(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(11), 1));
+        assertFalse(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(9), 2));
+        assertTrue(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(12), 3));
+        assertTrue(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(8), 2));
+    }
+
+    @Test
+    void testBookingsOfOtherRoomsAreIgnored() {
+        index.put(booking(1, 20, MONDAY.plusHours(10), 2));
+
+        assertTrue(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(10), 2));
+    }
+
+    @Test
+    void testPartiallyOccupiedHourIsCheckedExactly() {
+        // Бронирование занимает часы 10 и 11 лишь частично: маска занятости отмечает их целиком,
+        // а точный ответ дает дерево интервалов.
+        index.put(booking(1, 10, MONDAY.plusHours(10).plusMinutes(30), 1));
+
+        assertTrue(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(9).plusMinutes(30), 1));
+        assertFalse(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(11), 1));
+        assertTrue(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(11).plusMinutes(30), 1));
+    }
+
+    @Test
+    void testIntervalAcrossMidnight() {
+        index.put(booking(1, 10, MONDAY.plusDays(1).plusHours(1), 1));
+
+        assertFalse(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(23), 3));
+        assertTrue(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(23), 2));
+    }
+
+    @Test
+    void testClosedRoomIsNotAvailable() {
+        when(workingCalendar.isBookableInRoom(anyInt(), any(), anyInt())).thenReturn(false);
+
+        assertFalse(conferenceRoomManager.isConferenceRoomAvailable(ROOM_ID, MONDAY.plusHours(10), 1));
+    }
+
+    @Test
+    void testUnknownRoomIsRejected() {
+        when(conferenceRoomDAO.findConferenceRoomById(99)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> conferenceRoomManager.isConferenceRoomAvailable(99, MONDAY.plusHours(10), 1));
+    }
+
+    @Test
+    void testBatchedCheckMatchesSingleRoomCheck() {
+        when(conferenceRoomDAO.findConferenceRoomById(2)).thenReturn(Optional.of(new ConferenceRoom("Other room", 2)));
+        when(conferenceRoomDAO.findConferenceRoomById(3)).thenReturn(Optional.of(new ConferenceRoom("Empty room", 2)));
+        when(workingCalendar.isBookableInRoom(eq(3), any(), anyInt())).thenReturn(false);
+        index.put(booking(1, 20, MONDAY.plusHours(10), 2));
+
+        assertEquals(List.of(ROOM_ID), conferenceRoomManager.findAvailableConferenceRoomIds(List.of(3, 2, ROOM_ID, 2), MONDAY.plusHours(11), 1));
+        assertEquals(List.of(ROOM_ID, 2), conferenceRoomManager.findAvailableConferenceRoomIds(List.of(2, ROOM_ID), MONDAY.plusHours(12), 1));
+        assertFalse(conferenceRoomManager.isConferenceRoomAvailable(2, MONDAY.plusHours(11), 1));
+    }
+
+    @Test
+    void testBatchedCheckRejectsUnknownRooms() {
+        when(conferenceRoomDAO.findConferenceRoomById(anyInt())).thenReturn(Optional.empty());
+        when(conferenceRoomDAO.findConferenceRoomById(ROOM_ID)).thenReturn(Optional.of(new ConferenceRoom("Room", 4)));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> conferenceRoomManager.findAvailableConferenceRoomIds(List.of(99, ROOM_ID, 98), MONDAY.plusHours(10), 1));
+        assertEquals("Conference rooms with IDs [98, 99] not found", exception.getMessage());
+    }
+
+    private static Workspace workspace(int id, int conferenceRoomId) {
+        Workspace workspace = new Workspace();
+        workspace.setId(id);
+        workspace.setConferenceRoomId(conferenceRoomId);
+        return workspace;
+    }
+
+    private static Booking booking(int id, int workspaceId, LocalDateTime bookingTime, int durationHours) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setWorkspaceId(workspaceId);
+        booking.setBookingTime(bookingTime);
+        booking.setBookingDurationHours(durationHours);
+        return booking;
+    }
+}
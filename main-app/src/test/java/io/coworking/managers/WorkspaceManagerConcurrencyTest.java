@@ -0,0 +1,107 @@
+package io.coworking.managers;
+
+import io.coworking.availability.FreeSlotSearch;
+import io.coworking.availability.OccupancyBitmapStore;
+import io.coworking.availability.WorkingCalendar;
+import io.coworking.availability.WorkspaceAvailabilityIndex;
+import io.coworking.availability.WorkspaceBookingLocks;
+import io.coworking.dao.AggregateVersionDAO;
+import io.coworking.dao.BookingDAO;
+import io.coworking.dao.ConferenceRoomGraphDAO;
+import io.coworking.dao.WorkspaceDAO;
+import io.coworking.entities.Booking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkspaceManagerConcurrencyTest {
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS_PER_THREAD = 500;
+    private static final int WORKSPACES = 8;
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 7, 8, 8, 0);
+
+    @Test
+    void testConcurrentBookingsNeverOverlap() throws Exception {
+        WorkspaceAvailabilityIndex index = new WorkspaceAvailabilityIndex(mock(DataSource.class), new OccupancyBitmapStore());
+        Queue<Booking> stored = new ConcurrentLinkedQueue<>();
+        AtomicInteger ids = new AtomicInteger();
+
+        WorkspaceDAO workspaceDAO = mock(WorkspaceDAO.class);
+        when(workspaceDAO.isWorkspaceAvailable(anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> index.isAvailable(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        BookingDAO bookingDAO = mock(BookingDAO.class);
+        doAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            // Расширяем окно между проверкой и вставкой, как это делает сетевой вызов к базе данных.
+            Thread.yield();
+            booking.setId(ids.incrementAndGet());
+            stored.add(booking);
+            index.put(booking);
+            return null;
+        }).when(bookingDAO).addBooking(any());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WorkspaceManager workspaceManager = new WorkspaceManager(workspaceDAO, bookingDAO, mock(ConferenceRoomGraphDAO.class),
+                new WorkspaceBookingLocks(meterRegistry), mock(TransactionTemplate.class), new WorkingCalendar(mock(DataSource.class)), mock(FreeSlotSearch.class),
+                mock(AggregateVersionDAO.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    int workspaceId = 1 + random.nextInt(WORKSPACES);
+                    LocalDateTime bookingTime = MONDAY.plusMinutes(30L * random.nextInt(16));
+                    try {
+                        workspaceManager.bookWorkspace(workspaceId, "user" + seed, bookingTime, 1 + random.nextInt(2));
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, stored.size() + rejected.get());
+        assertFalse(stored.isEmpty());
+
+        Map<Integer, List<Booking>> byWorkspace = new HashMap<>();
+        for (Booking booking : stored) {
+            byWorkspace.computeIfAbsent(booking.getWorkspaceId(), id -> new ArrayList<>()).add(booking);
+        }
+        for (List<Booking> bookings : byWorkspace.values()) {
+            bookings.sort(Comparator.comparing(Booking::getBookingTime));
+            for (int i = 1; i < bookings.size(); i++) {
+                Booking previous = bookings.get(i - 1);
+                LocalDateTime previousEnd = previous.getBookingTime().plusHours(previous.getBookingDurationHours());
+                assertFalse(bookings.get(i).getBookingTime().isBefore(previousEnd),
+                        "Double booking of workspace " + previous.getWorkspaceId() + " at " + bookings.get(i).getBookingTime());
+            }
+        }
+        assertNotNull(meterRegistry.find("coworking.booking.lock.contended").counter());
+    }
+}
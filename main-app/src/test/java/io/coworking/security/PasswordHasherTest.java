@@ -0,0 +1,92 @@
+package io.coworking.security;
+
+import io.coworking.dao.UserDAO;
+import io.coworking.entities.User;
+import io.coworking.managers.UserAuthenticationManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PasswordHasherTest {
+    private final PasswordHasher passwordHasher = new PasswordHasher(4, 2, 16, 1, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void testHashAndVerify() {
+        String hash = passwordHasher.hash("secret");
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$04$"));
+        assertEquals(new PasswordHasher.Verification(true, false), passwordHasher.verify("secret", hash));
+        assertFalse(passwordHasher.verify("wrong", hash).matches());
+    }
+
+    @Test
+    void testImportLargerThanQueueIsThrottled() {
+        List<String> passwords = IntStream.range(0, 40).mapToObj(i -> "secret" + i).toList();
+
+        List<String> hashes = passwordHasher.hashAll(passwords);
+
+        assertEquals(passwords.size(), hashes.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(passwordHasher.verify(passwords.get(i), hashes.get(i)).matches());
+        }
+    }
+
+    @Test
+    void testLoginIsServedDuringImport() throws Exception {
+        List<String> passwords = IntStream.range(0, 200).mapToObj(i -> "secret" + i).toList();
+        String hash = passwordHasher.hash("admin");
+        CompletableFuture<List<String>> importing = CompletableFuture.supplyAsync(() -> passwordHasher.hashAll(passwords));
+
+        for (int i = 0; i < 20 && !importing.isDone(); i++) {
+            assertTrue(passwordHasher.verify("admin", hash).matches());
+        }
+        assertEquals(passwords.size(), importing.get(30, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    void testLegacyAndWeakerHashesNeedRehash() {
+        assertEquals(new PasswordHasher.Verification(true, true), passwordHasher.verify("admin", "admin"));
+        assertEquals(new PasswordHasher.Verification(false, false), passwordHasher.verify("admin", "other"));
+
+        PasswordHasher stronger = new PasswordHasher(5, 1, 16, 1, new SimpleMeterRegistry());
+        try {
+            assertTrue(stronger.verify("secret", passwordHasher.hash("secret")).needsRehash());
+        } finally {
+            stronger.shutdown();
+        }
+    }
+
+    @Test
+    void testLoginRehashesLegacyPassword() {
+        User user = new User("admin", "admin@example.com", "admin");
+        user.setId(1);
+        UserDAO userDAO = mock(UserDAO.class);
+        when(userDAO.findUserByName("admin")).thenReturn(Optional.of(user));
+        UserAuthenticationManager authenticationManager = new UserAuthenticationManager(userDAO, passwordHasher, mock(SessionTokens.class));
+
+        assertTrue(authenticationManager.loginUser("admin", "admin").isPresent());
+        verify(userDAO).updatePassword(eq(1), startsWith("{bcrypt}"));
+        assertTrue(passwordHasher.verify("admin", user.getPassword()).matches());
+
+        assertTrue(authenticationManager.loginUser("admin", "wrong").isEmpty());
+        assertTrue(authenticationManager.loginUser("nobody", "admin").isEmpty());
+        verify(userDAO, times(1)).updatePassword(anyInt(), anyString());
+    }
+}
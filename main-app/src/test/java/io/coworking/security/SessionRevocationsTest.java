@@ -0,0 +1,87 @@
+package io.coworking.security;
+
+import io.coworking.invalidation.InvalidationListener;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяем на встроенном PostgreSQL, что отзывы переживают перезапуск и доходят до других экземпляров.
+ */
+class SessionRevocationsTest {
+    private static final Duration TTL = Duration.ofHours(8);
+
+    private EmbeddedPostgres postgres;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        dataSource = postgres.getPostgresDatabase();
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/changelog.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void testDeletedUserStaysRevokedAfterRestart() {
+        SessionRevocations revocations = new SessionRevocations(dataSource, TTL);
+        revocations.load();
+        revocations.revokeUser(7);
+        revocations.revokeUser(7);
+        revocations.revoke(1L, Instant.now().plus(TTL));
+
+        SessionRevocations restarted = new SessionRevocations(dataSource, TTL);
+        restarted.load();
+
+        assertTrue(restarted.isRevoked(2L, 7));
+        assertTrue(restarted.isRevoked(1L, 8));
+        assertFalse(restarted.isRevoked(2L, 8));
+    }
+
+    @Test
+    void testOtherInstanceReadsNotifiedRows() {
+        SessionRevocations revocations = new SessionRevocations(dataSource, TTL);
+        SessionRevocations otherNode = new SessionRevocations(dataSource, TTL);
+        revocations.revokeUser(7);
+        revocations.revoke(1L, Instant.now().plus(TTL));
+        assertFalse(otherNode.isRevoked(2L, 7));
+
+        List<Integer> ids = new JdbcTemplate(dataSource).queryForList(
+                "SELECT id FROM coworking.\"session_revocations-liquibase\"", Integer.class);
+        otherNode.invalidate(InvalidationListener.SESSION_REVOCATIONS_TABLE, ids);
+
+        assertTrue(otherNode.isRevoked(2L, 7));
+        assertTrue(otherNode.isRevoked(1L, 8));
+    }
+
+    @Test
+    void testExpiredRevocationsAreNotLoaded() {
+        SessionRevocations revocations = new SessionRevocations(dataSource, TTL);
+        revocations.revokeUser(7);
+        new JdbcTemplate(dataSource).update(
+                "UPDATE coworking.\"session_revocations-liquibase\" SET expires_at = expires_at - INTERVAL '1 day'");
+
+        revocations.load();
+
+        assertFalse(revocations.isRevoked(2L, 7));
+    }
+}
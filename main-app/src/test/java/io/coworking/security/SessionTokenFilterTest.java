@@ -0,0 +1,85 @@
+package io.coworking.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SessionTokenFilterTest {
+    private final SessionTokens sessionTokens = mock(SessionTokens.class);
+    private final SessionTokenFilter requiredFilter = new SessionTokenFilter(sessionTokens, true);
+
+    @Test
+    void testRegistrationAndLoginArePublicWhenTokenIsRequired() throws Exception {
+        assertPassed(filter(requiredFilter, request("POST", "/users")));
+        assertPassed(filter(requiredFilter, request("POST", "/auth/login")));
+        assertPassed(filter(requiredFilter, request("GET", "/v3/api-docs")));
+    }
+
+    @Test
+    void testOtherUserEndpointsRequireToken() throws Exception {
+        assertUnauthorized(filter(requiredFilter, request("GET", "/users")), "Bearer");
+        assertUnauthorized(filter(requiredFilter, request("POST", "/users/import")), "Bearer");
+        assertUnauthorized(filter(requiredFilter, request("DELETE", "/users/1")), "Bearer");
+    }
+
+    @Test
+    void testMissingTokenIsAllowedWhenNotRequired() throws Exception {
+        assertPassed(filter(new SessionTokenFilter(sessionTokens, false), request("GET", "/users")));
+    }
+
+    @Test
+    void testValidTokenSetsPrincipal() throws Exception {
+        SessionPrincipal principal = new SessionPrincipal(1L, 7, "admin", Instant.now().plusSeconds(60));
+        when(sessionTokens.verify("good")).thenReturn(Optional.of(principal));
+        MockHttpServletRequest request = request("GET", "/users");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer good");
+
+        assertPassed(filter(requiredFilter, request));
+        assertEquals(principal, request.getAttribute(SessionTokenFilter.PRINCIPAL_ATTRIBUTE));
+    }
+
+    @Test
+    void testInvalidTokenIsRejectedEvenOnPublicPath() throws Exception {
+        when(sessionTokens.verify("bad")).thenReturn(Optional.empty());
+        MockHttpServletRequest request = request("POST", "/users");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer bad");
+
+        assertUnauthorized(filter(requiredFilter, request), "Bearer error=\"invalid_token\"");
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/y_lab_uni" + path);
+        request.setContextPath("/y_lab_uni");
+        return request;
+    }
+
+    private static Result filter(SessionTokenFilter filter, MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return new Result(chain, response);
+    }
+
+    private static void assertPassed(Result result) {
+        assertNotNull(result.chain().getRequest());
+        assertEquals(200, result.response().getStatus());
+    }
+
+    private static void assertUnauthorized(Result result, String challenge) {
+        assertNull(result.chain().getRequest());
+        assertEquals(401, result.response().getStatus());
+        assertEquals(challenge, result.response().getHeader(HttpHeaders.WWW_AUTHENTICATE));
+    }
+
+    private record Result(MockFilterChain chain, MockHttpServletResponse response) {
+    }
+}
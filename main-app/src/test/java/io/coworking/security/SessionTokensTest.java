@@ -0,0 +1,73 @@
+package io.coworking.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+class SessionTokensTest {
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final SessionRevocations revocations = new SessionRevocations(mock(DataSource.class, RETURNS_DEEP_STUBS), Duration.ofHours(8));
+    private final SessionTokens sessionTokens = new SessionTokens(SECRET, Duration.ofHours(8), revocations);
+
+    @Test
+    void testIssueAndVerify() {
+        SessionToken token = sessionTokens.issue(7, "Бенедикт");
+
+        Optional<SessionPrincipal> principal = sessionTokens.verify(token.token());
+        assertTrue(principal.isPresent());
+        assertEquals(7, principal.get().userId());
+        assertEquals("Бенедикт", principal.get().userName());
+        assertEquals(token.expiresAt(), principal.get().expiresAt());
+        assertTrue(token.expiresAt().isAfter(Instant.now().plus(Duration.ofHours(7))));
+        assertNotEquals(token.token(), sessionTokens.issue(7, "Бенедикт").token());
+    }
+
+    @Test
+    void testForgedAndMalformedTokensAreRejected() {
+        String token = sessionTokens.issue(7, "admin").token();
+        String payload = token.substring(0, token.indexOf('.'));
+        String signature = token.substring(token.indexOf('.') + 1);
+        String otherPayload = sessionTokens.issue(8, "admin").token().split("\\.")[0];
+        SessionTokens otherKey = new SessionTokens("", Duration.ofHours(8), revocations);
+
+        assertTrue(sessionTokens.verify(otherPayload + "." + signature).isEmpty());
+        assertTrue(otherKey.verify(token).isEmpty());
+        assertTrue(sessionTokens.verify(payload).isEmpty());
+        assertTrue(sessionTokens.verify(payload + "." + signature + ".x").isEmpty());
+        assertTrue(sessionTokens.verify("!!!." + signature).isEmpty());
+        assertTrue(sessionTokens.verify(null).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new SessionTokens("c2hvcnQ=", Duration.ofHours(8), revocations));
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        SessionTokens expired = new SessionTokens(SECRET, Duration.ofSeconds(-1), revocations);
+
+        assertTrue(expired.verify(expired.issue(7, "admin").token()).isEmpty());
+    }
+
+    @Test
+    void testRevokedTokensAndDeletedUsersAreRejected() {
+        String first = sessionTokens.issue(7, "admin").token();
+        String second = sessionTokens.issue(7, "admin").token();
+        String otherUser = sessionTokens.issue(8, "user").token();
+
+        assertTrue(sessionTokens.revoke(first));
+        assertTrue(sessionTokens.verify(first).isEmpty());
+        assertFalse(sessionTokens.revoke(first));
+        assertTrue(sessionTokens.verify(second).isPresent());
+
+        revocations.revokeUser(7);
+        assertTrue(sessionTokens.verify(second).isEmpty());
+        assertTrue(sessionTokens.verify(otherUser).isPresent());
+    }
+}